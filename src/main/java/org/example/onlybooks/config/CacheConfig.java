@@ -0,0 +1,28 @@
+package org.example.onlybooks.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+    public static final String BOOKS_CACHE = "books";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${book.cache.max-size}") long bookCacheMaxSize,
+                                     @Value("${book.cache.ttl}") Duration bookCacheTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(BOOKS_CACHE, Caffeine.newBuilder()
+                .maximumSize(bookCacheMaxSize)
+                .expireAfterWrite(bookCacheTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
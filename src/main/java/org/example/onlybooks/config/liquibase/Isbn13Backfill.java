@@ -0,0 +1,76 @@
+package org.example.onlybooks.config.liquibase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.onlybooks.util.IsbnParser;
+
+@Slf4j
+public class Isbn13Backfill implements CustomTaskChange {
+    private static final String SELECT_BOOKS = "SELECT id, isbn FROM books";
+    private static final String UPDATE_BOOK = "UPDATE books SET isbn13 = ? WHERE id = ?";
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection())
+                .getUnderlyingConnection();
+        Map<Long, Long> bookIdsByIsbn13 = new HashMap<>();
+        try (Statement select = connection.createStatement();
+                ResultSet books = select.executeQuery(SELECT_BOOKS);
+                PreparedStatement update = connection.prepareStatement(UPDATE_BOOK)) {
+            int batched = 0;
+            while (books.next()) {
+                long isbn13 = IsbnParser.parse(books.getString(2));
+                if (isbn13 == IsbnParser.INVALID) {
+                    continue;
+                }
+                Long sameIsbnBookId = bookIdsByIsbn13.putIfAbsent(isbn13, books.getLong(1));
+                if (sameIsbnBookId != null) {
+                    log.warn("Book {} has ISBN {}, the same as book {}. Its isbn13 is left "
+                            + "empty and it can't be updated until the ISBN is fixed",
+                            books.getLong(1), books.getString(2), sameIsbnBookId);
+                    continue;
+                }
+                update.setLong(1, isbn13);
+                update.setLong(2, books.getLong(1));
+                update.addBatch();
+                if (++batched % BATCH_SIZE == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        } catch (SQLException e) {
+            throw new CustomChangeException("Can't fill isbn13 for books", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "isbn13 filled for books with a valid ISBN";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -2,6 +2,7 @@ package org.example.onlybooks.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.onlybooks.dto.user.LoginUserRequestDto;
@@ -26,8 +27,9 @@ public class AuthenticationController {
     private final AuthenticationService authenticationService;
 
     @PostMapping("/login")
-    public LoginUserResponseDto login(@RequestBody @Valid LoginUserRequestDto userDto) {
-        return authenticationService.authenticate(userDto);
+    public LoginUserResponseDto login(@RequestBody @Valid LoginUserRequestDto userDto,
+                                      HttpServletRequest request) {
+        return authenticationService.authenticate(userDto, request.getRemoteAddr());
     }
 
     @Operation(summary = "Register new user. "
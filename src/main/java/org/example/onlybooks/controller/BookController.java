@@ -1,17 +1,39 @@
 package org.example.onlybooks.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.onlybooks.dto.book.BookResponseDto;
+import org.example.onlybooks.dto.book.BookScrollResponseDto;
 import org.example.onlybooks.dto.book.BookSearchParameters;
+import org.example.onlybooks.dto.book.BookSearchResponseDto;
+import org.example.onlybooks.dto.book.BookStockResponseDto;
+import org.example.onlybooks.dto.book.BookSuggestionDto;
 import org.example.onlybooks.dto.book.CreateBookRequestDto;
+import org.example.onlybooks.dto.book.RelatedBookResponseDto;
+import org.example.onlybooks.dto.book.UpdateBookStockRequestDto;
+import org.example.onlybooks.dto.sales.BestsellerResponseDto;
 import org.example.onlybooks.service.book.BookService;
+import org.example.onlybooks.service.inventory.InventoryService;
+import org.example.onlybooks.service.recommendation.RecommendationService;
+import org.example.onlybooks.service.sales.SalesReportService;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,8 +43,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Tag(name = "Online book store", description = "Endpoints for managing books")
 @Validated
@@ -30,7 +55,13 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/books")
 public class BookController {
+    private static final int NEW_LINE = '\n';
+    private static final String PAGE = "page";
     private final BookService bookService;
+    private final InventoryService inventoryService;
+    private final SalesReportService salesReportService;
+    private final RecommendationService recommendationService;
+    private final ObjectMapper objectMapper;
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @Operation(summary = "Create a new book",
@@ -50,6 +81,44 @@ public class BookController {
         return bookService.findAll(pageable);
     }
 
+    @Operation(summary = "Scroll through all books",
+            description = "Displays one page of books sorted by id, title, author or price "
+                    + "and a continuation token for the next page")
+    @GetMapping("/scroll")
+    public BookScrollResponseDto scroll(@RequestParam(required = false) String token,
+                                        Pageable pageable) {
+        return bookService.scroll(token, pageable);
+    }
+
+    @Operation(summary = "Get best-selling books",
+            description = "Displays the books with the most copies sold, "
+                    + "optionally within one category")
+    @GetMapping("/bestsellers")
+    public List<BestsellerResponseDto> getBestsellers(@RequestParam(required = false)
+                                                      @Positive
+                                                      Long categoryId,
+                                                      @RequestParam(defaultValue = "10")
+                                                      @Positive
+                                                      @Max(100)
+                                                      int limit) {
+        return salesReportService.getBestsellers(categoryId, limit);
+    }
+
+    @Operation(summary = "Suggest books while typing",
+            description = "Displays the best-selling books whose title or author has a word "
+                    + "starting with the query")
+    @GetMapping("/suggest")
+    public List<BookSuggestionDto> suggest(@RequestParam
+                                           @NotBlank
+                                           @Size(max = 100)
+                                           String q,
+                                           @RequestParam(defaultValue = "10")
+                                           @Positive
+                                           @Max(20)
+                                           int limit) {
+        return bookService.suggest(q, limit);
+    }
+
     @Operation(summary = "Find book by id",
             description = "Find book by id")
     @GetMapping("/{id}")
@@ -58,11 +127,61 @@ public class BookController {
         return bookService.findById(id);
     }
 
+    @Operation(summary = "Get books bought together",
+            description = "Displays the books most often ordered together with the given book")
+    @GetMapping("/{id}/related")
+    public List<RelatedBookResponseDto> getRelatedBooks(@PathVariable
+                                                        @Positive Long id,
+                                                        @RequestParam(defaultValue = "10")
+                                                        @Positive
+                                                        @Max(20)
+                                                        int limit) {
+        return recommendationService.getRelatedBooks(id, limit);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Operation(summary = "Rebuild book recommendations",
+            description = "Recounts the books bought together from all orders")
+    @PostMapping("/related/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuildRelatedBooks() {
+        recommendationService.rebuild();
+    }
+
     @Operation(summary = "Find books by parameters",
-            description = "Find all books by dynamic parameters")
+            description = "Find one page of books by dynamic parameters, linking to the "
+                    + "next page in the Link header when there is one")
     @GetMapping("/search")
-    public List<BookResponseDto> search(BookSearchParameters params) {
-        return bookService.search(params);
+    public ResponseEntity<List<BookResponseDto>> search(BookSearchParameters params,
+                                                        Pageable pageable) {
+        Slice<BookResponseDto> books = bookService.search(params, pageable);
+        if (!books.hasNext()) {
+            return ResponseEntity.ok(books.getContent());
+        }
+        String nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam(PAGE, pageable.getPageNumber() + 1)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"")
+                .body(books.getContent());
+    }
+
+    @Operation(summary = "Find books by parameters with facet counts",
+            description = "Find one page of books by dynamic parameters together with the "
+                    + "number of all matching books per category and price range")
+    @GetMapping(value = "/search", params = "facets=true")
+    public BookSearchResponseDto searchWithFacets(BookSearchParameters params,
+                                                  Pageable pageable) {
+        return bookService.searchWithFacets(params, pageable);
+    }
+
+    @Operation(summary = "Stream books by parameters",
+            description = "Stream all books found by dynamic parameters as newline "
+                    + "delimited JSON")
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamSearch(BookSearchParameters params, Sort sort) {
+        return outputStream -> bookService.search(params, sort,
+                book -> writeLine(outputStream, book));
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -76,6 +195,18 @@ public class BookController {
         return bookService.update(id, createRequestBookDto);
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Operation(summary = "Set book stock",
+            description = "Sets the number of copies available for new orders")
+    @PutMapping("/{id}/stock")
+    public BookStockResponseDto updateStock(@PathVariable
+                                            @Positive Long id,
+                                            @RequestBody
+                                            @Valid
+                                            UpdateBookStockRequestDto requestDto) {
+        return inventoryService.updateStock(id, requestDto.stock());
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @Operation(summary = "Delete book",
             description = "Delete book from web-site, but it remains in the database")
@@ -85,4 +216,13 @@ public class BookController {
                            @Positive Long id) {
         bookService.delete(id);
     }
+
+    private void writeLine(OutputStream outputStream, BookResponseDto book) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(book));
+            outputStream.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -3,9 +3,8 @@ package org.example.onlybooks.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import java.util.List;
-import java.util.Set;
 import lombok.RequiredArgsConstructor;
-import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
+import org.example.onlybooks.dto.category.CategoryBooksResponseDto;
 import org.example.onlybooks.dto.category.CategoryRequestDto;
 import org.example.onlybooks.dto.category.CategoryResponseDto;
 import org.example.onlybooks.service.book.BookService;
@@ -20,6 +19,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -42,7 +42,7 @@ public class CategoryController {
     @GetMapping
     @Operation(summary = "Get all categories",
             description = "Displays all categories")
-    public Set<CategoryResponseDto> getAll(Pageable pageable) {
+    public List<CategoryResponseDto> getAll(Pageable pageable) {
         return categoryService.findAll(pageable);
     }
 
@@ -55,10 +55,14 @@ public class CategoryController {
 
     @GetMapping("/{id}/books")
     @Operation(summary = "Get books by category id",
-            description = "Displays all books by category id")
-    public List<BookWithoutCategoryIdsResponseDto> getBooksByCategoryId(@PathVariable Long id,
-                                                                 Pageable pageable) {
-        return bookService.getBooksByCategoryId(id, pageable);
+            description = "Displays one page of books by category id, ordered by book id, "
+                    + "with the number of books in the category and a continuation token; "
+                    + "only size is taken from the paging parameters")
+    public CategoryBooksResponseDto getBooksByCategoryId(@PathVariable Long id,
+                                                         @RequestParam(required = false)
+                                                         String token,
+                                                         Pageable pageable) {
+        return bookService.getBooksByCategoryId(id, token, pageable);
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
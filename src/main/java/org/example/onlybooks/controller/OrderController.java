@@ -4,14 +4,20 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
-import java.util.List;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusRequestDto;
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusResponseDto;
+import org.example.onlybooks.dto.order.OrderHistoryResponseDto;
 import org.example.onlybooks.dto.order.OrderItemsResponseDto;
 import org.example.onlybooks.dto.order.OrderResponseDto;
 import org.example.onlybooks.dto.order.PlaceOrderRequestDto;
 import org.example.onlybooks.dto.order.UpdateOrderStatusRequestDto;
 import org.example.onlybooks.model.User;
+import org.example.onlybooks.service.order.BulkOrderStatusService;
+import org.example.onlybooks.service.order.IdempotentOrderService;
 import org.example.onlybooks.service.order.OrderService;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -21,7 +27,9 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -33,29 +41,38 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final BulkOrderStatusService bulkOrderStatusService;
 
     @Operation(summary = "Place a new order",
             description = "Allows an authenticated user "
-                    + "to place a new order by providing order details."
+                    + "to place a new order by providing order details. Requests repeated "
+                    + "with the same Idempotency-Key return the original order."
     )
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public OrderResponseDto placeOrder(Authentication authentication,
-                           @RequestBody
-                           @Valid
-                           PlaceOrderRequestDto requestDto) {
+                                       @RequestHeader(name = "Idempotency-Key",
+                                               required = false)
+                                       @Size(max = 255)
+                                       String idempotencyKey,
+                                       @RequestBody
+                                       @Valid
+                                       PlaceOrderRequestDto requestDto) {
         User user = (User) authentication.getPrincipal();
-        return orderService.placeOrder(user, requestDto);
+        return idempotentOrderService.placeOrder(user, requestDto, idempotencyKey);
     }
 
     @Operation(summary = "Retrieve all orders",
-            description = "Returns a list of all "
-                    + "orders placed by the authenticated user."
+            description = "Returns one page of order summaries placed by the authenticated "
+                    + "user, newest first, and a continuation token for the next page."
     )
     @GetMapping
-    public List<OrderResponseDto> getAllOrders(Authentication authentication) {
+    public OrderHistoryResponseDto getAllOrders(Authentication authentication,
+                                                @RequestParam(required = false) String token,
+                                                Pageable pageable) {
         User user = (User) authentication.getPrincipal();
-        return orderService.getAllOrders(user);
+        return orderService.getAllOrders(user, token, pageable);
     }
 
     @Operation(summary = "Find order by ID",
@@ -99,4 +116,18 @@ public class OrderController {
                                               UpdateOrderStatusRequestDto requestDto) {
         return orderService.updateOrderStatus(id, requestDto);
     }
+
+    @Operation(summary = "Update status of many orders",
+            description = "Allows an administrator to move the orders with the given IDs, "
+                    + "or all orders in a status placed within a date range, to a new status. "
+                    + "Returns the outcome for every order."
+    )
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping("/status")
+    public BulkUpdateOrderStatusResponseDto updateOrderStatuses(@RequestBody
+                                                                @Valid
+                                                                BulkUpdateOrderStatusRequestDto
+                                                                        requestDto) {
+        return bulkOrderStatusService.updateOrderStatuses(requestDto);
+    }
 }
@@ -0,0 +1,59 @@
+package org.example.onlybooks.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.dto.sales.CategorySalesResponseDto;
+import org.example.onlybooks.dto.sales.DailySalesResponseDto;
+import org.example.onlybooks.service.sales.SalesReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Sales Report Controller", description = "Sales reports for administrators")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+@RestController
+@RequestMapping("/reports/sales")
+public class SalesReportController {
+    private final SalesReportService salesReportService;
+
+    @Operation(summary = "Get daily sales",
+            description = "Displays orders, copies sold and revenue for every day "
+                    + "from the start to the end date inclusive")
+    @GetMapping("/daily")
+    public List<DailySalesResponseDto> getDailySales(@RequestParam
+                                                     @DateTimeFormat(
+                                                             iso = DateTimeFormat.ISO.DATE)
+                                                     LocalDate from,
+                                                     @RequestParam
+                                                     @DateTimeFormat(
+                                                             iso = DateTimeFormat.ISO.DATE)
+                                                     LocalDate to) {
+        return salesReportService.getDailySales(from, to);
+    }
+
+    @Operation(summary = "Get sales per category",
+            description = "Displays orders, copies sold and revenue per category, "
+                    + "highest revenue first")
+    @GetMapping("/categories")
+    public List<CategorySalesResponseDto> getCategorySales() {
+        return salesReportService.getCategorySales();
+    }
+
+    @Operation(summary = "Rebuild sales totals",
+            description = "Recomputes all sales totals from the orders")
+    @PostMapping("/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuild() {
+        salesReportService.rebuild();
+    }
+}
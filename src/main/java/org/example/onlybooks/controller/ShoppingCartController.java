@@ -6,6 +6,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.example.onlybooks.dto.cartitem.CartItemRequestDto;
+import org.example.onlybooks.dto.cartitem.CartItemResponseDto;
 import org.example.onlybooks.dto.cartitem.UpdateCartItemRequestDto;
 import org.example.onlybooks.dto.shoppingcart.ShoppingCartResponseDto;
 import org.example.onlybooks.model.User;
@@ -39,17 +40,30 @@ public class ShoppingCartController {
     }
 
     @Operation(summary = "Add a book to the shopping cart",
-            description = "This method allows adding a book to the user's shopping cart. "
-                    + "The user must be authenticated.")
+            description = "This method allows adding a book to the user's shopping cart "
+                    + "and returns the changed cart item. The user must be authenticated.")
     @PostMapping
-    public ShoppingCartResponseDto addBookToShoppingCart(Authentication authentication,
-                                                         @RequestBody
-                                                         @Valid
-                                                         CartItemRequestDto cartItem) {
+    public CartItemResponseDto addBookToShoppingCart(Authentication authentication,
+                                                     @RequestBody
+                                                     @Valid
+                                                     CartItemRequestDto cartItem) {
         User user = (User) authentication.getPrincipal();
         return shoppingCartService.addBookToShoppingCart(user, cartItem);
     }
 
+    @Operation(summary = "Add a book to the shopping cart and return the whole cart",
+            description = "Same as adding a book, but responds with the full shopping cart "
+                    + "when called with view=cart.")
+    @PostMapping(params = "view=cart")
+    public ShoppingCartResponseDto addBookToShoppingCartAndGetCart(Authentication authentication,
+                                                                   @RequestBody
+                                                                   @Valid
+                                                                   CartItemRequestDto cartItem) {
+        User user = (User) authentication.getPrincipal();
+        shoppingCartService.addBookToShoppingCart(user, cartItem);
+        return shoppingCartService.getShoppingCart(user);
+    }
+
     @Operation(summary = "Update an item in the shopping cart",
             description = "This method allows updating the "
                     + "details of an item in the user's shopping cart.")
@@ -0,0 +1,35 @@
+package org.example.onlybooks.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.service.user.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "User Controller", description = "Endpoints for managing users")
+@Validated
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/users")
+public class UserController {
+    private final UserService userService;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Operation(summary = "Revoke user tokens",
+            description = "Stops trusting roles from tokens issued to the user so far. "
+                    + "Use it after deleting a user or changing their roles")
+    @PostMapping("/{id}/revoke-tokens")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revokeTokens(@PathVariable
+                             @Positive Long id) {
+        userService.revokeTokens(id);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.onlybooks.dto.book;
+
+import java.util.List;
+
+public record BookScrollResponseDto(List<BookResponseDto> books,
+                                    String nextToken) {
+}
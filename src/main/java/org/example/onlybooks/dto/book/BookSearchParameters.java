@@ -5,7 +5,9 @@ public record BookSearchParameters(String[] titles,
                                    String[] isbn,
                                    String[] price,
                                    String[] description,
-                                   String[] categoryIds
+                                   String[] categoryIds,
+                                   String[] query,
+                                   Boolean fuzzy
                                    ) {
     public static class Builder {
         private String[] titles;
@@ -14,6 +16,8 @@ public record BookSearchParameters(String[] titles,
         private String[] price;
         private String[] description;
         private String[] categoryIds;
+        private String[] query;
+        private Boolean fuzzy;
 
         public Builder titles(String[] titles) {
             this.titles = titles;
@@ -45,8 +49,19 @@ public record BookSearchParameters(String[] titles,
             return this;
         }
 
+        public Builder query(String[] query) {
+            this.query = query;
+            return this;
+        }
+
+        public Builder fuzzy(Boolean fuzzy) {
+            this.fuzzy = fuzzy;
+            return this;
+        }
+
         public BookSearchParameters build() {
-            return new BookSearchParameters(titles, authors, isbn, price, description, categoryIds);
+            return new BookSearchParameters(
+                    titles, authors, isbn, price, description, categoryIds, query, fuzzy);
         }
     }
 
@@ -54,4 +69,18 @@ public record BookSearchParameters(String[] titles,
         return new Builder();
     }
 
+    public boolean isPriceOnly() {
+        return isPresent(price) && !isPresent(titles) && !isPresent(authors)
+                && !isPresent(isbn) && !isPresent(description) && !isPresent(categoryIds)
+                && !isPresent(query);
+    }
+
+    public boolean isFuzzy() {
+        return Boolean.TRUE.equals(fuzzy);
+    }
+
+    private static boolean isPresent(String[] values) {
+        return values != null && values.length > 0;
+    }
+
 }
@@ -0,0 +1,9 @@
+package org.example.onlybooks.dto.book;
+
+import java.util.List;
+
+public record BookSearchResponseDto(List<BookResponseDto> books,
+                                    boolean hasNext,
+                                    List<CategoryFacetDto> categories,
+                                    List<PriceFacetDto> prices) {
+}
@@ -0,0 +1,5 @@
+package org.example.onlybooks.dto.book;
+
+public record BookStockResponseDto(Long bookId,
+                                   int stock) {
+}
@@ -0,0 +1,6 @@
+package org.example.onlybooks.dto.book;
+
+public record BookSuggestionDto(Long id,
+                                String title,
+                                String author) {
+}
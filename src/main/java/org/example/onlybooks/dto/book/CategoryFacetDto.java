@@ -0,0 +1,6 @@
+package org.example.onlybooks.dto.book;
+
+public record CategoryFacetDto(Long categoryId,
+                               String name,
+                               int count) {
+}
@@ -27,8 +27,8 @@ public class CreateBookRequestDto {
     @Positive(message = "price can't be less than 1")
     private BigDecimal price;
     @Size(min = 10,
-            max = 200,
-            message = "Description must contain 10 symbols")
+            max = 5000,
+            message = "Description must contain from 10 to 5000 symbols")
     private String description;
     private String coverImage;
     @NotEmpty(message = "Please, add categories for book")
@@ -0,0 +1,8 @@
+package org.example.onlybooks.dto.book;
+
+import java.math.BigDecimal;
+
+public record PriceFacetDto(BigDecimal from,
+                            BigDecimal to,
+                            int count) {
+}
@@ -0,0 +1,10 @@
+package org.example.onlybooks.dto.book;
+
+import java.math.BigDecimal;
+
+public record RelatedBookResponseDto(Long id,
+                                     String title,
+                                     String author,
+                                     BigDecimal price,
+                                     int boughtTogether) {
+}
@@ -0,0 +1,8 @@
+package org.example.onlybooks.dto.book;
+
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record UpdateBookStockRequestDto(
+        @PositiveOrZero(message = "stock can't be negative")
+        int stock) {
+}
@@ -0,0 +1,9 @@
+package org.example.onlybooks.dto.category;
+
+import java.util.List;
+import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
+
+public record CategoryBooksResponseDto(List<BookWithoutCategoryIdsResponseDto> books,
+                                       int total,
+                                       String nextToken) {
+}
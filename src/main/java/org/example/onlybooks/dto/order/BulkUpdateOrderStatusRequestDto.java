@@ -0,0 +1,22 @@
+package org.example.onlybooks.dto.order;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import org.example.onlybooks.model.Order;
+
+public record BulkUpdateOrderStatusRequestDto(@NotNull(message = "Please, set order status")
+                                              Order.Status status,
+                                              @Size(max = 10000,
+                                                      message = "Up to 10000 orders at once")
+                                              List<@NotNull @Positive Long> ids,
+                                              @Valid
+                                              OrderStatusFilterDto filter) {
+    @AssertTrue(message = "Please, set either order ids or a filter")
+    public boolean isSelectionValid() {
+        return (ids == null) != (filter == null);
+    }
+}
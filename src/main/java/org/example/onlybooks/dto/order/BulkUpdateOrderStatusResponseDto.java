@@ -0,0 +1,9 @@
+package org.example.onlybooks.dto.order;
+
+import java.util.List;
+import org.example.onlybooks.model.Order;
+
+public record BulkUpdateOrderStatusResponseDto(Order.Status status,
+                                               int updated,
+                                               List<OrderStatusResultDto> results) {
+}
@@ -0,0 +1,7 @@
+package org.example.onlybooks.dto.order;
+
+import java.util.List;
+
+public record OrderHistoryResponseDto(List<OrderSummaryDto> orders,
+                                      String nextToken) {
+}
@@ -0,0 +1,18 @@
+package org.example.onlybooks.dto.order;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import org.example.onlybooks.model.Order;
+
+public record OrderStatusFilterDto(@NotNull(message = "Please, set current order status")
+                                   Order.Status status,
+                                   @NotNull(message = "Please, set start of the date range")
+                                   LocalDateTime from,
+                                   @NotNull(message = "Please, set end of the date range")
+                                   LocalDateTime to) {
+    @AssertTrue(message = "Start of the date range must be before its end")
+    public boolean isRangeValid() {
+        return from == null || to == null || from.isBefore(to);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.onlybooks.dto.order;
+
+import org.example.onlybooks.model.Order;
+
+public record OrderStatusResultDto(Long id,
+                                   Order.Status previousStatus,
+                                   Result result) {
+    public enum Result {
+        UPDATED,
+        UNCHANGED,
+        INVALID_TRANSITION,
+        NOT_FOUND
+    }
+}
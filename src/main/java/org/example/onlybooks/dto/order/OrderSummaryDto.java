@@ -0,0 +1,12 @@
+package org.example.onlybooks.dto.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.example.onlybooks.model.Order;
+
+public record OrderSummaryDto(Long id,
+                              LocalDateTime orderDate,
+                              BigDecimal totalPrice,
+                              Order.Status status,
+                              long itemCount) {
+}
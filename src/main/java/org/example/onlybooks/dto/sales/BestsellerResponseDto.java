@@ -0,0 +1,11 @@
+package org.example.onlybooks.dto.sales;
+
+import java.math.BigDecimal;
+
+public record BestsellerResponseDto(Long bookId,
+                                    String title,
+                                    String author,
+                                    BigDecimal price,
+                                    long unitsSold,
+                                    BigDecimal revenue) {
+}
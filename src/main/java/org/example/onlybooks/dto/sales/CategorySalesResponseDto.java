@@ -0,0 +1,10 @@
+package org.example.onlybooks.dto.sales;
+
+import java.math.BigDecimal;
+
+public record CategorySalesResponseDto(Long categoryId,
+                                       String name,
+                                       long orders,
+                                       long unitsSold,
+                                       BigDecimal revenue) {
+}
@@ -0,0 +1,10 @@
+package org.example.onlybooks.dto.sales;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailySalesResponseDto(LocalDate date,
+                                    long orders,
+                                    long unitsSold,
+                                    BigDecimal revenue) {
+}
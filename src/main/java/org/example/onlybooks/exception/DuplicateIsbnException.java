@@ -0,0 +1,7 @@
+package org.example.onlybooks.exception;
+
+public class DuplicateIsbnException extends RuntimeException {
+    public DuplicateIsbnException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.onlybooks.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
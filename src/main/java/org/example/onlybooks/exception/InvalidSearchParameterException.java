@@ -0,0 +1,7 @@
+package org.example.onlybooks.exception;
+
+public class InvalidSearchParameterException extends RuntimeException {
+    public InvalidSearchParameterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.onlybooks.index;
+
+import org.example.onlybooks.model.Book;
+
+public interface BookIndex {
+    void index(Book book);
+
+    void remove(Long bookId);
+
+    /**
+     * Starts building the index again from scratch. Lookups keep using the current contents
+     * until the returned build is published.
+     */
+    Build rebuild();
+
+    interface Build {
+        void add(Book book);
+
+        /**
+         * Replaces the current contents of the index with the built ones in one step.
+         */
+        void publish();
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.onlybooks.index;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.BookCursor;
+import org.example.onlybooks.repository.book.BookRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the book indexes in step with the catalog. A rebuild fills fresh copies of the
+ * indexes while the current ones keep serving searches, publishes them all at once and then
+ * replays the writes made in the meantime, so a search never sees a half-built index.
+ */
+@RequiredArgsConstructor
+@Component
+public class BookIndexManager {
+    private static final int BATCH_SIZE = 500;
+    private final List<BookIndex> bookIndexes;
+    private final BookRepository bookRepository;
+    private final Lock rebuildLock = new ReentrantLock();
+    private final Lock writeLock = new ReentrantLock();
+    /**
+     * Latest write per book id since the running rebuild started, null values standing for
+     * removals; null itself while no rebuild runs.
+     */
+    private Map<Long, Book> writesDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            startRecordingWrites();
+            List<BookIndex.Build> builds = bookIndexes.stream()
+                    .map(BookIndex::rebuild)
+                    .toList();
+            BookCursor cursor = BookCursor.first(Sort.unsorted());
+            List<BookCursor> keys = bookRepository.findNextPageKeys(cursor, BATCH_SIZE);
+            while (!keys.isEmpty()) {
+                List<Long> ids = keys.stream()
+                        .map(BookCursor::id)
+                        .toList();
+                bookRepository.findAllByIdIn(ids)
+                        .forEach(book -> builds.forEach(build -> build.add(book)));
+                cursor = keys.get(keys.size() - 1);
+                keys = keys.size() < BATCH_SIZE
+                        ? List.of()
+                        : bookRepository.findNextPageKeys(cursor, BATCH_SIZE);
+            }
+            publish(builds);
+        } finally {
+            stopRecordingWrites();
+            rebuildLock.unlock();
+        }
+    }
+
+    public void index(Book book) {
+        writeLock.lock();
+        try {
+            bookIndexes.forEach(bookIndex -> bookIndex.index(book));
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(book.getId(), book);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        writeLock.lock();
+        try {
+            bookIndexes.forEach(bookIndex -> bookIndex.remove(bookId));
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(bookId, null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void startRecordingWrites() {
+        writeLock.lock();
+        try {
+            writesDuringRebuild = new HashMap<>();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void publish(List<BookIndex.Build> builds) {
+        writeLock.lock();
+        try {
+            builds.forEach(BookIndex.Build::publish);
+            writesDuringRebuild.forEach((bookId, book) -> bookIndexes.forEach(bookIndex -> {
+                if (book == null) {
+                    bookIndex.remove(bookId);
+                } else {
+                    bookIndex.index(book);
+                }
+            }));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void stopRecordingWrites() {
+        writeLock.lock();
+        try {
+            writesDuringRebuild = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
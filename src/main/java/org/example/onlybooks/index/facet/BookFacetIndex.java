@@ -0,0 +1,234 @@
+package org.example.onlybooks.index.facet;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.example.onlybooks.index.BookIndex;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.model.Category;
+import org.example.onlybooks.util.collection.LongIntHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Facet counts for search results. Every indexed book gets a dense ordinal, reused after the
+ * book is removed, and each category and price bucket keeps a bitset of its ordinals. Counting
+ * a result set turns it into one bitset and intersects it with each facet word by word.
+ */
+@Component
+public class BookFacetIndex implements BookIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long[] NO_CATEGORIES = new long[0];
+    private static final Comparator<FacetCount> BY_COUNT =
+            Comparator.comparingInt(FacetCount::count).reversed()
+                    .thenComparingLong(FacetCount::key);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BigDecimal[] priceBounds;
+    private OrdinalBits[] priceBuckets;
+    private LongIntHashMap categoryIndex;
+    private long[] categoryIds;
+    private OrdinalBits[] categories;
+    private int categoryCount;
+    private LongIntHashMap idToOrdinal;
+    private long[][] categoriesByOrdinal;
+    private int[] priceBucketByOrdinal;
+    private int[] freeOrdinals;
+    private int freeCount;
+    private int nextOrdinal;
+
+    public BookFacetIndex(@Value("${book.search.facets.price-bounds}") BigDecimal[] priceBounds) {
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+        reset();
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = idToOrdinal.getOrDefault(book.getId(), -1);
+            if (ordinal >= 0) {
+                clearFacets(ordinal);
+            } else {
+                ordinal = allocate();
+                idToOrdinal.put(book.getId(), ordinal);
+            }
+            long[] bookCategories = book.getCategories() == null
+                    ? NO_CATEGORIES
+                    : book.getCategories().stream()
+                            .mapToLong(Category::getId)
+                            .distinct()
+                            .toArray();
+            for (long categoryId : bookCategories) {
+                categories[category(categoryId)].set(ordinal);
+            }
+            categoriesByOrdinal[ordinal] = bookCategories;
+            int bucket = priceBucket(book.getPrice());
+            priceBuckets[bucket].set(ordinal);
+            priceBucketByOrdinal[ordinal] = bucket;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = idToOrdinal.remove(bookId, -1);
+            if (ordinal >= 0) {
+                clearFacets(ordinal);
+                categoriesByOrdinal[ordinal] = NO_CATEGORIES;
+                if (freeCount == freeOrdinals.length) {
+                    freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount << 1);
+                }
+                freeOrdinals[freeCount++] = ordinal;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Build rebuild() {
+        BookFacetIndex built = new BookFacetIndex(priceBounds);
+        return new Build() {
+            @Override
+            public void add(Book book) {
+                built.index(book);
+            }
+
+            @Override
+            public void publish() {
+                adopt(built);
+            }
+        };
+    }
+
+    public List<BigDecimal> getPriceBounds() {
+        return List.of(priceBounds);
+    }
+
+    /**
+     * Counts the given books per category, most frequent first, and per price bucket, in
+     * the order of the bucket bounds. Ids that are not indexed are ignored.
+     */
+    public Counts count(Collection<Long> bookIds) {
+        lock.readLock().lock();
+        try {
+            long[] matching = OrdinalBits.wordsFor(nextOrdinal);
+            for (Long bookId : bookIds) {
+                int ordinal = idToOrdinal.getOrDefault(bookId, -1);
+                if (ordinal >= 0) {
+                    OrdinalBits.add(matching, ordinal);
+                }
+            }
+            List<FacetCount> categoryCounts = new ArrayList<>();
+            for (int i = 0; i < categoryCount; i++) {
+                int count = categories[i].countShared(matching);
+                if (count > 0) {
+                    categoryCounts.add(new FacetCount(categoryIds[i], count));
+                }
+            }
+            categoryCounts.sort(BY_COUNT);
+            int[] priceCounts = new int[priceBuckets.length];
+            for (int i = 0; i < priceBuckets.length; i++) {
+                priceCounts[i] = priceBuckets[i].countShared(matching);
+            }
+            return new Counts(categoryCounts, priceCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void clearFacets(int ordinal) {
+        for (long categoryId : categoriesByOrdinal[ordinal]) {
+            categories[categoryIndex.getOrDefault(categoryId, -1)].clear(ordinal);
+        }
+        priceBuckets[priceBucketByOrdinal[ordinal]].clear(ordinal);
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        int ordinal = nextOrdinal++;
+        if (ordinal == categoriesByOrdinal.length) {
+            categoriesByOrdinal = Arrays.copyOf(categoriesByOrdinal, ordinal << 1);
+            priceBucketByOrdinal = Arrays.copyOf(priceBucketByOrdinal, ordinal << 1);
+        }
+        return ordinal;
+    }
+
+    private int category(long categoryId) {
+        int slot = categoryIndex.getOrDefault(categoryId, -1);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (categoryCount == categories.length) {
+            categories = Arrays.copyOf(categories, categoryCount << 1);
+            categoryIds = Arrays.copyOf(categoryIds, categoryCount << 1);
+        }
+        slot = categoryCount++;
+        categories[slot] = new OrdinalBits();
+        categoryIds[slot] = categoryId;
+        categoryIndex.put(categoryId, slot);
+        return slot;
+    }
+
+    private int priceBucket(BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        int bucket = 0;
+        while (bucket < priceBounds.length && price.compareTo(priceBounds[bucket]) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private void adopt(BookFacetIndex built) {
+        lock.writeLock().lock();
+        try {
+            priceBuckets = built.priceBuckets;
+            categoryIndex = built.categoryIndex;
+            categoryIds = built.categoryIds;
+            categories = built.categories;
+            categoryCount = built.categoryCount;
+            idToOrdinal = built.idToOrdinal;
+            categoriesByOrdinal = built.categoriesByOrdinal;
+            priceBucketByOrdinal = built.priceBucketByOrdinal;
+            freeOrdinals = built.freeOrdinals;
+            freeCount = built.freeCount;
+            nextOrdinal = built.nextOrdinal;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reset() {
+        priceBuckets = new OrdinalBits[priceBounds.length + 1];
+        for (int i = 0; i < priceBuckets.length; i++) {
+            priceBuckets[i] = new OrdinalBits();
+        }
+        categoryIndex = new LongIntHashMap();
+        categoryIds = new long[16];
+        categories = new OrdinalBits[16];
+        categoryCount = 0;
+        idToOrdinal = new LongIntHashMap(INITIAL_CAPACITY);
+        categoriesByOrdinal = new long[INITIAL_CAPACITY][];
+        priceBucketByOrdinal = new int[INITIAL_CAPACITY];
+        freeOrdinals = new int[16];
+        freeCount = 0;
+        nextOrdinal = 0;
+    }
+
+    public record Counts(List<FacetCount> categories, int[] priceBuckets) {
+    }
+}
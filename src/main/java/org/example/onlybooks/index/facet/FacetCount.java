@@ -0,0 +1,4 @@
+package org.example.onlybooks.index.facet;
+
+public record FacetCount(long key, int count) {
+}
@@ -0,0 +1,44 @@
+package org.example.onlybooks.index.facet;
+
+import java.util.Arrays;
+
+/**
+ * Growable bitset over book ordinals that exposes its words, so the number of ordinals it
+ * shares with another set can be counted word by word without allocating.
+ */
+final class OrdinalBits {
+    private static final int WORD_SHIFT = 6;
+    private long[] words = new long[1];
+
+    void set(int ordinal) {
+        int word = ordinal >>> WORD_SHIFT;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length << 1));
+        }
+        words[word] |= 1L << ordinal;
+    }
+
+    void clear(int ordinal) {
+        int word = ordinal >>> WORD_SHIFT;
+        if (word < words.length) {
+            words[word] &= ~(1L << ordinal);
+        }
+    }
+
+    int countShared(long[] others) {
+        int length = Math.min(words.length, others.length);
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(words[i] & others[i]);
+        }
+        return count;
+    }
+
+    static long[] wordsFor(int ordinals) {
+        return new long[(ordinals >>> WORD_SHIFT) + 1];
+    }
+
+    static void add(long[] words, int ordinal) {
+        words[ordinal >>> WORD_SHIFT] |= 1L << ordinal;
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.onlybooks.index.fulltext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.example.onlybooks.index.BookIndex;
+import org.example.onlybooks.index.TextAnalyzer;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.util.collection.LongIntHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over book text fields with BM25 ranking.
+ * Every indexed book gets an append-only ordinal; replaced or removed books are
+ * tombstoned and dropped from the postings once they make up half of the index.
+ */
+@Component
+public class FullTextBookIndex implements BookIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+    private static final long ORDINAL_MASK = 0xFFFFFFFFL;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<TextField, FieldIndex> fields = new EnumMap<>(TextField.class);
+    private final int maxHits;
+    private long[] ordinalToId;
+    private LongIntHashMap idToOrdinal;
+    private BitSet deleted;
+    private int nextOrdinal;
+    private int deletedCount;
+
+    public FullTextBookIndex(@Value("${book.search.max-hits}") int maxHits) {
+        this.maxHits = maxHits;
+        reset();
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            markDeleted(idToOrdinal.remove(book.getId(), -1));
+            int ordinal = nextOrdinal++;
+            if (ordinal == ordinalToId.length) {
+                grow();
+            }
+            ordinalToId[ordinal] = book.getId();
+            idToOrdinal.put(book.getId(), ordinal);
+            for (TextField field : TextField.values()) {
+                fields.get(field).add(ordinal, TextAnalyzer.tokenize(field.extract(book)));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            markDeleted(idToOrdinal.remove(bookId, -1));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Build rebuild() {
+        FullTextBookIndex built = new FullTextBookIndex(maxHits);
+        return new Build() {
+            @Override
+            public void add(Book book) {
+                built.index(book);
+            }
+
+            @Override
+            public void publish() {
+                adopt(built);
+            }
+        };
+    }
+
+    public List<Long> search(String[] queries, Collection<TextField> searchFields) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String query : queries) {
+            terms.addAll(TextAnalyzer.tokenize(query));
+        }
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int liveDocs = nextOrdinal - deletedCount;
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            float[] scores = new float[nextOrdinal];
+            for (TextField field : searchFields) {
+                fields.get(field).score(terms, liveDocs, field.getWeight(), scores);
+            }
+            return topHits(scores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> topHits(float[] scores) {
+        long[] hits = new long[scores.length];
+        int count = 0;
+        for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+            if (scores[ordinal] > 0 && !deleted.get(ordinal)) {
+                hits[count++] = (long) Float.floatToIntBits(scores[ordinal]) << 32
+                        | (Integer.MAX_VALUE - ordinal);
+            }
+        }
+        Arrays.sort(hits, 0, count);
+        int limit = Math.min(count, maxHits);
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = count - 1; i >= count - limit; i--) {
+            int ordinal = Integer.MAX_VALUE - (int) (hits[i] & ORDINAL_MASK);
+            ids.add(ordinalToId[ordinal]);
+        }
+        return ids;
+    }
+
+    private void markDeleted(int ordinal) {
+        if (ordinal < 0) {
+            return;
+        }
+        deleted.set(ordinal);
+        deletedCount++;
+        for (FieldIndex fieldIndex : fields.values()) {
+            fieldIndex.totalLength -= fieldIndex.lengths[ordinal];
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_DELETED_TO_COMPACT || deletedCount * 2 < nextOrdinal) {
+            return;
+        }
+        int[] remap = new int[nextOrdinal];
+        int live = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (deleted.get(ordinal)) {
+                remap[ordinal] = -1;
+            } else {
+                remap[ordinal] = live;
+                ordinalToId[live] = ordinalToId[ordinal];
+                idToOrdinal.put(ordinalToId[live], live);
+                live++;
+            }
+        }
+        for (FieldIndex fieldIndex : fields.values()) {
+            fieldIndex.compact(remap);
+        }
+        nextOrdinal = live;
+        deletedCount = 0;
+        deleted.clear();
+    }
+
+    private void grow() {
+        int capacity = ordinalToId.length << 1;
+        ordinalToId = Arrays.copyOf(ordinalToId, capacity);
+        for (FieldIndex fieldIndex : fields.values()) {
+            fieldIndex.lengths = Arrays.copyOf(fieldIndex.lengths, capacity);
+        }
+    }
+
+    private void adopt(FullTextBookIndex built) {
+        lock.writeLock().lock();
+        try {
+            fields.putAll(built.fields);
+            ordinalToId = built.ordinalToId;
+            idToOrdinal = built.idToOrdinal;
+            deleted = built.deleted;
+            nextOrdinal = built.nextOrdinal;
+            deletedCount = built.deletedCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reset() {
+        ordinalToId = new long[INITIAL_CAPACITY];
+        idToOrdinal = new LongIntHashMap(INITIAL_CAPACITY);
+        deleted = new BitSet();
+        nextOrdinal = 0;
+        deletedCount = 0;
+        for (TextField field : TextField.values()) {
+            fields.put(field, new FieldIndex(INITIAL_CAPACITY));
+        }
+    }
+
+    private static final class FieldIndex {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private int[] lengths;
+        private long totalLength;
+
+        private FieldIndex(int capacity) {
+            lengths = new int[capacity];
+        }
+
+        private void add(int ordinal, List<String> tokens) {
+            lengths[ordinal] = tokens.size();
+            totalLength += tokens.size();
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String token : tokens) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+            frequencies.forEach((term, frequency) -> postings
+                    .computeIfAbsent(term, t -> new Postings())
+                    .add(ordinal, frequency));
+        }
+
+        private void score(Set<String> terms, int liveDocs, float weight, float[] scores) {
+            float averageLength = Math.max(1f, (float) totalLength / liveDocs);
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int documentFrequency = Math.min(termPostings.size, liveDocs);
+                float idf = (float) Math.log(1 + (liveDocs - documentFrequency + 0.5)
+                        / (documentFrequency + 0.5));
+                for (int i = 0; i < termPostings.size; i++) {
+                    int ordinal = termPostings.docs[i];
+                    int frequency = termPostings.freqs[i];
+                    float norm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+                    scores[ordinal] += weight * idf * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+        }
+
+        private void compact(int[] remap) {
+            postings.values().removeIf(termPostings -> termPostings.compact(remap) == 0);
+            int[] compacted = new int[Math.max(INITIAL_CAPACITY, lengths.length)];
+            for (int ordinal = 0; ordinal < remap.length; ordinal++) {
+                if (remap[ordinal] >= 0) {
+                    compacted[remap[ordinal]] = lengths[ordinal];
+                }
+            }
+            lengths = compacted;
+        }
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        private void add(int ordinal, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size << 1);
+                freqs = Arrays.copyOf(freqs, size << 1);
+            }
+            docs[size] = ordinal;
+            freqs[size] = frequency;
+            size++;
+        }
+
+        private int compact(int[] remap) {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = remap[docs[i]];
+                if (ordinal >= 0) {
+                    docs[live] = ordinal;
+                    freqs[live] = freqs[i];
+                    live++;
+                }
+            }
+            size = live;
+            return size;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.onlybooks.index.fulltext;
+
+import java.util.function.Function;
+import org.example.onlybooks.model.Book;
+
+public enum TextField {
+    TITLE(3.0f, Book::getTitle),
+    AUTHOR(2.0f, Book::getAuthor),
+    DESCRIPTION(1.0f, Book::getDescription);
+    private final float weight;
+    private final Function<Book, String> extractor;
+
+    TextField(float weight, Function<Book, String> extractor) {
+        this.weight = weight;
+        this.extractor = extractor;
+    }
+
+    public float getWeight() {
+        return weight;
+    }
+
+    public String extract(Book book) {
+        return extractor.apply(book);
+    }
+}
@@ -0,0 +1,278 @@
+package org.example.onlybooks.index.fuzzy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.example.onlybooks.index.BookIndex;
+import org.example.onlybooks.index.TextAnalyzer;
+import org.example.onlybooks.index.fulltext.TextField;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.util.collection.LongIntHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Typo-tolerant word index over book titles and authors. Distinct words are indexed by
+ * their trigrams; a query word only looks at words sharing enough trigrams to be within its
+ * edit distance and verifies those with a banded Levenshtein check, so no lookup scans the
+ * whole vocabulary.
+ */
+@Component
+public class TrigramBookIndex implements BookIndex {
+    private static final char PADDING = '\u0000';
+    private static final int TRIGRAM = 3;
+    private static final int TRIGRAMS_PER_EDIT = 4;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<TextField, Map<String, Set<Long>>> postings = new EnumMap<>(TextField.class);
+    private Map<String, Set<String>> wordsByTrigram = new HashMap<>();
+    private Map<String, Integer> wordReferences = new HashMap<>();
+    private Map<Long, Map<TextField, Set<String>>> wordsByBook = new HashMap<>();
+    private final int maxHits;
+
+    public TrigramBookIndex(@Value("${book.search.max-hits}") int maxHits) {
+        this.maxHits = maxHits;
+        for (TextField field : fields()) {
+            postings.put(field, new HashMap<>());
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeBook(book.getId());
+            Map<TextField, Set<String>> bookWords = new EnumMap<>(TextField.class);
+            for (TextField field : fields()) {
+                Set<String> words = new HashSet<>(TextAnalyzer.tokenize(field.extract(book)));
+                for (String word : words) {
+                    postings.get(field).computeIfAbsent(word, w -> new HashSet<>())
+                            .add(book.getId());
+                    if (wordReferences.merge(word, 1, Integer::sum) == 1) {
+                        trigrams(word).forEach(trigram -> wordsByTrigram
+                                .computeIfAbsent(trigram, t -> new HashSet<>()).add(word));
+                    }
+                }
+                bookWords.put(field, words);
+            }
+            wordsByBook.put(book.getId(), bookWords);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeBook(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Build rebuild() {
+        TrigramBookIndex built = new TrigramBookIndex(maxHits);
+        return new Build() {
+            @Override
+            public void add(Book book) {
+                built.index(book);
+            }
+
+            @Override
+            public void publish() {
+                lock.writeLock().lock();
+                try {
+                    postings = built.postings;
+                    wordsByTrigram = built.wordsByTrigram;
+                    wordReferences = built.wordReferences;
+                    wordsByBook = built.wordsByBook;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the books whose field contains, for every word of at least one of the queries,
+     * a word within {@link #maxEdits(int)} edits of it. The closest matches come first.
+     */
+    public List<Long> search(String[] queries, TextField field) {
+        lock.readLock().lock();
+        try {
+            LongIntHashMap bestDistances = new LongIntHashMap();
+            for (String query : queries) {
+                Set<String> words = new LinkedHashSet<>(TextAnalyzer.tokenize(query));
+                if (!words.isEmpty()) {
+                    matchAll(words, field).forEach((bookId, distance) -> {
+                        int best = bestDistances.getOrDefault(bookId, Integer.MAX_VALUE);
+                        bestDistances.put(bookId, Math.min(best, distance));
+                    });
+                }
+            }
+            return topHits(bestDistances);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int maxEdits(int length) {
+        if (length < 4) {
+            return 0;
+        }
+        return length < 8 ? 1 : 2;
+    }
+
+    /**
+     * Edit distance between the two words, counting a swap of adjacent letters as one edit,
+     * or {@code maxEdits + 1} once it is known to be larger. Only the diagonal band of width
+     * {@code 2 * maxEdits + 1} is computed.
+     */
+    static int distance(String first, String second, int maxEdits) {
+        int tooFar = maxEdits + 1;
+        if (Math.abs(first.length() - second.length()) > maxEdits) {
+            return tooFar;
+        }
+        int[] beforePrevious = new int[second.length() + 1];
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = Math.min(j, tooFar);
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            Arrays.fill(current, tooFar);
+            current[0] = Math.min(i, tooFar);
+            int rowMinimum = current[0];
+            int to = Math.min(second.length(), i + maxEdits);
+            for (int j = Math.max(1, i - maxEdits); j <= to; j++) {
+                int substitution = previous[j - 1]
+                        + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                int edit = Math.min(previous[j], current[j - 1]) + 1;
+                int best = Math.min(substitution, edit);
+                if (i > 1 && j > 1 && first.charAt(i - 1) == second.charAt(j - 2)
+                        && first.charAt(i - 2) == second.charAt(j - 1)) {
+                    best = Math.min(best, beforePrevious[j - 2] + 1);
+                }
+                current[j] = Math.min(tooFar, best);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum >= tooFar) {
+                return tooFar;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[second.length()];
+    }
+
+    private Map<Long, Integer> matchAll(Set<String> words, TextField field) {
+        Map<Long, Integer> distances = null;
+        for (String word : words) {
+            Map<Long, Integer> wordDistances = new HashMap<>();
+            int maxEdits = maxEdits(word.length());
+            similarWords(word, maxEdits).forEach((similar, distance) -> {
+                Set<Long> bookIds = postings.get(field).get(similar);
+                if (bookIds != null) {
+                    bookIds.forEach(bookId -> wordDistances.merge(bookId, distance, Math::min));
+                }
+            });
+            if (distances == null) {
+                distances = wordDistances;
+            } else {
+                distances.keySet().retainAll(wordDistances.keySet());
+                distances.replaceAll((bookId, distance) -> distance + wordDistances.get(bookId));
+            }
+            if (distances.isEmpty()) {
+                break;
+            }
+        }
+        return distances;
+    }
+
+    private Map<String, Integer> similarWords(String word, int maxEdits) {
+        Map<String, Integer> similar = new HashMap<>();
+        if (maxEdits == 0) {
+            if (wordReferences.containsKey(word)) {
+                similar.put(word, 0);
+            }
+            return similar;
+        }
+        Set<String> wordTrigrams = trigrams(word);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : wordTrigrams) {
+            Set<String> candidates = wordsByTrigram.get(trigram);
+            if (candidates != null) {
+                candidates.forEach(candidate -> shared.merge(candidate, 1, Integer::sum));
+            }
+        }
+        int minShared = wordTrigrams.size() - TRIGRAMS_PER_EDIT * maxEdits;
+        shared.forEach((candidate, count) -> {
+            if (count >= minShared) {
+                int distance = distance(word, candidate, maxEdits);
+                if (distance <= maxEdits) {
+                    similar.put(candidate, distance);
+                }
+            }
+        });
+        return similar;
+    }
+
+    private List<Long> topHits(LongIntHashMap bestDistances) {
+        List<Long> ids = new ArrayList<>(bestDistances.size());
+        bestDistances.forEach((bookId, distance) -> ids.add(bookId));
+        ids.sort(Comparator.<Long>comparingInt(bookId -> bestDistances.getOrDefault(bookId, 0))
+                .thenComparing(Comparator.naturalOrder()));
+        return ids.size() > maxHits ? ids.subList(0, maxHits) : ids;
+    }
+
+    private void removeBook(Long bookId) {
+        Map<TextField, Set<String>> bookWords = wordsByBook.remove(bookId);
+        if (bookWords == null) {
+            return;
+        }
+        bookWords.forEach((field, words) -> words.forEach(word -> {
+            Set<Long> bookIds = postings.get(field).get(word);
+            bookIds.remove(bookId);
+            if (bookIds.isEmpty()) {
+                postings.get(field).remove(word);
+            }
+            if (wordReferences.merge(word, -1, Integer::sum) == 0) {
+                wordReferences.remove(word);
+                trigrams(word).forEach(trigram -> {
+                    Set<String> trigramWords = wordsByTrigram.get(trigram);
+                    trigramWords.remove(word);
+                    if (trigramWords.isEmpty()) {
+                        wordsByTrigram.remove(trigram);
+                    }
+                });
+            }
+        }));
+    }
+
+    private static Set<String> trigrams(String word) {
+        String padded = PADDING + word + PADDING;
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + TRIGRAM <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + TRIGRAM));
+        }
+        return trigrams;
+    }
+
+    private static Collection<TextField> fields() {
+        return List.of(TextField.TITLE, TextField.AUTHOR);
+    }
+}
@@ -0,0 +1,270 @@
+package org.example.onlybooks.index.price;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.example.onlybooks.index.BookIndex;
+import org.example.onlybooks.model.Book;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prices of all live books in cents, kept sorted by price and then id in two parallel
+ * arrays. Price ranges, pages within them and price bucket counts are found by binary search.
+ * A rebuild collects all prices first and sorts them once; single writes shift the arrays.
+ */
+@Component
+public class BookPriceIndex implements BookIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] cents = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public void index(Book book) {
+        long bookCents = PriceRange.toCents(book.getPrice(), RoundingMode.HALF_UP);
+        lock.writeLock().lock();
+        try {
+            removeEntry(book.getId());
+            int position = -find(bookCents, book.getId()) - 1;
+            if (size == cents.length) {
+                cents = Arrays.copyOf(cents, size << 1);
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            System.arraycopy(cents, position, cents, position + 1, size - position);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            cents[position] = bookCents;
+            ids[position] = book.getId();
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Build rebuild() {
+        return new PriceBuild();
+    }
+
+    public int count(PriceRange range) {
+        lock.readLock().lock();
+        try {
+            return upperBound(range) - lowerBound(range);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] findIds(PriceRange range) {
+        lock.readLock().lock();
+        try {
+            return Arrays.copyOfRange(ids, lowerBound(range), upperBound(range));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of the books in the range ordered by price, ties always by ascending
+     * id as in the SQL search.
+     */
+    public long[] findIds(PriceRange range, long offset, int limit, boolean descending) {
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(range);
+            int to = upperBound(range);
+            if (offset >= to - from) {
+                return new long[0];
+            }
+            int start = (int) (from + offset);
+            int pageSize = Math.max(0, Math.min(limit, to - start));
+            long[] page = new long[pageSize];
+            if (!descending) {
+                System.arraycopy(ids, start, page, 0, pageSize);
+                return page;
+            }
+            long skip = offset;
+            int count = 0;
+            int groupEnd = to;
+            while (count < pageSize) {
+                int groupStart = Math.max(from, position(cents[groupEnd - 1]));
+                int groupSize = groupEnd - groupStart;
+                if (skip >= groupSize) {
+                    skip -= groupSize;
+                } else {
+                    int copied = Math.min(groupSize - (int) skip, pageSize - count);
+                    System.arraycopy(ids, groupStart + (int) skip, page, count, copied);
+                    count += copied;
+                    skip = 0;
+                }
+                groupEnd = groupStart;
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the books in the range per price bucket, the buckets being split at the given
+     * ascending bounds, each bound starting a new bucket.
+     */
+    public int[] countBuckets(PriceRange range, List<BigDecimal> bounds) {
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(range);
+            int to = upperBound(range);
+            int[] counts = new int[bounds.size() + 1];
+            int previous = from;
+            for (int i = 0; i < bounds.size(); i++) {
+                int next = Math.min(to, Math.max(from,
+                        position(PriceRange.toCents(bounds.get(i), RoundingMode.CEILING))));
+                counts[i] = next - previous;
+                previous = next;
+            }
+            counts[bounds.size()] = to - previous;
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeEntry(long bookId) {
+        int position = 0;
+        while (position < size && ids[position] != bookId) {
+            position++;
+        }
+        if (position == size) {
+            return;
+        }
+        System.arraycopy(cents, position + 1, cents, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    private int lowerBound(PriceRange range) {
+        return position(range.minCents());
+    }
+
+    private int upperBound(PriceRange range) {
+        long maxCents = range.maxCents();
+        return maxCents == Long.MAX_VALUE ? size : position(maxCents + 1);
+    }
+
+    /**
+     * Returns the first position whose price is at least the given one.
+     */
+    private int position(long priceCents) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cents[middle] < priceCents) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Binary search on (price, id), with the same contract as {@link Arrays#binarySearch}.
+     */
+    private int find(long priceCents, long bookId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(cents[middle], ids[middle], priceCents, bookId);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int compare(long priceCents, long bookId, long otherCents, long otherId) {
+        return priceCents != otherCents
+                ? Long.compare(priceCents, otherCents)
+                : Long.compare(bookId, otherId);
+    }
+
+    private final class PriceBuild implements Build {
+        private long[] builtCents = new long[INITIAL_CAPACITY];
+        private long[] builtIds = new long[INITIAL_CAPACITY];
+        private int builtSize;
+
+        @Override
+        public void add(Book book) {
+            if (builtSize == builtCents.length) {
+                builtCents = Arrays.copyOf(builtCents, builtSize << 1);
+                builtIds = Arrays.copyOf(builtIds, builtSize << 1);
+            }
+            builtCents[builtSize] = PriceRange.toCents(book.getPrice(), RoundingMode.HALF_UP);
+            builtIds[builtSize++] = book.getId();
+        }
+
+        @Override
+        public void publish() {
+            sort();
+            lock.writeLock().lock();
+            try {
+                cents = builtCents;
+                ids = builtIds;
+                size = builtSize;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Bottom-up merge sort by (price, id), alternating between the built arrays and one
+         * pair of buffers.
+         */
+        private void sort() {
+            long[] bufferCents = new long[builtCents.length];
+            long[] bufferIds = new long[builtIds.length];
+            for (int width = 1; width < builtSize; width <<= 1) {
+                for (int low = 0; low < builtSize; low += width << 1) {
+                    int middle = Math.min(low + width, builtSize);
+                    int high = Math.min(middle + width, builtSize);
+                    int left = low;
+                    int right = middle;
+                    for (int i = low; i < high; i++) {
+                        boolean takeLeft = right == high || left < middle && compare(
+                                builtCents[left], builtIds[left],
+                                builtCents[right], builtIds[right]) <= 0;
+                        int from = takeLeft ? left++ : right++;
+                        bufferCents[i] = builtCents[from];
+                        bufferIds[i] = builtIds[from];
+                    }
+                }
+                long[] sortedCents = bufferCents;
+                bufferCents = builtCents;
+                builtCents = sortedCents;
+                long[] sortedIds = bufferIds;
+                bufferIds = builtIds;
+                builtIds = sortedIds;
+            }
+        }
+    }
+}
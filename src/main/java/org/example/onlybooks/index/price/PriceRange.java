@@ -0,0 +1,59 @@
+package org.example.onlybooks.index.price;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import org.example.onlybooks.exception.InvalidSearchParameterException;
+
+/**
+ * Inclusive price range; a {@code null} bound leaves that side open.
+ */
+public record PriceRange(BigDecimal min, BigDecimal max) {
+    private static final int CENTS_SCALE = 2;
+
+    public PriceRange {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new InvalidSearchParameterException("Minimum price " + min
+                    + " is greater than maximum price " + max);
+        }
+    }
+
+    /**
+     * Parses the {@code price} search parameter. A single value is the maximum price, two
+     * values are the minimum and the maximum, either of which may be blank to leave it open.
+     * With more values only the last one is used, as the maximum.
+     */
+    public static PriceRange parse(String[] params) {
+        if (params.length == 2) {
+            return new PriceRange(parseBound(params[0]), parseBound(params[1]));
+        }
+        return new PriceRange(null, parseBound(params[params.length - 1]));
+    }
+
+    long minCents() {
+        return min == null ? Long.MIN_VALUE : toCents(min, RoundingMode.CEILING);
+    }
+
+    long maxCents() {
+        return max == null ? Long.MAX_VALUE : toCents(max, RoundingMode.FLOOR);
+    }
+
+    static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        BigInteger cents = price.setScale(CENTS_SCALE, roundingMode).unscaledValue();
+        if (cents.bitLength() >= Long.SIZE) {
+            return cents.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+
+    private static BigDecimal parseBound(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidSearchParameterException("Invalid price " + value);
+        }
+    }
+}
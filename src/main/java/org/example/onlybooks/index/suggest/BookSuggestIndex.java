@@ -0,0 +1,306 @@
+package org.example.onlybooks.index.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongUnaryOperator;
+import org.example.onlybooks.index.BookIndex;
+import org.example.onlybooks.index.TextAnalyzer;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.util.collection.LongIntHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefix index over normalised titles and authors. Every word of a title or author starts a
+ * key running to the end of the text, so a prefix matches from any word. Keys are kept in
+ * sorted parallel arrays; writes are buffered and merged into them by {@link #refresh}, off
+ * the request path, which keeps a full rebuild linear. Entries left behind by reindexed or
+ * removed books are recognised by their generation and dropped on merge.
+ *
+ * <p>A prefix of one or two characters matches a large share of all keys, so the best books
+ * for every such prefix are ranked by each refresh. Longer prefixes are ranked on lookup
+ * among at most {@value #MAX_CANDIDATES} matching books.
+ */
+@Component
+public class BookSuggestIndex implements BookIndex {
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int SHORT_PREFIX_LENGTH = 2;
+    private static final int MAX_RANKED_PER_PREFIX = 20;
+    private static final int MAX_CANDIDATES = 1000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Entry> pending = new ArrayList<>();
+    private Map<Long, IndexedBook> booksById = new HashMap<>();
+    private SortedKeys sorted = new SortedKeys(new String[0], new long[0], new int[0]);
+    private Map<String, long[]> rankedByShortPrefix = Map.of();
+    private int nextGeneration;
+    private long epoch;
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            int generation = nextGeneration++;
+            booksById.put(book.getId(),
+                    new IndexedBook(book.getTitle(), book.getAuthor(), generation));
+            for (String key : keys(book)) {
+                pending.add(new Entry(key, book.getId(), generation));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            booksById.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Build rebuild() {
+        BookSuggestIndex built = new BookSuggestIndex();
+        return new Build() {
+            @Override
+            public void add(Book book) {
+                built.index(book);
+            }
+
+            @Override
+            public void publish() {
+                SortedKeys merged = built.merge(built.pending);
+                lock.writeLock().lock();
+                try {
+                    booksById = built.booksById;
+                    sorted = merged;
+                    rankedByShortPrefix = Map.of();
+                    nextGeneration = built.nextGeneration;
+                    pending.clear();
+                    epoch++;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    /**
+     * Merges the buffered writes into the sorted keys and ranks the books for every short
+     * prefix. The work is done under the read lock, so lookups go on meanwhile; only the
+     * swap takes the write lock.
+     */
+    public void refresh(LongUnaryOperator popularity) {
+        swap(prepareRefresh(popularity));
+    }
+
+    Refresh prepareRefresh(LongUnaryOperator popularity) {
+        lock.readLock().lock();
+        try {
+            int mergedCount = pending.size();
+            SortedKeys merged = mergedCount == 0 ? sorted : merge(pending);
+            return new Refresh(epoch, mergedCount, merged, rankShortPrefixes(merged, popularity));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Installs a prepared refresh unless a rebuild was published or another refresh swapped
+     * in since it was prepared, in which case its keys are stale and it is dropped; the
+     * writes it would have merged stay pending for the next refresh.
+     */
+    void swap(Refresh refresh) {
+        lock.writeLock().lock();
+        try {
+            if (refresh.epoch() != epoch) {
+                return;
+            }
+            sorted = refresh.merged();
+            rankedByShortPrefix = refresh.ranked();
+            pending.subList(0, refresh.mergedCount()).clear();
+            epoch++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} books whose title or author has a word starting with the
+     * query, most popular first and newest first among equally popular ones. Books written
+     * since the last {@link #refresh} are suggested as they were before it.
+     */
+    public List<Suggestion> suggest(String query, int limit, LongUnaryOperator popularity) {
+        String prefix = key(TextAnalyzer.tokenize(query), 0);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            long[] ranked = rankedByShortPrefix.get(prefix);
+            if (ranked == null) {
+                ranked = rank(sorted, prefix, limit, MAX_CANDIDATES, popularity);
+            }
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, ranked.length));
+            for (int i = 0; i < ranked.length && suggestions.size() < limit; i++) {
+                IndexedBook book = booksById.get(ranked[i]);
+                if (book != null) {
+                    suggestions.add(new Suggestion(ranked[i], book.title(), book.author()));
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SortedKeys merge(List<Entry> writes) {
+        Entry[] entries = writes.stream()
+                .filter(entry -> isLive(entry.bookId(), entry.generation()))
+                .sorted()
+                .toArray(Entry[]::new);
+        int capacity = sorted.keys().length + entries.length;
+        String[] mergedKeys = new String[capacity];
+        long[] mergedIds = new long[capacity];
+        int[] mergedGenerations = new int[capacity];
+        int size = 0;
+        int next = 0;
+        for (int i = 0; i <= sorted.keys().length; i++) {
+            while (next < entries.length && (i == sorted.keys().length
+                    || entries[next].compareTo(sorted.keys()[i], sorted.ids()[i]) < 0)) {
+                Entry entry = entries[next++];
+                mergedKeys[size] = entry.key();
+                mergedIds[size] = entry.bookId();
+                mergedGenerations[size++] = entry.generation();
+            }
+            if (i < sorted.keys().length && isLive(sorted, i)) {
+                mergedKeys[size] = sorted.keys()[i];
+                mergedIds[size] = sorted.ids()[i];
+                mergedGenerations[size++] = sorted.generations()[i];
+            }
+        }
+        return new SortedKeys(Arrays.copyOf(mergedKeys, size), Arrays.copyOf(mergedIds, size),
+                Arrays.copyOf(mergedGenerations, size));
+    }
+
+    private Map<String, long[]> rankShortPrefixes(SortedKeys keys, LongUnaryOperator popularity) {
+        Map<String, long[]> ranked = new HashMap<>();
+        for (String key : keys.keys()) {
+            for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, key.length()); length++) {
+                String prefix = key.substring(0, length);
+                if (!ranked.containsKey(prefix)) {
+                    ranked.put(prefix, rank(keys, prefix, MAX_RANKED_PER_PREFIX,
+                            Integer.MAX_VALUE, popularity));
+                }
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * Ranks the distinct live books among the first {@code maxCandidates} with a key
+     * starting with the prefix.
+     */
+    private long[] rank(SortedKeys keys, String prefix, int limit, int maxCandidates,
+                        LongUnaryOperator popularity) {
+        LongIntHashMap seen = new LongIntHashMap();
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1);
+        for (int i = keys.lowerBound(prefix); i < keys.keys().length
+                && keys.keys()[i].startsWith(prefix) && seen.size() < maxCandidates; i++) {
+            long bookId = keys.ids()[i];
+            if (isLive(keys, i) && !seen.containsKey(bookId)) {
+                seen.put(bookId, 1);
+                top.add(new Candidate(bookId, popularity.applyAsLong(bookId)));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        long[] ranked = new long[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = top.poll().bookId();
+        }
+        return ranked;
+    }
+
+    private boolean isLive(SortedKeys keys, int position) {
+        return isLive(keys.ids()[position], keys.generations()[position]);
+    }
+
+    private boolean isLive(long bookId, int generation) {
+        IndexedBook book = booksById.get(bookId);
+        return book != null && book.generation() == generation;
+    }
+
+    private static Set<String> keys(Book book) {
+        Set<String> bookKeys = new LinkedHashSet<>();
+        for (String text : new String[] {book.getTitle(), book.getAuthor()}) {
+            List<String> tokens = TextAnalyzer.tokenize(text);
+            for (int i = 0; i < tokens.size(); i++) {
+                bookKeys.add(key(tokens, i));
+            }
+        }
+        return bookKeys;
+    }
+
+    private static String key(List<String> tokens, int from) {
+        String key = String.join(" ", tokens.subList(from, tokens.size()));
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    public record Suggestion(long bookId, String title, String author) {
+    }
+
+    record Refresh(long epoch, int mergedCount, SortedKeys merged,
+                   Map<String, long[]> ranked) {
+    }
+
+    private record IndexedBook(String title, String author, int generation) {
+    }
+
+    private record SortedKeys(String[] keys, long[] ids, int[] generations) {
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private record Entry(String key, long bookId, int generation) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            return compareTo(other.key, other.bookId);
+        }
+
+        private int compareTo(String otherKey, long otherBookId) {
+            int comparison = key.compareTo(otherKey);
+            return comparison != 0 ? comparison : Long.compare(bookId, otherBookId);
+        }
+    }
+
+    private record Candidate(long bookId, long popularity) implements Comparable<Candidate> {
+        @Override
+        public int compareTo(Candidate other) {
+            int comparison = Long.compare(popularity, other.popularity);
+            return comparison != 0 ? comparison : Long.compare(bookId, other.bookId);
+        }
+    }
+}
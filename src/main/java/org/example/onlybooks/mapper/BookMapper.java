@@ -4,7 +4,6 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.example.onlybooks.config.MapperConfig;
 import org.example.onlybooks.dto.book.BookResponseDto;
-import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
 import org.example.onlybooks.dto.book.CreateBookRequestDto;
 import org.example.onlybooks.model.Book;
 import org.example.onlybooks.model.Category;
@@ -16,8 +15,6 @@ import org.mapstruct.MappingTarget;
 public interface BookMapper {
     BookResponseDto toDto(Book book);
 
-    BookWithoutCategoryIdsResponseDto toWithoutCategoryIdDto(Book book);
-
     @AfterMapping
     default void setCategoriesIds(@MappingTarget BookResponseDto bookDto, Book book) {
         if (book.getCategories() != null) {
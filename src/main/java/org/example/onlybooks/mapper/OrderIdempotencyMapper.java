@@ -0,0 +1,57 @@
+package org.example.onlybooks.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.dto.order.OrderResponseDto;
+import org.example.onlybooks.dto.order.PlaceOrderRequestDto;
+import org.example.onlybooks.exception.DataProcessingException;
+import org.example.onlybooks.model.OrderIdempotency;
+import org.example.onlybooks.model.OrderIdempotencyId;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class OrderIdempotencyMapper {
+    private final ObjectMapper objectMapper;
+
+    public OrderIdempotency toEntity(OrderIdempotencyId id,
+                                     String requestHash,
+                                     OrderResponseDto response) {
+        OrderIdempotency idempotency = new OrderIdempotency();
+        idempotency.setId(id);
+        idempotency.setRequestHash(requestHash);
+        try {
+            idempotency.setResponse(objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            throw new DataProcessingException("Can't store response of order "
+                    + response.id(), e);
+        }
+        return idempotency;
+    }
+
+    public OrderResponseDto toDto(OrderIdempotency idempotency) {
+        try {
+            return objectMapper.readValue(idempotency.getResponse(), OrderResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new DataProcessingException("Can't read stored response for idempotency key "
+                    + idempotency.getId().getIdempotencyKey(), e);
+        }
+    }
+
+    /**
+     * Hex SHA-256 of the request as JSON, so a stored key can be matched against the body
+     * it was first sent with.
+     */
+    public String toRequestHash(PlaceOrderRequestDto placeOrderRequestDto) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(placeOrderRequestDto);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new DataProcessingException("Can't hash order request", e);
+        }
+    }
+}
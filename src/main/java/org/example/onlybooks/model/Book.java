@@ -8,15 +8,19 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.example.onlybooks.util.IsbnParser;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 
@@ -41,8 +45,13 @@ public class Book {
     @Column(nullable = false, unique = true)
     private String isbn;
 
+    @Column(unique = true)
+    @Setter(AccessLevel.NONE)
+    private Long isbn13;
+
     @Column(nullable = false)
     private BigDecimal price;
+    @Column(columnDefinition = "TEXT")
     private String description;
     private String coverImage;
     @Column(nullable = false, columnDefinition = "TINYINT")
@@ -58,4 +67,11 @@ public class Book {
     public Book(Long id) {
         this.id = id;
     }
+
+    @PrePersist
+    @PreUpdate
+    private void updateIsbn13() {
+        long canonicalIsbn = IsbnParser.parse(isbn);
+        isbn13 = canonicalIsbn == IsbnParser.INVALID ? null : canonicalIsbn;
+    }
 }
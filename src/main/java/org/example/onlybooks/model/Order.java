@@ -13,8 +13,10 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Getter;
@@ -27,7 +29,10 @@ import org.hibernate.annotations.CreationTimestamp;
 @Table(name = "orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id_generator")
+    @TableGenerator(name = "order_id_generator", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "orders", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -55,6 +60,15 @@ public class Order {
         CANCELED,
         PENDING,
         PROCESSING,
-        COMPLETED
+        COMPLETED;
+
+        public Set<Status> getAllowedSources() {
+            return switch (this) {
+                case PENDING -> EnumSet.noneOf(Status.class);
+                case PROCESSING -> EnumSet.of(PENDING);
+                case COMPLETED -> EnumSet.of(PROCESSING);
+                case CANCELED -> EnumSet.of(PENDING, PROCESSING);
+            };
+        }
     }
 }
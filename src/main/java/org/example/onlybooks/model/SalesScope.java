@@ -0,0 +1,22 @@
+package org.example.onlybooks.model;
+
+public enum SalesScope {
+    BOOK,
+    CATEGORY,
+    CATEGORY_BOOK,
+    DAY;
+
+    private static final long INT_MASK = 0xFFFFFFFFL;
+
+    public static long categoryBookKey(long categoryId, long bookId) {
+        return categoryId << Integer.SIZE | bookId & INT_MASK;
+    }
+
+    public static long categoryOf(long categoryBookKey) {
+        return categoryBookKey >>> Integer.SIZE;
+    }
+
+    public static long bookOf(long categoryBookKey) {
+        return categoryBookKey & INT_MASK;
+    }
+}
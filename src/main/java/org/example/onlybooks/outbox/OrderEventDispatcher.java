@@ -0,0 +1,85 @@
+package org.example.onlybooks.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.example.onlybooks.model.OrderEvent;
+import org.example.onlybooks.repository.order.OrderEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Claims a batch of due events and delivers each one in its own transaction. Claiming moves
+ * the events {@code order.outbox.lease} into the future, so other workers skip them while
+ * they are delivered. Delivering deletes the event before calling the handlers; a failing
+ * handler rolls back only that event, and the failure is recorded in a separate transaction.
+ * An event whose lease ran out may be delivered twice at once, but only the delivery that
+ * actually deletes it calls the handlers.
+ */
+@Component
+public class OrderEventDispatcher {
+    private static final int MAX_ERROR_LENGTH = 255;
+    private final OrderEventRepository orderEventRepository;
+    private final List<OrderEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration lease;
+
+    public OrderEventDispatcher(OrderEventRepository orderEventRepository,
+                                List<OrderEventHandler> handlers,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${order.outbox.batch-size}") int batchSize,
+                                @Value("${order.outbox.max-attempts}") int maxAttempts,
+                                @Value("${order.outbox.retry-backoff}") Duration retryBackoff,
+                                @Value("${order.outbox.lease}") Duration lease) {
+        this.orderEventRepository = orderEventRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.lease = lease;
+    }
+
+    public int dispatchNextBatch() {
+        List<OrderEvent> events = transactionTemplate.execute(status -> claimNextBatch());
+        for (OrderEvent event : events) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> deliver(event));
+            } catch (RuntimeException e) {
+                transactionTemplate.executeWithoutResult(status -> recordFailure(event, e));
+            }
+        }
+        return events.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private List<OrderEvent> claimNextBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderEvent> events = orderEventRepository.lockNextBatch(now, maxAttempts, batchSize);
+        events.forEach(event -> event.setAvailableAt(now.plus(lease)));
+        return events;
+    }
+
+    private void deliver(OrderEvent event) {
+        if (orderEventRepository.deleteOne(event.getId()) == 0) {
+            return;
+        }
+        handlers.forEach(handler -> handler.handle(event));
+    }
+
+    private void recordFailure(OrderEvent event, RuntimeException e) {
+        int attempts = event.getAttempts() + 1;
+        String error = String.valueOf(e);
+        orderEventRepository.recordFailure(event.getId(), attempts,
+                LocalDateTime.now().plus(retryBackoff.multipliedBy(attempts)),
+                error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)));
+    }
+}
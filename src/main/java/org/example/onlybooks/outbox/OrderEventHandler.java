@@ -0,0 +1,14 @@
+package org.example.onlybooks.outbox;
+
+import org.example.onlybooks.model.OrderEvent;
+
+/**
+ * Receives order events from the outbox after the order has committed. Handlers run inside
+ * the transaction that deletes the event, and the event is retried when any handler throws.
+ * Database work therefore commits or rolls back with the delivery, while changes to
+ * in-memory state must wait for that transaction to commit, or a retried event would be
+ * counted twice.
+ */
+public interface OrderEventHandler {
+    void handle(OrderEvent event);
+}
@@ -0,0 +1,20 @@
+package org.example.onlybooks.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.model.OrderEvent;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class OrderMetricsEventHandler implements OrderEventHandler {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void handle(OrderEvent event) {
+        meterRegistry.counter("orders.events",
+                        "type", event.getType().name(),
+                        "status", event.getStatus().name())
+                .increment();
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.onlybooks.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.model.Order;
+import org.example.onlybooks.model.OrderEvent;
+import org.example.onlybooks.repository.order.OrderEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RequiredArgsConstructor
+@Component
+public class OrderOutbox {
+    private final OrderEventRepository orderEventRepository;
+    private final Semaphore published = new Semaphore(0);
+
+    public void publish(Order order, OrderEvent.Type type) {
+        orderEventRepository.save(createEvent(order.getId(), type, order.getStatus(), null));
+        signalAfterCommit();
+    }
+
+    public void publishStatusChange(Order order, Order.Status previousStatus) {
+        orderEventRepository.save(createEvent(order.getId(),
+                OrderEvent.Type.ORDER_STATUS_CHANGED, order.getStatus(), previousStatus));
+        signalAfterCommit();
+    }
+
+    public void publishStatusChanges(Map<Long, Order.Status> previousStatuses,
+                                     Order.Status status) {
+        List<OrderEvent> events = previousStatuses.entrySet().stream()
+                .map(previous -> createEvent(previous.getKey(),
+                        OrderEvent.Type.ORDER_STATUS_CHANGED, status, previous.getValue()))
+                .toList();
+        orderEventRepository.saveAll(events);
+        signalAfterCommit();
+    }
+
+    boolean awaitPublished(Duration timeout) throws InterruptedException {
+        boolean signalled = published.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        published.drainPermits();
+        return signalled;
+    }
+
+    private OrderEvent createEvent(Long orderId,
+                                   OrderEvent.Type type,
+                                   Order.Status status,
+                                   Order.Status previousStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        OrderEvent event = new OrderEvent();
+        event.setOrderId(orderId);
+        event.setType(type);
+        event.setStatus(status);
+        event.setPreviousStatus(previousStatus);
+        event.setCreatedAt(now);
+        event.setAvailableAt(now);
+        return event;
+    }
+
+    private void signalAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            published.release();
+                        }
+                    });
+        } else {
+            published.release();
+        }
+    }
+}
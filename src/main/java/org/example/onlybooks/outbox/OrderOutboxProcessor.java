@@ -0,0 +1,93 @@
+package org.example.onlybooks.outbox;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pool of workers that drain the order outbox. Each worker claims a batch with
+ * FOR UPDATE SKIP LOCKED and leases it, so several workers and application instances can
+ * poll at once without handing the same event to two of them. Idle workers wake up on commit
+ * of a new event or after the poll interval, whichever comes first.
+ */
+@Slf4j
+@Component
+public class OrderOutboxProcessor implements SmartLifecycle {
+    private final OrderEventDispatcher dispatcher;
+    private final OrderOutbox outbox;
+    private final int workers;
+    private final Duration pollInterval;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public OrderOutboxProcessor(OrderEventDispatcher dispatcher,
+                                OrderOutbox outbox,
+                                @Value("${order.outbox.workers}") int workers,
+                                @Value("${order.outbox.poll-interval}") Duration pollInterval) {
+        this.dispatcher = dispatcher;
+        this.outbox = outbox;
+        this.workers = workers;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public void start() {
+        if (workers <= 0) {
+            return;
+        }
+        running = true;
+        executor = Executors.newFixedThreadPool(workers,
+                new CustomizableThreadFactory("order-outbox-"));
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::poll);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void poll() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                if (dispatcher.dispatchNextBatch() < dispatcher.getBatchSize()) {
+                    outbox.awaitPublished(pollInterval);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Can't dispatch order events", e);
+                pause();
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
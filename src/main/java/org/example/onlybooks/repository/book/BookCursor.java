@@ -0,0 +1,71 @@
+package org.example.onlybooks.repository.book;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+import org.example.onlybooks.exception.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+public record BookCursor(String property,
+                         Sort.Direction direction,
+                         Object value,
+                         Long id) {
+    private static final String ID = "id";
+    private static final String SEPARATOR = ":";
+    private static final int TOKEN_PARTS = 4;
+    private static final Map<String, Function<String, Object>> SORTABLE_PROPERTIES = Map.of(
+            ID, Long::valueOf,
+            "title", value -> value,
+            "author", value -> value,
+            "price", BigDecimal::new);
+
+    public static BookCursor first(Sort sort) {
+        Sort.Order order = sort.stream()
+                .findFirst()
+                .orElse(Sort.Order.asc(ID));
+        if (!SORTABLE_PROPERTIES.containsKey(order.getProperty())) {
+            throw new InvalidCursorException("Can't page books by property "
+                    + order.getProperty());
+        }
+        return new BookCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    public static BookCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, TOKEN_PARTS);
+            Function<String, Object> parser = SORTABLE_PROPERTIES.get(parts[0]);
+            if (parts.length != TOKEN_PARTS || parser == null) {
+                throw new InvalidCursorException("Invalid continuation token " + token);
+            }
+            return new BookCursor(parts[0],
+                    Sort.Direction.valueOf(parts[1]),
+                    parser.apply(parts[3]),
+                    Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid continuation token " + token);
+        }
+    }
+
+    public BookCursor next(Object value, Long id) {
+        return new BookCursor(property, direction, value, id);
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public boolean isByAscendingId() {
+        return ID.equals(property) && direction.isAscending();
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR,
+                property, direction.name(), String.valueOf(id), String.valueOf(value));
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,26 +1,53 @@
 package org.example.onlybooks.repository.book;
 
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.example.onlybooks.model.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+public interface BookRepository extends JpaRepository<Book, Long>,
+        JpaSpecificationExecutor<Book>,
+        BookRepositoryCustom {
     @EntityGraph(attributePaths = "categories")
     Page<Book> findAll(Pageable pageable);
 
     @EntityGraph(attributePaths = "categories")
-    List<Book> findAll(Specification<Book> spec);
+    Optional<Book> findById(Long id);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @EntityGraph(attributePaths = "categories")
-    Optional<Book> findById(Long id);
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(Long id);
+
+    @EntityGraph(attributePaths = "categories")
+    List<Book> findAllByIdIn(Collection<Long> ids);
+
+    @Query(value = "SELECT bc.book_id FROM books_categories bc "
+            + "JOIN books b ON b.id = bc.book_id "
+            + "WHERE bc.category_id = :categoryId AND bc.book_id > :afterId "
+            + "AND b.is_deleted = false "
+            + "ORDER BY bc.book_id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findIdsByCategoryId(Long categoryId, long afterId, int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM books "
+            + "WHERE (isbn = :isbn OR isbn13 = :isbn13) AND id <> :excludedId",
+            nativeQuery = true)
+    long countOtherBooksWithIsbn(String isbn, Long isbn13, long excludedId);
 
-    List<Book> findAllByCategoriesId(Long categoryId, Pageable pageable);
+    @Modifying
+    @Query(value = "UPDATE books SET stock = :stock WHERE id = :id AND is_deleted = false",
+            nativeQuery = true)
+    int updateStock(Long id, int stock);
 }
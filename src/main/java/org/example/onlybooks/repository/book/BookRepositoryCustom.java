@@ -0,0 +1,35 @@
+package org.example.onlybooks.repository.book;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.example.onlybooks.dto.book.BookResponseDto;
+import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
+import org.example.onlybooks.model.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookRepositoryCustom {
+    List<BookCursor> findNextPageKeys(BookCursor cursor, int limit);
+
+    Slice<BookResponseDto> findSlice(Specification<Book> specification, Pageable pageable);
+
+    List<BookResponseDto> findAllResponses(Pageable pageable);
+
+    List<BookResponseDto> findResponsesByIdsInOrder(List<Long> ids);
+
+    List<BookWithoutCategoryIdsResponseDto> findWithoutCategoryIdsByIdsInOrder(List<Long> ids);
+
+    List<Long> findAllIds(Specification<Book> specification);
+
+    Stream<Book> streamAll(Specification<Book> specification, Sort sort);
+
+    Map<Long, Integer> findStockByIds(Collection<Long> ids);
+
+    int[] reserveStock(long[] bookIds, int[] quantities);
+
+    void releaseStock(long[] bookIds, int[] quantities);
+}
@@ -0,0 +1,417 @@
+package org.example.onlybooks.repository.book;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.dto.book.BookResponseDto;
+import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.model.Category;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+@RequiredArgsConstructor
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+    private static final String ID = "id";
+    private static final String CATEGORIES = "categories";
+    private static final String BOOK_RESPONSES_BY_IDS = "SELECT b.id, b.title, b.author, "
+            + "b.isbn, b.price, b.description, b.coverImage FROM Book b WHERE b.id IN :ids";
+    private static final String CATEGORY_IDS_BY_BOOK_IDS = "SELECT b.id, c.id FROM Book b "
+            + "JOIN b.categories c WHERE b.id IN :ids";
+    private static final String STOCK_BY_IDS = "SELECT id, stock FROM books "
+            + "WHERE is_deleted = false AND id IN (:ids)";
+    private static final String RESERVE_STOCK = "UPDATE books SET stock = stock - ? "
+            + "WHERE id = ? AND is_deleted = false AND stock >= ?";
+    private static final String RELEASE_STOCK = "UPDATE books SET stock = stock + ? WHERE id = ?";
+    private static final int STREAM_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int MAX_COMPILED_QUERIES = 512;
+    private final Cache<CompiledQueryKey, CriteriaQuery<?>> compiledQueries =
+            Caffeine.newBuilder()
+                    .maximumSize(MAX_COMPILED_QUERIES)
+                    .build();
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BookCursor> findNextPageKeys(BookCursor cursor, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        Expression<Comparable<Object>> key = root.get(cursor.property());
+        Expression<Long> id = root.get(ID);
+
+        query.multiselect(key, id);
+        if (!cursor.isFirst()) {
+            query.where(afterCursor(criteriaBuilder, key, id, cursor));
+        }
+        if (cursor.direction().isAscending()) {
+            query.orderBy(criteriaBuilder.asc(key), criteriaBuilder.asc(id));
+        } else {
+            query.orderBy(criteriaBuilder.desc(key), criteriaBuilder.desc(id));
+        }
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(tuple -> cursor.next(tuple.get(0), tuple.get(1, Long.class)))
+                .toList();
+    }
+
+    @Override
+    public Slice<BookResponseDto> findSlice(Specification<Book> specification,
+                                            Pageable pageable) {
+        List<Tuple> rows = createQuery(QueryKind.SLICE, specification, pageable.getSort(),
+                spec -> {
+                    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+                    CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+                    Root<Book> root = query.from(Book.class);
+
+                    selectResponseColumns(query, root);
+                    applySpecification(query, root, criteriaBuilder, spec, pageable.getSort());
+                    return query;
+                })
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<Tuple> pageRows = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(toResponses(pageRows), pageable, hasNext);
+    }
+
+    @Override
+    public List<BookResponseDto> findAllResponses(Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+
+        selectResponseColumns(query, root);
+        applySpecification(query, root, criteriaBuilder, Specification.where(null),
+                pageable.getSort());
+        return toResponses(entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList());
+    }
+
+    @Override
+    public List<BookResponseDto> findResponsesByIdsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Tuple> rows = findResponseRowsByIds(ids);
+        List<BookResponseDto> responses = toResponses(rows);
+        Map<Long, BookResponseDto> responsesById = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            responsesById.put(rows.get(i).get(0, Long.class), responses.get(i));
+        }
+        return inOrder(ids, responsesById);
+    }
+
+    @Override
+    public List<BookWithoutCategoryIdsResponseDto> findWithoutCategoryIdsByIdsInOrder(
+            List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookWithoutCategoryIdsResponseDto> responsesById =
+                findResponseRowsByIds(ids).stream()
+                        .collect(Collectors.toMap(row -> row.get(0, Long.class),
+                                BookRepositoryCustomImpl::toWithoutCategoryIds));
+        return inOrder(ids, responsesById);
+    }
+
+    @Override
+    public List<Long> findAllIds(Specification<Book> specification) {
+        return createQuery(QueryKind.IDS, specification, Sort.unsorted(), spec -> {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+            Root<Book> root = query.from(Book.class);
+
+            query.select(root.get(ID));
+            Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            return query;
+        })
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Book> streamAll(Specification<Book> specification, Sort sort) {
+        Stream<Tuple> rows = createQuery(QueryKind.STREAM, specification, sort, spec -> {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+            Root<Book> root = query.from(Book.class);
+            Join<Book, Category> categories = root.join(CATEGORIES, JoinType.LEFT);
+
+            query.multiselect(root.get(ID),
+                    root.get("title"),
+                    root.get("author"),
+                    root.get("isbn"),
+                    root.get("price"),
+                    root.get("description"),
+                    root.get("coverImage"),
+                    categories.get(ID));
+            applySpecification(query, root, criteriaBuilder, spec, sort);
+            return query;
+        })
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+        return StreamSupport.stream(new BookRowSpliterator(rows.iterator()), false)
+                .onClose(rows::close);
+    }
+
+    @Override
+    public Map<Long, Integer> findStockByIds(Collection<Long> ids) {
+        List<?> rows = entityManager.createNativeQuery(STOCK_BY_IDS)
+                .setParameter("ids", ids)
+                .getResultList();
+        Map<Long, Integer> stock = new HashMap<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            stock.put(((Number) columns[0]).longValue(), ((Number) columns[1]).intValue());
+        }
+        return stock;
+    }
+
+    @Override
+    public int[] reserveStock(long[] bookIds, int[] quantities) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(RESERVE_STOCK)) {
+                for (int i = 0; i < bookIds.length; i++) {
+                    statement.setInt(1, quantities[i]);
+                    statement.setLong(2, bookIds[i]);
+                    statement.setInt(3, quantities[i]);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public void releaseStock(long[] bookIds, int[] quantities) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(RELEASE_STOCK)) {
+                for (int i = 0; i < bookIds.length; i++) {
+                    statement.setInt(1, quantities[i]);
+                    statement.setLong(2, bookIds[i]);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Creates the query built by {@code compiler} for the specification. A parameterized
+     * specification with a shape reuses the criteria query compiled for the first search of
+     * that shape and sort, which Hibernate keeps a query plan for, and only binds its
+     * parameters. Shapes that stop being searched are evicted once the cache is full.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> TypedQuery<R> createQuery(
+            QueryKind kind,
+            Specification<Book> specification,
+            Sort sort,
+            Function<Specification<Book>, CriteriaQuery<R>> compiler) {
+        if (!(specification instanceof ParameterizedSpecification<Book> parameterized)) {
+            return entityManager.createQuery(compiler.apply(specification));
+        }
+        if (!parameterized.isShaped()) {
+            return bind(entityManager.createQuery(compiler.apply(parameterized)), parameterized);
+        }
+        CompiledQueryKey key = new CompiledQueryKey(kind, parameterized.shape(), sort);
+        CriteriaQuery<R> query = (CriteriaQuery<R>) compiledQueries.get(key,
+                compiledKey -> compiler.apply(parameterized));
+        return bind(entityManager.createQuery(query), parameterized)
+                .setHint(AvailableHints.HINT_QUERY_PLAN_CACHEABLE, true);
+    }
+
+    private static <R> TypedQuery<R> bind(TypedQuery<R> query,
+                                          ParameterizedSpecification<Book> specification) {
+        specification.parameters().forEach(query::setParameter);
+        return query;
+    }
+
+    private void applySpecification(CriteriaQuery<?> query,
+                                    Root<Book> root,
+                                    CriteriaBuilder criteriaBuilder,
+                                    Specification<Book> specification,
+                                    Sort sort) {
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Order> orders = new ArrayList<>(sort.isSorted()
+                ? QueryUtils.toOrders(sort, root, criteriaBuilder)
+                : query.getOrderList());
+        orders.add(criteriaBuilder.asc(root.get(ID)));
+        query.orderBy(orders);
+    }
+
+    private static void selectResponseColumns(CriteriaQuery<Tuple> query, Root<Book> root) {
+        query.multiselect(root.get(ID),
+                root.get("title"),
+                root.get("author"),
+                root.get("isbn"),
+                root.get("price"),
+                root.get("description"),
+                root.get("coverImage"));
+    }
+
+    private List<Tuple> findResponseRowsByIds(List<Long> ids) {
+        return entityManager.createQuery(BOOK_RESPONSES_BY_IDS, Tuple.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Maps rows selected by {@link #selectResponseColumns} to response DTOs in row order and
+     * fills their category ids with a single batched query instead of hydrating books.
+     */
+    private List<BookResponseDto> toResponses(List<Tuple> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Set<Long>> categoryIdsByBookId = new HashMap<>();
+        List<BookResponseDto> responses = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Set<Long> categoryIds = new HashSet<>();
+            categoryIdsByBookId.put(row.get(0, Long.class), categoryIds);
+            BookWithoutCategoryIdsResponseDto columns = toWithoutCategoryIds(row);
+            responses.add(new BookResponseDto()
+                    .setTitle(columns.title())
+                    .setAuthor(columns.author())
+                    .setIsbn(columns.isbn())
+                    .setPrice(columns.price())
+                    .setDescription(columns.description())
+                    .setCoverImage(columns.coverImage())
+                    .setCategoryIds(categoryIds));
+        }
+        entityManager.createQuery(CATEGORY_IDS_BY_BOOK_IDS, Tuple.class)
+                .setParameter("ids", categoryIdsByBookId.keySet())
+                .getResultList()
+                .forEach(row -> categoryIdsByBookId.get(row.get(0, Long.class))
+                        .add(row.get(1, Long.class)));
+        return responses;
+    }
+
+    /**
+     * Reads the columns selected by {@link #selectResponseColumns} after the id.
+     */
+    private static BookWithoutCategoryIdsResponseDto toWithoutCategoryIds(Tuple row) {
+        return new BookWithoutCategoryIdsResponseDto(
+                row.get(1, String.class),
+                row.get(2, String.class),
+                row.get(3, String.class),
+                row.get(4, BigDecimal.class),
+                row.get(5, String.class),
+                row.get(6, String.class));
+    }
+
+    private static <T> List<T> inOrder(List<Long> ids, Map<Long, T> responsesById) {
+        return ids.stream()
+                .map(responsesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate afterCursor(CriteriaBuilder criteriaBuilder,
+                                  Expression<Comparable<Object>> key,
+                                  Expression<Long> id,
+                                  BookCursor cursor) {
+        Comparable<Object> value = (Comparable<Object>) cursor.value();
+        if (cursor.direction().isAscending()) {
+            return criteriaBuilder.or(criteriaBuilder.greaterThan(key, value),
+                    criteriaBuilder.and(criteriaBuilder.equal(key, value),
+                            criteriaBuilder.greaterThan(id, cursor.id())));
+        }
+        return criteriaBuilder.or(criteriaBuilder.lessThan(key, value),
+                criteriaBuilder.and(criteriaBuilder.equal(key, value),
+                        criteriaBuilder.lessThan(id, cursor.id())));
+    }
+
+    private enum QueryKind {
+        SLICE,
+        IDS,
+        STREAM
+    }
+
+    private record CompiledQueryKey(QueryKind kind, String shape, Sort sort) {
+    }
+
+    private static final class BookRowSpliterator
+            extends Spliterators.AbstractSpliterator<Book> {
+        private final Iterator<Tuple> rows;
+        private Tuple pending;
+
+        private BookRowSpliterator(Iterator<Tuple> rows) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Book> action) {
+            if (pending == null && rows.hasNext()) {
+                pending = rows.next();
+            }
+            if (pending == null) {
+                return false;
+            }
+            Book book = new Book(pending.get(0, Long.class));
+            book.setTitle(pending.get(1, String.class));
+            book.setAuthor(pending.get(2, String.class));
+            book.setIsbn(pending.get(3, String.class));
+            book.setPrice(pending.get(4, BigDecimal.class));
+            book.setDescription(pending.get(5, String.class));
+            book.setCoverImage(pending.get(6, String.class));
+            while (pending != null && book.getId().equals(pending.get(0, Long.class))) {
+                Long categoryId = pending.get(7, Long.class);
+                if (categoryId != null) {
+                    book.getCategories().add(new Category(categoryId));
+                }
+                pending = rows.hasNext() ? rows.next() : null;
+            }
+            action.accept(book);
+            return true;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.onlybooks.repository.book;
 
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.onlybooks.dto.book.BookSearchParameters;
 import org.example.onlybooks.model.Book;
@@ -14,37 +16,38 @@ public class BookSpecificationBuilder implements SpecificationBuilder<Book> {
 
     @Override
     public Specification<Book> build(BookSearchParameters bookSearchParams) {
-        Specification<Book> specification = Specification.where(null);
+        List<ParameterizedSpecification<Book>> specifications = new ArrayList<>();
+        boolean fuzzy = bookSearchParams.isFuzzy();
+        addSpecification(specifications, bookSearchParams.titles(),
+                fuzzy ? CriteriaSearch.FUZZY_TITLE : CriteriaSearch.TITLE);
 
-        specification = setSpecification(
-                specification, bookSearchParams.titles(), CriteriaSearch.TITLE);
+        addSpecification(specifications, bookSearchParams.authors(),
+                fuzzy ? CriteriaSearch.FUZZY_AUTHOR : CriteriaSearch.AUTHOR);
 
-        specification = setSpecification(
-                specification, bookSearchParams.authors(), CriteriaSearch.AUTHOR);
+        addSpecification(
+                specifications, bookSearchParams.isbn(), CriteriaSearch.ISBN);
 
-        specification = setSpecification(
-                specification, bookSearchParams.isbn(), CriteriaSearch.ISBN);
+        addSpecification(
+                specifications, bookSearchParams.price(), CriteriaSearch.PRICE);
 
-        specification = setSpecification(
-                specification, bookSearchParams.price(), CriteriaSearch.PRICE);
+        addSpecification(
+                specifications, bookSearchParams.description(), CriteriaSearch.DESCRIPTION);
 
-        specification = setSpecification(
-                specification, bookSearchParams.description(), CriteriaSearch.DESCRIPTION);
+        addSpecification(
+                specifications, bookSearchParams.categoryIds(), CriteriaSearch.CATEGORY);
 
-        specification = setSpecification(
-                specification, bookSearchParams.categoryIds(), CriteriaSearch.CATEGORY);
+        addSpecification(
+                specifications, bookSearchParams.query(), CriteriaSearch.QUERY);
 
-        return specification;
+        return ParameterizedSpecification.combine(specifications);
     }
 
-    private Specification<Book> setSpecification(Specification<Book> specification,
-                                                 String[] params,
-                                                 CriteriaSearch key) {
+    private void addSpecification(List<ParameterizedSpecification<Book>> specifications,
+                                  String[] params,
+                                  CriteriaSearch key) {
         if (params != null && params.length > 0) {
-            specification = specification.and(specificationProviderManager
-                    .getSpecificationProvider(key.getValue())
+            specifications.add(specificationProviderManager.getSpecificationProvider(key)
                     .getSpecification(params));
         }
-        return specification;
     }
 }
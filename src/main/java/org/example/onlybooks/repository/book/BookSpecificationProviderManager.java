@@ -1,24 +1,37 @@
 package org.example.onlybooks.repository.book;
 
+import java.util.EnumMap;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Map;
 import org.example.onlybooks.exception.SpecificationNotFoundException;
 import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.spec.CriteriaSearch;
 import org.springframework.stereotype.Component;
 
-@RequiredArgsConstructor
 @Component
 public class BookSpecificationProviderManager implements SpecificationProviderManager<Book> {
-    private final List<SpecificationProvider<Book>> bookSpecificationProviders;
+    private final Map<CriteriaSearch, SpecificationProvider<Book>> bookSpecificationProviders =
+            new EnumMap<>(CriteriaSearch.class);
+
+    public BookSpecificationProviderManager(
+            List<SpecificationProvider<Book>> bookSpecificationProviders) {
+        for (SpecificationProvider<Book> provider : bookSpecificationProviders) {
+            for (CriteriaSearch key : CriteriaSearch.values()) {
+                if (key.getValue().equals(provider.getKey())) {
+                    this.bookSpecificationProviders.put(key, provider);
+                }
+            }
+        }
+    }
 
     @Override
-    public SpecificationProvider<Book> getSpecificationProvider(String key) {
-        return bookSpecificationProviders.stream()
-                .filter(p -> p.getKey().equals(key))
-                .findFirst()
-                .orElseThrow(() ->
-                        new SpecificationNotFoundException("Specification by key "
-                        + key
-                        + " not found"));
+    public SpecificationProvider<Book> getSpecificationProvider(CriteriaSearch key) {
+        SpecificationProvider<Book> provider = bookSpecificationProviders.get(key);
+        if (provider == null) {
+            throw new SpecificationNotFoundException("Specification by key "
+                    + key.getValue()
+                    + " not found");
+        }
+        return provider;
     }
 }
@@ -0,0 +1,62 @@
+package org.example.onlybooks.repository.book;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specification whose predicate refers to named parameters instead of values, together with
+ * the values to bind to them. Specifications of the same shape build the same query, so a
+ * query compiled for one only needs the parameters of the other bound. A specification whose
+ * predicate depends on the values themselves has no shape.
+ */
+public record ParameterizedSpecification<T>(String shape,
+                                            Specification<T> specification,
+                                            Map<String, Object> parameters)
+        implements Specification<T> {
+    private static final String SHAPE_SEPARATOR = ";";
+
+    public static <T> ParameterizedSpecification<T> unshaped(Specification<T> specification) {
+        return new ParameterizedSpecification<>(null, specification, Map.of());
+    }
+
+    /**
+     * Combines the specifications with {@code and}. The result has a shape only if all of
+     * them have one.
+     */
+    public static <T> ParameterizedSpecification<T> combine(
+            List<ParameterizedSpecification<T>> specifications) {
+        Specification<T> combined = Specification.where(null);
+        Map<String, Object> parameters = new HashMap<>();
+        StringJoiner shape = new StringJoiner(SHAPE_SEPARATOR);
+        boolean shaped = true;
+        for (ParameterizedSpecification<T> specification : specifications) {
+            combined = combined.and(specification.specification());
+            parameters.putAll(specification.parameters());
+            if (specification.isShaped()) {
+                shape.add(specification.shape());
+            } else {
+                shaped = false;
+            }
+        }
+        return new ParameterizedSpecification<>(shaped ? shape.toString() : null,
+                combined, parameters);
+    }
+
+    public boolean isShaped() {
+        return shape != null;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root,
+                                 CriteriaQuery<?> query,
+                                 CriteriaBuilder criteriaBuilder) {
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
@@ -1,9 +1,7 @@
 package org.example.onlybooks.repository.book;
 
-import org.springframework.data.jpa.domain.Specification;
-
 public interface SpecificationProvider<T> {
     String getKey();
 
-    Specification<T> getSpecification(String[] params);
+    ParameterizedSpecification<T> getSpecification(String[] params);
 }
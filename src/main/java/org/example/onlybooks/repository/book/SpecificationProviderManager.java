@@ -1,5 +1,7 @@
 package org.example.onlybooks.repository.book;
 
+import org.example.onlybooks.repository.book.spec.CriteriaSearch;
+
 public interface SpecificationProviderManager<T> {
-    SpecificationProvider<T> getSpecificationProvider(String key);
+    SpecificationProvider<T> getSpecificationProvider(CriteriaSearch key);
 }
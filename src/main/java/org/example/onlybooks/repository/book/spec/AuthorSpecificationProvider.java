@@ -2,8 +2,8 @@ package org.example.onlybooks.repository.book.spec;
 
 import java.util.Arrays;
 import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.ParameterizedSpecification;
 import org.example.onlybooks.repository.book.SpecificationProvider;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,8 +16,10 @@ public class AuthorSpecificationProvider implements SpecificationProvider<Book>
     }
 
     @Override
-    public Specification<Book> getSpecification(String[] params) {
-        return (root, query, criteriaBuilder) ->
-                root.get(AUTHOR).in(Arrays.stream(params).toArray());
+    public ParameterizedSpecification<Book> getSpecification(String[] params) {
+        return new ParameterizedSpecification<>(ParameterList.shape(AUTHOR, params.length),
+                (root, query, criteriaBuilder) -> root.get(AUTHOR).in(ParameterList.parameters(
+                        criteriaBuilder, String.class, AUTHOR, params.length)),
+                ParameterList.bindings(AUTHOR, Arrays.asList(params)));
     }
 }
@@ -1,34 +1,44 @@
 package org.example.onlybooks.repository.book.spec;
 
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import java.util.Arrays;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
 import org.example.onlybooks.model.Book;
 import org.example.onlybooks.model.Category;
+import org.example.onlybooks.repository.book.ParameterizedSpecification;
 import org.example.onlybooks.repository.book.SpecificationProvider;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 @Component
 public class CategorySpecificationProvider implements SpecificationProvider<Book> {
     private static final String CATEGORIES = "categories";
     private static final String ID = "id";
+    private static final String CATEGORY = CriteriaSearch.CATEGORY.getValue();
 
     @Override
     public String getKey() {
-        return CriteriaSearch.CATEGORY.getValue();
+        return CATEGORY;
     }
 
     @Override
-    public Specification<Book> getSpecification(String[] params) {
-        return (root, query, criteriaBuilder) -> {
-            Set<Long> categoryIds = Arrays.stream(params)
-                    .map(Long::valueOf)
-                    .collect(Collectors.toSet());
-            Join<Book, Category> categoriesJoin = root.join(CATEGORIES);
+    public ParameterizedSpecification<Book> getSpecification(String[] params) {
+        List<Long> categoryIds = Arrays.stream(params)
+                .map(Long::valueOf)
+                .distinct()
+                .toList();
+        return new ParameterizedSpecification<>(ParameterList.shape(CATEGORY, categoryIds.size()),
+                (root, query, criteriaBuilder) -> {
+                    Subquery<Long> bookIds = query.subquery(Long.class);
+                    Root<Book> book = bookIds.from(Book.class);
+                    Join<Book, Category> categoriesJoin = book.join(CATEGORIES);
+                    bookIds.select(book.get(ID))
+                            .where(categoriesJoin.get(ID).in(ParameterList.parameters(
+                                    criteriaBuilder, Long.class, CATEGORY, categoryIds.size())));
 
-            return categoriesJoin.get(ID).in(categoryIds);
-        };
+                    return root.get(ID).in(bookIds);
+                },
+                ParameterList.bindings(CATEGORY, categoryIds));
     }
 }
@@ -6,7 +6,10 @@ public enum CriteriaSearch {
     ISBN("isbn"),
     PRICE("price"),
     DESCRIPTION("description"),
-    CATEGORY("categoryIds");
+    CATEGORY("categoryIds"),
+    QUERY("query"),
+    FUZZY_TITLE("fuzzyTitle"),
+    FUZZY_AUTHOR("fuzzyAuthor");
     private final String value;
 
     CriteriaSearch(String value) {
@@ -1,16 +1,19 @@
 package org.example.onlybooks.repository.book.spec;
 
-import jakarta.persistence.criteria.Predicate;
-import java.util.Arrays;
-import java.util.List;
+import java.util.EnumSet;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.index.fulltext.FullTextBookIndex;
+import org.example.onlybooks.index.fulltext.TextField;
 import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.ParameterizedSpecification;
 import org.example.onlybooks.repository.book.SpecificationProvider;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
+@RequiredArgsConstructor
 @Component
 public class DescriptionSpecificationProvider implements SpecificationProvider<Book> {
     private static final String DESCRIPTION = CriteriaSearch.DESCRIPTION.getValue();
+    private final FullTextBookIndex fullTextBookIndex;
 
     @Override
     public String getKey() {
@@ -18,12 +21,8 @@ public class DescriptionSpecificationProvider implements SpecificationProvider<B
     }
 
     @Override
-    public Specification<Book> getSpecification(String[] params) {
-        return (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = Arrays.stream(params)
-                    .map(p -> criteriaBuilder.like(root.get(DESCRIPTION), "%" + p + "%"))
-                    .toList();
-            return criteriaBuilder.or(predicates.toArray(new Predicate[0]));
-        };
+    public ParameterizedSpecification<Book> getSpecification(String[] params) {
+        return RankedIdSpecification.of(
+                fullTextBookIndex.search(params, EnumSet.of(TextField.DESCRIPTION)));
     }
 }
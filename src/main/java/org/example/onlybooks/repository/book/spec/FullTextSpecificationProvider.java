@@ -0,0 +1,27 @@
+package org.example.onlybooks.repository.book.spec;
+
+import java.util.EnumSet;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.index.fulltext.FullTextBookIndex;
+import org.example.onlybooks.index.fulltext.TextField;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.ParameterizedSpecification;
+import org.example.onlybooks.repository.book.SpecificationProvider;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class FullTextSpecificationProvider implements SpecificationProvider<Book> {
+    private final FullTextBookIndex fullTextBookIndex;
+
+    @Override
+    public String getKey() {
+        return CriteriaSearch.QUERY.getValue();
+    }
+
+    @Override
+    public ParameterizedSpecification<Book> getSpecification(String[] params) {
+        return RankedIdSpecification.of(
+                fullTextBookIndex.search(params, EnumSet.allOf(TextField.class)));
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.onlybooks.repository.book.spec;
+
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.index.fulltext.TextField;
+import org.example.onlybooks.index.fuzzy.TrigramBookIndex;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.ParameterizedSpecification;
+import org.example.onlybooks.repository.book.SpecificationProvider;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class FuzzyTitleSpecificationProvider implements SpecificationProvider<Book> {
+    private final TrigramBookIndex trigramBookIndex;
+
+    @Override
+    public String getKey() {
+        return CriteriaSearch.FUZZY_TITLE.getValue();
+    }
+
+    @Override
+    public ParameterizedSpecification<Book> getSpecification(String[] params) {
+        return RankedIdSpecification.of(trigramBookIndex.search(params, TextField.TITLE));
+    }
+}
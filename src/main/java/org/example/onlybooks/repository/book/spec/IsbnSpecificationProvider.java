@@ -1,14 +1,20 @@
 package org.example.onlybooks.repository.book.spec;
 
-import java.util.Arrays;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.ParameterizedSpecification;
 import org.example.onlybooks.repository.book.SpecificationProvider;
-import org.springframework.data.jpa.domain.Specification;
+import org.example.onlybooks.util.IsbnParser;
 import org.springframework.stereotype.Component;
 
 @Component
 public class IsbnSpecificationProvider implements SpecificationProvider<Book> {
     private static final String ISBN = CriteriaSearch.ISBN.getValue();
+    private static final String ISBN_13 = "isbn13";
 
     @Override
     public String getKey() {
@@ -16,8 +22,37 @@ public class IsbnSpecificationProvider implements SpecificationProvider<Book> {
     }
 
     @Override
-    public Specification getSpecification(String[] params) {
-        return (root, query, criteriaBuilder) ->
-                root.get(ISBN).in(Arrays.stream(params).toArray());
+    public ParameterizedSpecification<Book> getSpecification(String[] params) {
+        List<Long> canonicalIsbns = new ArrayList<>();
+        List<String> rawIsbns = new ArrayList<>();
+        for (String param : params) {
+            long canonicalIsbn = IsbnParser.parse(param);
+            if (canonicalIsbn == IsbnParser.INVALID) {
+                rawIsbns.add(param);
+            } else {
+                canonicalIsbns.add(canonicalIsbn);
+            }
+        }
+        Map<String, Object> parameters = new HashMap<>(
+                ParameterList.bindings(ISBN_13, canonicalIsbns));
+        parameters.putAll(ParameterList.bindings(ISBN, rawIsbns));
+        int canonicalCount = canonicalIsbns.size();
+        int rawCount = rawIsbns.size();
+        return new ParameterizedSpecification<>(ParameterList.shape(ISBN_13, canonicalCount)
+                + "," + ParameterList.shape(ISBN, rawCount),
+                (root, query, criteriaBuilder) -> {
+                    if (rawCount == 0) {
+                        return root.get(ISBN_13).in(ParameterList.parameters(
+                                criteriaBuilder, Long.class, ISBN_13, canonicalCount));
+                    }
+                    Predicate raw = root.get(ISBN).in(ParameterList.parameters(
+                            criteriaBuilder, String.class, ISBN, rawCount));
+                    if (canonicalCount == 0) {
+                        return raw;
+                    }
+                    return criteriaBuilder.or(root.get(ISBN_13).in(ParameterList.parameters(
+                            criteriaBuilder, Long.class, ISBN_13, canonicalCount)), raw);
+                },
+                parameters);
     }
 }
@@ -0,0 +1,41 @@
+package org.example.onlybooks.repository.book.spec;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Names one query parameter per value, {@code name_0}, {@code name_1} and so on, so that lists
+ * of the same length share a query.
+ */
+final class ParameterList {
+    private static final String SEPARATOR = "_";
+
+    private ParameterList() {
+    }
+
+    static String shape(String name, int size) {
+        return name + ":" + size;
+    }
+
+    static Expression<?>[] parameters(CriteriaBuilder criteriaBuilder,
+                                      Class<?> type,
+                                      String name,
+                                      int size) {
+        Expression<?>[] parameters = new Expression<?>[size];
+        for (int i = 0; i < size; i++) {
+            parameters[i] = criteriaBuilder.parameter(type, name + SEPARATOR + i);
+        }
+        return parameters;
+    }
+
+    static Map<String, Object> bindings(String name, List<?> values) {
+        Map<String, Object> bindings = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            bindings.put(name + SEPARATOR + i, values.get(i));
+        }
+        return bindings;
+    }
+}
@@ -1,13 +1,20 @@
 package org.example.onlybooks.repository.book.spec;
 
+import jakarta.persistence.criteria.Expression;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import org.example.onlybooks.index.price.PriceRange;
 import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.ParameterizedSpecification;
 import org.example.onlybooks.repository.book.SpecificationProvider;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 @Component
 public class PriceSpecificationProvider implements SpecificationProvider<Book> {
     private static final String PRICE = CriteriaSearch.PRICE.getValue();
+    private static final String MIN_PRICE = "minPrice";
+    private static final String MAX_PRICE = "maxPrice";
 
     @Override
     public String getKey() {
@@ -15,19 +22,34 @@ public class PriceSpecificationProvider implements SpecificationProvider<Book> {
     }
 
     @Override
-    public Specification<Book> getSpecification(String[] params) {
-        return (root, query, criteriaBuilder) -> {
-            switch (params.length) {
-                case 1:
-                    return criteriaBuilder.lessThanOrEqualTo(
-                            root.get(PRICE), params[0]);
-                case 2:
-                    return criteriaBuilder.between(
-                            root.get(PRICE), params[0], params[1]);
-                default:
-                    return criteriaBuilder.lessThanOrEqualTo(
-                            root.get(PRICE), params[params.length - 1]);
+    public ParameterizedSpecification<Book> getSpecification(String[] params) {
+        PriceRange range = PriceRange.parse(params);
+        boolean hasMin = range.min() != null;
+        boolean hasMax = range.max() != null;
+        Map<String, Object> parameters = new HashMap<>();
+        if (hasMin) {
+            parameters.put(MIN_PRICE, range.min());
+        }
+        if (hasMax) {
+            parameters.put(MAX_PRICE, range.max());
+        }
+        String shape = PRICE + ":" + (hasMin ? MIN_PRICE : "") + (hasMax ? MAX_PRICE : "");
+        return new ParameterizedSpecification<>(shape, (root, query, criteriaBuilder) -> {
+            Expression<BigDecimal> price = root.get(PRICE);
+            if (!hasMin && !hasMax) {
+                return criteriaBuilder.conjunction();
             }
-        };
+            if (!hasMax) {
+                return criteriaBuilder.greaterThanOrEqualTo(price,
+                        criteriaBuilder.parameter(BigDecimal.class, MIN_PRICE));
+            }
+            if (!hasMin) {
+                return criteriaBuilder.lessThanOrEqualTo(price,
+                        criteriaBuilder.parameter(BigDecimal.class, MAX_PRICE));
+            }
+            return criteriaBuilder.between(price,
+                    criteriaBuilder.parameter(BigDecimal.class, MIN_PRICE),
+                    criteriaBuilder.parameter(BigDecimal.class, MAX_PRICE));
+        }, parameters);
     }
 }
@@ -0,0 +1,35 @@
+package org.example.onlybooks.repository.book.spec;
+
+import jakarta.persistence.criteria.Expression;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.ParameterizedSpecification;
+
+final class RankedIdSpecification {
+    private static final String ID = "id";
+    private static final String FIELD_FUNCTION = "field";
+
+    private RankedIdSpecification() {
+    }
+
+    /**
+     * Restricts the search to the given ids, ordered by their rank unless another order is
+     * requested. The ids are part of the query, so it has no shape.
+     */
+    static ParameterizedSpecification<Book> of(List<Long> rankedIds) {
+        return ParameterizedSpecification.unshaped((root, query, criteriaBuilder) -> {
+            if (rankedIds.isEmpty()) {
+                return criteriaBuilder.disjunction();
+            }
+            if (query.getOrderList().isEmpty() && !Long.class.equals(query.getResultType())) {
+                List<Expression<?>> arguments = new ArrayList<>(rankedIds.size() + 1);
+                arguments.add(root.get(ID));
+                rankedIds.forEach(id -> arguments.add(criteriaBuilder.literal(id)));
+                query.orderBy(criteriaBuilder.asc(criteriaBuilder.function(
+                        FIELD_FUNCTION, Integer.class, arguments.toArray(new Expression<?>[0]))));
+            }
+            return root.get(ID).in(rankedIds);
+        });
+    }
+}
@@ -1,11 +1,21 @@
 package org.example.onlybooks.repository.category;
 
-import java.util.Set;
+import java.util.Collection;
+import java.util.Optional;
 import org.example.onlybooks.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-    Set<Category> findByIdIn(Set<Long> ids);
+    @Query(value = "SELECT book_count FROM categories WHERE id = :id AND is_deleted = false",
+            nativeQuery = true)
+    Optional<Integer> findBookCountById(Long id);
+
+    @Modifying
+    @Query(value = "UPDATE categories SET book_count = book_count + :delta WHERE id IN (:ids)",
+            nativeQuery = true)
+    void addToBookCounts(Collection<Long> ids, int delta);
 }
@@ -0,0 +1,32 @@
+package org.example.onlybooks.repository.order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import org.example.onlybooks.exception.InvalidCursorException;
+
+public record OrderCursor(LocalDateTime orderDate, Long id) {
+    private static final String SEPARATOR = ":";
+    private static final int TOKEN_PARTS = 2;
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, TOKEN_PARTS);
+            if (parts.length != TOKEN_PARTS) {
+                throw new InvalidCursorException("Invalid continuation token " + token);
+            }
+            return new OrderCursor(LocalDateTime.parse(parts[1]), Long.valueOf(parts[0]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid continuation token " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = id + SEPARATOR + orderDate;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
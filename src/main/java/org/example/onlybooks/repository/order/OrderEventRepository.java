@@ -0,0 +1,30 @@
+package org.example.onlybooks.repository.order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.example.onlybooks.model.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+    @Query(value = "SELECT * FROM order_events "
+            + "WHERE available_at <= :now AND attempts < :maxAttempts "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OrderEvent> lockNextBatch(LocalDateTime now, int maxAttempts, int limit);
+
+    @Modifying
+    @Query("DELETE FROM OrderEvent e WHERE e.id = :id")
+    int deleteOne(Long id);
+
+    @Modifying
+    @Query("UPDATE OrderEvent e SET e.attempts = :attempts, e.availableAt = :availableAt, "
+            + "e.lastError = :lastError WHERE e.id = :id")
+    int recordFailure(Long id, int attempts, LocalDateTime availableAt, String lastError);
+
+    @Query("SELECT e.id FROM OrderEvent e")
+    Set<Long> findAllIds();
+}
@@ -0,0 +1,19 @@
+package org.example.onlybooks.repository.order;
+
+import java.time.LocalDateTime;
+import org.example.onlybooks.model.OrderIdempotency;
+import org.example.onlybooks.model.OrderIdempotencyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OrderIdempotencyRepository
+        extends JpaRepository<OrderIdempotency, OrderIdempotencyId> {
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OrderIdempotency oi WHERE oi.createdAt < :createdAt")
+    int deleteAllCreatedBefore(LocalDateTime createdAt);
+}
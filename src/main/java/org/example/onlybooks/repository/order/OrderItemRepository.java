@@ -1,9 +1,16 @@
 package org.example.onlybooks.repository.order;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.example.onlybooks.model.Order;
 import org.example.onlybooks.model.OrderItem;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,4 +22,21 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     Optional<OrderItem> findByIdAndOrderId(@Param("orderId") Long orderId,
                                            @Param("id") Long id,
                                            @Param("userId") Long userId);
+
+    @Query("SELECT new org.example.onlybooks.repository.order.BookQuantity("
+            + "oi.book.id, SUM(oi.quantity)) "
+            + "FROM OrderItem oi WHERE oi.order.id IN :orderIds GROUP BY oi.book.id")
+    List<BookQuantity> sumQuantitiesByOrderIdIn(Collection<Long> orderIds);
+
+    @Query("SELECT oi.book.id FROM OrderItem oi WHERE oi.order.id = :orderId")
+    List<Long> findBookIdsByOrderId(Long orderId);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new org.example.onlybooks.repository.order.OrderedBook("
+            + "oi.order.id, oi.book.id) "
+            + "FROM OrderItem oi WHERE oi.order.status <> :status ORDER BY oi.order.id")
+    Stream<OrderedBook> streamOrderedBooksByOrderStatusNot(Order.Status status);
 }
@@ -1,17 +1,69 @@
 package org.example.onlybooks.repository.order;
 
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.example.onlybooks.dto.order.OrderSummaryDto;
 import org.example.onlybooks.model.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    @EntityGraph(attributePaths = "orderItems")
-    List<Order> findAllByUserId(Long userId);
+    String SELECT_SUMMARY = "SELECT new org.example.onlybooks.dto.order.OrderSummaryDto("
+            + "o.id, o.orderDate, o.totalPrice, o.status, "
+            + "(SELECT COUNT(oi.id) FROM OrderItem oi WHERE oi.order = o)) "
+            + "FROM Order o WHERE o.user.id = :userId ";
+    String ORDER_BY_NEWEST = "ORDER BY o.orderDate DESC, o.id DESC";
+    String SELECT_STATUS = "SELECT id, status, order_date AS orderDate FROM orders ";
+
+    @Query(SELECT_SUMMARY + ORDER_BY_NEWEST)
+    List<OrderSummaryDto> findSummariesByUserId(Long userId, Limit limit);
+
+    @Query(SELECT_SUMMARY
+            + "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) "
+            + ORDER_BY_NEWEST)
+    List<OrderSummaryDto> findSummariesByUserIdAfter(Long userId,
+                                                     LocalDateTime orderDate,
+                                                     Long id,
+                                                     Limit limit);
 
     @EntityGraph(attributePaths = "orderItems")
     Optional<Order> findByIdAndUserId(Long id, Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(Long id);
+
+    @Query(value = SELECT_STATUS + "WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<OrderStatusView> lockStatusesByIdIn(Collection<Long> ids);
+
+    long countByStatusAndOrderDateGreaterThanEqualAndOrderDateLessThan(Order.Status status,
+                                                                       LocalDateTime from,
+                                                                       LocalDateTime to);
+
+    @Query(value = SELECT_STATUS
+            + "WHERE status = :status AND order_date >= :from AND order_date < :to "
+            + "AND (order_date > :afterDate OR (order_date = :afterDate AND id > :afterId)) "
+            + "ORDER BY order_date, id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<OrderStatusView> lockStatusesByStatusAndDateAfter(String status,
+                                                           LocalDateTime from,
+                                                           LocalDateTime to,
+                                                           LocalDateTime afterDate,
+                                                           Long afterId,
+                                                           int limit);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status "
+            + "WHERE o.id IN :ids AND o.status IN :allowedSources")
+    int updateStatusByIdIn(Collection<Long> ids,
+                           Order.Status status,
+                           Collection<Order.Status> allowedSources);
 }
@@ -0,0 +1,11 @@
+package org.example.onlybooks.repository.order;
+
+import java.time.LocalDateTime;
+
+public interface OrderStatusView {
+    Long getId();
+
+    String getStatus();
+
+    LocalDateTime getOrderDate();
+}
@@ -0,0 +1,4 @@
+package org.example.onlybooks.repository.order;
+
+public record OrderedBook(Long orderId, Long bookId) {
+}
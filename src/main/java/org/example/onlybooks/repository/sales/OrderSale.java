@@ -0,0 +1,9 @@
+package org.example.onlybooks.repository.sales;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record OrderSale(Long orderId, LocalDate orderDate, List<Line> lines) {
+    public record Line(long bookId, int quantity, long revenueCents, List<Long> categoryIds) {
+    }
+}
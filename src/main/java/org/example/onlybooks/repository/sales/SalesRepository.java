@@ -0,0 +1,205 @@
+package org.example.onlybooks.repository.sales;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.model.SalesScope;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.stereotype.Repository;
+
+@RequiredArgsConstructor
+@Repository
+public class SalesRepository {
+    private static final String SALE_ROWS = "SELECT o.id, o.order_date, oi.id, oi.book_id, "
+            + "oi.quantity, oi.price, bc.category_id "
+            + "FROM orders o JOIN order_items oi ON oi.order_id = o.id "
+            + "LEFT JOIN books_categories bc ON bc.book_id = oi.book_id ";
+    private static final String SALE_BY_ORDER_ID = SALE_ROWS
+            + "WHERE o.id = :orderId ORDER BY oi.id";
+    private static final String COUNTED_SALES = SALE_ROWS
+            + "WHERE o.status <> 'CANCELED' ORDER BY o.id, oi.id";
+    private static final String PENDING_EVENT_IDS = "SELECT id FROM order_events";
+    private static final String ALL_TOTALS = "SELECT scope, scope_key, orders, units, "
+            + "revenue_cents FROM sales_totals";
+    private static final String ADD_TOTALS = "INSERT INTO sales_totals "
+            + "(scope, scope_key, orders, units, revenue_cents) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE orders = orders + ?, units = units + ?, "
+            + "revenue_cents = revenue_cents + ?";
+    private static final String DELETE_TOTALS = "DELETE FROM sales_totals";
+    private static final String LOCK_GENERATION = "SELECT generation FROM sales_totals_state "
+            + "WHERE id = 1 FOR UPDATE";
+    private static final String NEXT_GENERATION = "UPDATE sales_totals_state "
+            + "SET generation = generation + 1 WHERE id = 1";
+    private static final int STREAM_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int WRITE_BATCH_SIZE = 1000;
+    private final EntityManager entityManager;
+
+    public Optional<OrderSale> findSaleByOrderId(Long orderId) {
+        List<?> rows = entityManager.createNativeQuery(SALE_BY_ORDER_ID)
+                .setParameter("orderId", orderId)
+                .getResultList();
+        SaleRowIterator sales = new SaleRowIterator(rows.iterator());
+        return sales.hasNext() ? Optional.of(sales.next()) : Optional.empty();
+    }
+
+    /**
+     * Streams every order that counts as a sale, one order at a time, so a full rebuild
+     * never holds more than one order in memory. Must be called inside a transaction.
+     */
+    public void streamCountedSales(Consumer<OrderSale> consumer) {
+        try (Stream<?> rows = entityManager.createNativeQuery(COUNTED_SALES)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            new SaleRowIterator(rows.iterator()).forEachRemaining(consumer);
+        }
+    }
+
+    public Set<Long> findPendingEventIds() {
+        Set<Long> ids = new HashSet<>();
+        for (Object id : entityManager.createNativeQuery(PENDING_EVENT_IDS).getResultList()) {
+            ids.add(((Number) id).longValue());
+        }
+        return ids;
+    }
+
+    public void loadTotals(TotalsRowConsumer consumer) {
+        try (Stream<?> rows = entityManager.createNativeQuery(ALL_TOTALS)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            rows.forEach(row -> {
+                Object[] columns = (Object[]) row;
+                consumer.accept(SalesScope.valueOf((String) columns[0]),
+                        ((Number) columns[1]).longValue(),
+                        ((Number) columns[2]).longValue(),
+                        ((Number) columns[3]).longValue(),
+                        ((Number) columns[4]).longValue());
+            });
+        }
+    }
+
+    public void addTotals(Map<SalesScope, ? extends TotalsSource> totals) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(ADD_TOTALS)) {
+                int batched = 0;
+                for (Map.Entry<SalesScope, ? extends TotalsSource> scope : totals.entrySet()) {
+                    TotalsSource source = scope.getValue();
+                    for (int i = 0; i < source.size(); i++) {
+                        statement.setString(1, scope.getKey().name());
+                        statement.setLong(2, source.keyAt(i));
+                        statement.setLong(3, source.ordersAt(i));
+                        statement.setLong(4, source.unitsAt(i));
+                        statement.setLong(5, source.revenueCentsAt(i));
+                        statement.setLong(6, source.ordersAt(i));
+                        statement.setLong(7, source.unitsAt(i));
+                        statement.setLong(8, source.revenueCentsAt(i));
+                        statement.addBatch();
+                        if (++batched % WRITE_BATCH_SIZE == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    public void replaceTotals(Map<SalesScope, ? extends TotalsSource> totals) {
+        entityManager.createNativeQuery(DELETE_TOTALS).executeUpdate();
+        addTotals(totals);
+    }
+
+    /**
+     * Locks the single sales_totals_state row until the transaction ends and returns the
+     * generation of the stored totals, which every rebuild increments. Checkpoints and
+     * rebuilds take this lock first, so only one instance writes the totals at a time.
+     */
+    public long lockGeneration() {
+        return ((Number) entityManager.createNativeQuery(LOCK_GENERATION).getSingleResult())
+                .longValue();
+    }
+
+    public long nextGeneration() {
+        entityManager.createNativeQuery(NEXT_GENERATION).executeUpdate();
+        return lockGeneration();
+    }
+
+    private static LocalDate toLocalDate(Object orderDate) {
+        if (orderDate instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        return ((LocalDateTime) orderDate).toLocalDate();
+    }
+
+    public interface TotalsSource {
+        int size();
+
+        long keyAt(int index);
+
+        long ordersAt(int index);
+
+        long unitsAt(int index);
+
+        long revenueCentsAt(int index);
+    }
+
+    @FunctionalInterface
+    public interface TotalsRowConsumer {
+        void accept(SalesScope scope, long key, long orders, long units, long revenueCents);
+    }
+
+    private static final class SaleRowIterator implements Iterator<OrderSale> {
+        private final Iterator<?> rows;
+        private Object[] pending;
+
+        private SaleRowIterator(Iterator<?> rows) {
+            this.rows = rows;
+            this.pending = rows.hasNext() ? (Object[]) rows.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null;
+        }
+
+        @Override
+        public OrderSale next() {
+            long orderId = ((Number) pending[0]).longValue();
+            LocalDate orderDate = toLocalDate(pending[1]);
+            List<OrderSale.Line> lines = new ArrayList<>();
+            while (pending != null && ((Number) pending[0]).longValue() == orderId) {
+                long itemId = ((Number) pending[2]).longValue();
+                long bookId = ((Number) pending[3]).longValue();
+                int quantity = ((Number) pending[4]).intValue();
+                long priceCents = ((BigDecimal) pending[5]).movePointRight(2)
+                        .setScale(0, RoundingMode.HALF_UP).longValueExact();
+                List<Long> categoryIds = new ArrayList<>();
+                while (pending != null && ((Number) pending[2]).longValue() == itemId) {
+                    if (pending[6] != null) {
+                        categoryIds.add(((Number) pending[6]).longValue());
+                    }
+                    pending = rows.hasNext() ? (Object[]) rows.next() : null;
+                }
+                lines.add(new OrderSale.Line(bookId, quantity, priceCents * quantity,
+                        categoryIds));
+            }
+            return new OrderSale(orderId, orderDate, lines);
+        }
+    }
+}
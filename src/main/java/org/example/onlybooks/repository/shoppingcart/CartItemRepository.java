@@ -3,11 +3,30 @@ package org.example.onlybooks.repository.shoppingcart;
 import java.util.Optional;
 import org.example.onlybooks.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByIdAndShoppingCartId(Long id, Long shoppingCartId);
 
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.book "
+            + "WHERE ci.shoppingCart.id = :shoppingCartId AND ci.book.id = :bookId")
+    Optional<CartItem> findByShoppingCartIdAndBookIdFetchBook(Long shoppingCartId, Long bookId);
+
+    @Modifying
+    @Query(value = "INSERT INTO cart_items (shopping_cart_id, book_id, quantity, is_deleted) "
+            + "VALUES (:shoppingCartId, :bookId, :quantity, false) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "quantity = IF(is_deleted, :quantity, quantity + :quantity), "
+            + "is_deleted = false", nativeQuery = true)
+    int addQuantity(Long shoppingCartId, Long bookId, int quantity);
+
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.isDeleted = true "
+            + "WHERE ci.shoppingCart.id = :shoppingCartId AND ci.isDeleted = false")
+    int deleteAllByShoppingCartId(Long shoppingCartId);
+
     void deleteCartItemByIdAndShoppingCartId(Long id, Long shoppingCartId);
 }
@@ -3,6 +3,7 @@ package org.example.onlybooks.security;
 import lombok.RequiredArgsConstructor;
 import org.example.onlybooks.dto.user.LoginUserRequestDto;
 import org.example.onlybooks.dto.user.LoginUserResponseDto;
+import org.example.onlybooks.model.User;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -13,12 +14,14 @@ import org.springframework.stereotype.Service;
 public class AuthenticationService {
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final LoginThrottle loginThrottle;
 
-    public LoginUserResponseDto authenticate(LoginUserRequestDto userDto) {
+    public LoginUserResponseDto authenticate(LoginUserRequestDto userDto, String clientIp) {
+        loginThrottle.acquire(userDto.email(), clientIp);
         final Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(userDto.email(), userDto.password())
         );
-        String generateToken = jwtUtil.generateToken(authentication.getName());
+        String generateToken = jwtUtil.generateToken((User) authentication.getPrincipal());
         return new LoginUserResponseDto(generateToken);
     }
 }
@@ -1,11 +1,14 @@
 package org.example.onlybooks.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.model.User;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -22,6 +25,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationList tokenRevocationList;
+    @Value("${jwt.stateless-principal}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(
@@ -30,9 +36,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain)
             throws ServletException, IOException {
         String token = getToken(request);
-        if (token != null && jwtUtil.validateToken(token)) {
-            String userName = jwtUtil.getUserName(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userName);
+        if (token != null) {
+            Claims claims = jwtUtil.verify(token);
+            UserDetails userDetails = resolvePrincipal(claims);
             Authentication authentication = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities());
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -40,6 +46,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal && jwtUtil.hasPrincipalClaims(claims)) {
+            User user = jwtUtil.toPrincipal(claims);
+            if (!tokenRevocationList.isRevoked(user.getId(), claims.getIssuedAt().getTime())) {
+                return user;
+            }
+        }
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
     private String getToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
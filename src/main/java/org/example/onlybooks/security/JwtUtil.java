@@ -1,60 +1,120 @@
 package org.example.onlybooks.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.example.onlybooks.model.Role;
+import org.example.onlybooks.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
+    private static final char SEGMENT_SEPARATOR = '.';
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
     private final Key secret;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    public JwtUtil(@Value("${jwt.secret}") String secretString) {
+    public JwtUtil(@Value("${jwt.secret}") String secretString,
+                   @Value("${jwt.cache.max-size}") long cacheMaxSize) {
         this.secret = Keys.hmacShaKeyFor(secretString.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secret)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiration())
+                .build();
     }
 
-    public String generateToken(String username) {
+    public String generateToken(User user) {
+        List<String> roles = user.getRoles().stream()
+                .map(Role::getAuthority)
+                .toList();
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, roles)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(secret)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    public Claims verify(String token) {
+        String signature = token.substring(token.lastIndexOf(SEGMENT_SEPARATOR) + 1);
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(signature);
+        if (verifiedToken != null && verifiedToken.token().equals(token)) {
+            return verifiedToken.claims();
+        }
         try {
-            Jws<Claims> claimsJws = Jwts.parserBuilder()
-                    .setSigningKey(secret)
-                    .build()
-                    .parseClaimsJws(token);
-
-            return !claimsJws.getBody().getExpiration().before(new Date());
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(signature, new VerifiedToken(token, claims));
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
             throw new JwtException(String.format("Expired or invalid JWT token. %s",
                     e.getMessage()));
         }
     }
 
-    public String getUserName(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+    public boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(USER_ID_CLAIM) != null && claims.get(ROLES_CLAIM) != null;
     }
 
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secret)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+    public User toPrincipal(Claims claims) {
+        User user = new User();
+        user.setId(claims.get(USER_ID_CLAIM, Number.class).longValue());
+        user.setEmail(claims.getSubject());
+        Set<Role> roles = ((Collection<?>) claims.get(ROLES_CLAIM)).stream()
+                .map(roleName -> {
+                    Role role = new Role();
+                    role.setName(Role.RoleName.valueOf(roleName.toString()));
+                    return role;
+                })
+                .collect(Collectors.toSet());
+        user.setRoles(roles);
+        return user;
+    }
+
+    private record VerifiedToken(String token, Claims claims) {
+    }
+
+    private static class UntilTokenExpiration implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String signature, VerifiedToken verifiedToken,
+                                      long currentTime) {
+            long millisLeft = verifiedToken.claims().getExpiration().getTime()
+                    - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(String signature, VerifiedToken verifiedToken,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(signature, verifiedToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String signature, VerifiedToken verifiedToken,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
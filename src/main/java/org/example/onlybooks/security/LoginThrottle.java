@@ -0,0 +1,71 @@
+package org.example.onlybooks.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import org.example.onlybooks.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoginThrottle {
+    private final Cache<String, TokenBucket> emailBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final long emailCapacity;
+    private final long ipCapacity;
+    private final Duration refillPeriod;
+    private final Counter throttledCounter;
+
+    public LoginThrottle(@Value("${auth.login.email.capacity}") long emailCapacity,
+                         @Value("${auth.login.ip.capacity}") long ipCapacity,
+                         @Value("${auth.login.refill-period}") Duration refillPeriod,
+                         @Value("${auth.login.max-tracked-keys}") long maxTrackedKeys,
+                         MeterRegistry meterRegistry) {
+        this.emailCapacity = requirePositive("auth.login.email.capacity", emailCapacity);
+        this.ipCapacity = requirePositive("auth.login.ip.capacity", ipCapacity);
+        this.refillPeriod = refillPeriod;
+        this.emailBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(refillPeriod)
+                .build();
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(refillPeriod)
+                .build();
+        this.throttledCounter = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the per-email or per-IP limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token from both the email and the IP bucket, or from neither: an attempt
+     * rejected by one of the limits doesn't count against the other.
+     */
+    public void acquire(String email, String clientIp) {
+        TokenBucket emailBucket = emailBuckets.get(email.toLowerCase(Locale.ROOT),
+                key -> new TokenBucket(emailCapacity, refillPeriod));
+        Duration wait = emailBucket.tryConsume();
+        if (wait.isZero()) {
+            wait = ipBuckets.get(clientIp, ip -> new TokenBucket(ipCapacity, refillPeriod))
+                    .tryConsume();
+            if (!wait.isZero()) {
+                emailBucket.refund();
+            }
+        }
+        if (!wait.isZero()) {
+            throttledCounter.increment();
+            throw new TooManyRequestsException(
+                    "Too many login attempts, please try again later", wait);
+        }
+    }
+
+    private static long requirePositive(String property, long capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(property + " must be positive, was " + capacity);
+        }
+        return capacity;
+    }
+}
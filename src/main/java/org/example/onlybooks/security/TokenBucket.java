@@ -0,0 +1,32 @@
+package org.example.onlybooks.security;
+
+import java.time.Duration;
+
+class TokenBucket {
+    private final long capacity;
+    private final long nanosPerToken;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(long capacity, Duration refillPeriod) {
+        this.capacity = capacity;
+        this.nanosPerToken = refillPeriod.toNanos() / capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    synchronized Duration tryConsume() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (double) (now - lastRefillNanos) / nanosPerToken);
+        lastRefillNanos = now;
+        if (tokens >= 1) {
+            tokens--;
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos((long) ((1 - tokens) * nanosPerToken));
+    }
+
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.onlybooks.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenRevocationList {
+    private final Map<Long, Long> revokedAtByUserId = new ConcurrentHashMap<>();
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    public void revoke(Long userId) {
+        long now = System.currentTimeMillis();
+        revokedAtByUserId.put(userId, now);
+        revokedAtByUserId.values().removeIf(revokedAt -> revokedAt < now - expiration);
+    }
+
+    public boolean isRevoked(Long userId, long issuedAtMillis) {
+        Long revokedAt = revokedAtByUserId.get(userId);
+        return revokedAt != null && issuedAtMillis <= revokedAt;
+    }
+}
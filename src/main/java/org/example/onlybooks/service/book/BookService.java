@@ -1,24 +1,40 @@
 package org.example.onlybooks.service.book;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.example.onlybooks.dto.book.BookResponseDto;
+import org.example.onlybooks.dto.book.BookScrollResponseDto;
 import org.example.onlybooks.dto.book.BookSearchParameters;
-import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
+import org.example.onlybooks.dto.book.BookSearchResponseDto;
+import org.example.onlybooks.dto.book.BookSuggestionDto;
 import org.example.onlybooks.dto.book.CreateBookRequestDto;
+import org.example.onlybooks.dto.category.CategoryBooksResponseDto;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface BookService {
     BookResponseDto save(CreateBookRequestDto requestBookDto);
 
     List<BookResponseDto> findAll(Pageable pageable);
 
+    BookScrollResponseDto scroll(String continuationToken, Pageable pageable);
+
     BookResponseDto findById(Long id);
 
     BookResponseDto update(Long id, CreateBookRequestDto bookDto);
 
     void delete(Long id);
 
-    List<BookResponseDto> search(BookSearchParameters params);
+    Slice<BookResponseDto> search(BookSearchParameters params, Pageable pageable);
+
+    void search(BookSearchParameters params, Sort sort, Consumer<BookResponseDto> consumer);
+
+    BookSearchResponseDto searchWithFacets(BookSearchParameters params, Pageable pageable);
+
+    List<BookSuggestionDto> suggest(String query, int limit);
 
-    List<BookWithoutCategoryIdsResponseDto> getBooksByCategoryId(Long id, Pageable pageable);
+    CategoryBooksResponseDto getBooksByCategoryId(Long id,
+                                                  String continuationToken,
+                                                  Pageable pageable);
 }
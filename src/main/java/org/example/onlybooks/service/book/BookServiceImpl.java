@@ -1,83 +1,313 @@
 package org.example.onlybooks.service.book;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.config.CacheConfig;
 import org.example.onlybooks.dto.book.BookResponseDto;
+import org.example.onlybooks.dto.book.BookScrollResponseDto;
 import org.example.onlybooks.dto.book.BookSearchParameters;
-import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
+import org.example.onlybooks.dto.book.BookSearchResponseDto;
+import org.example.onlybooks.dto.book.BookSuggestionDto;
+import org.example.onlybooks.dto.book.CategoryFacetDto;
 import org.example.onlybooks.dto.book.CreateBookRequestDto;
+import org.example.onlybooks.dto.book.PriceFacetDto;
+import org.example.onlybooks.dto.category.CategoryBooksResponseDto;
+import org.example.onlybooks.exception.DuplicateIsbnException;
 import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.exception.InvalidCursorException;
+import org.example.onlybooks.exception.InvalidSearchParameterException;
+import org.example.onlybooks.index.BookIndexManager;
+import org.example.onlybooks.index.facet.BookFacetIndex;
+import org.example.onlybooks.index.price.BookPriceIndex;
+import org.example.onlybooks.index.price.PriceRange;
+import org.example.onlybooks.index.suggest.BookSuggestIndex;
 import org.example.onlybooks.mapper.BookMapper;
 import org.example.onlybooks.model.Book;
 import org.example.onlybooks.model.Category;
+import org.example.onlybooks.model.SalesScope;
+import org.example.onlybooks.repository.book.BookCursor;
 import org.example.onlybooks.repository.book.BookRepository;
 import org.example.onlybooks.repository.book.BookSpecificationBuilder;
+import org.example.onlybooks.repository.book.spec.CriteriaSearch;
 import org.example.onlybooks.repository.category.CategoryRepository;
+import org.example.onlybooks.service.category.CategoryCatalog;
+import org.example.onlybooks.service.sales.SalesAggregator;
+import org.example.onlybooks.util.IsbnParser;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @RequiredArgsConstructor
 @Service
 public class BookServiceImpl implements BookService {
+    private static final String PRICE = CriteriaSearch.PRICE.getValue();
+    private static final long NEW_BOOK_ID = 0;
+    private final CategoryCatalog categoryCatalog;
     private final CategoryRepository categoryRepository;
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final BookSpecificationBuilder bookSpecificationBuilder;
+    private final BookIndexManager bookIndexManager;
+    private final BookFacetIndex bookFacetIndex;
+    private final BookPriceIndex bookPriceIndex;
+    private final BookSuggestIndex bookSuggestIndex;
+    private final SalesAggregator salesAggregator;
 
+    @Transactional
     @Override
     public BookResponseDto save(CreateBookRequestDto createRequestBookDto) {
-        Book newBook = bookMapper.toModel(createRequestBookDto);
-        return bookMapper.toDto(bookRepository.save(newBook));
+        checkIsbnIsFree(createRequestBookDto.getIsbn(), NEW_BOOK_ID);
+        Book newBook = bookRepository.save(bookMapper.toModel(createRequestBookDto));
+        addToBookCounts(createRequestBookDto.getCategoryIds(), 1);
+        afterCommit(() -> bookIndexManager.index(newBook));
+        return bookMapper.toDto(newBook);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<BookResponseDto> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable).stream()
-                .map(bookMapper::toDto)
+        return bookRepository.findAllResponses(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookScrollResponseDto scroll(String continuationToken, Pageable pageable) {
+        BookCursor cursor = continuationToken == null
+                ? BookCursor.first(pageable.getSort())
+                : BookCursor.decode(continuationToken);
+        int pageSize = pageable.getPageSize();
+        List<BookCursor> keys = bookRepository.findNextPageKeys(cursor, pageSize + 1);
+        boolean hasNext = keys.size() > pageSize;
+        List<BookCursor> pageKeys = hasNext ? keys.subList(0, pageSize) : keys;
+        List<Long> ids = pageKeys.stream()
+                .map(BookCursor::id)
                 .toList();
+        String nextToken = hasNext ? pageKeys.get(pageSize - 1).encode() : null;
+        return new BookScrollResponseDto(bookRepository.findResponsesByIdsInOrder(ids),
+                nextToken);
     }
 
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    @Transactional(readOnly = true)
     @Override
     public BookResponseDto findById(Long id) {
-        Book bookFromDb = findBookById(id);
-        return bookMapper.toDto(bookFromDb);
+        return bookRepository.findResponsesByIdsInOrder(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Can't find book by id: " + id));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    @Transactional
     @Override
     public BookResponseDto update(Long id, CreateBookRequestDto bookDto) {
-        Set<Category> categories = categoryRepository.findByIdIn(bookDto.getCategoryIds());
-        Book bookFromDb = findBookById(id);
-        bookFromDb.setCategories(categories);
+        if (!categoryCatalog.containsAll(bookDto.getCategoryIds())) {
+            throw new EntityNotFoundException("Can't find categories by ids: "
+                    + bookDto.getCategoryIds());
+        }
+        Book bookFromDb = lockBookById(id);
+        checkIsbnIsFree(bookDto.getIsbn(), id);
+        Set<Long> previousCategoryIds = categoryIds(bookFromDb);
+        addToBookCounts(difference(previousCategoryIds, bookDto.getCategoryIds()), -1);
+        addToBookCounts(difference(bookDto.getCategoryIds(), previousCategoryIds), 1);
         bookMapper.updateBookFromDto(bookDto, bookFromDb);
-        return bookMapper.toDto(bookRepository.save(bookFromDb));
+        Book updatedBook = bookRepository.save(bookFromDb);
+        afterCommit(() -> bookIndexManager.index(updatedBook));
+        return bookMapper.toDto(updatedBook);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    @Transactional
     @Override
     public void delete(Long id) {
-        findBookById(id);
+        Book book = lockBookById(id);
         bookRepository.deleteById(id);
+        addToBookCounts(categoryIds(book), -1);
+        afterCommit(() -> bookIndexManager.remove(id));
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<BookResponseDto> search(BookSearchParameters params) {
+    public Slice<BookResponseDto> search(BookSearchParameters params, Pageable pageable) {
+        if (params.isPriceOnly() && isByPriceOnly(pageable.getSort())) {
+            Sort.Order order = pageable.getSort().getOrderFor(PRICE);
+            int pageSize = pageable.getPageSize();
+            long[] ids = bookPriceIndex.findIds(PriceRange.parse(params.price()),
+                    pageable.getOffset(), pageSize + 1, order != null && order.isDescending());
+            List<Long> pageIds = Arrays.stream(ids)
+                    .limit(pageSize)
+                    .boxed()
+                    .toList();
+            return new SliceImpl<>(bookRepository.findResponsesByIdsInOrder(pageIds), pageable,
+                    ids.length > pageSize);
+        }
         Specification<Book> bookSpecification = bookSpecificationBuilder.build(params);
-        return bookRepository.findAll(bookSpecification).stream()
-                .map(bookMapper::toDto)
-                .toList();
+        return bookRepository.findSlice(bookSpecification, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void search(BookSearchParameters params,
+                       Sort sort,
+                       Consumer<BookResponseDto> consumer) {
+        Specification<Book> bookSpecification = bookSpecificationBuilder.build(params);
+        try (Stream<Book> books = bookRepository.streamAll(bookSpecification, sort)) {
+            books.map(bookMapper::toDto).forEach(consumer);
+        }
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<BookWithoutCategoryIdsResponseDto> getBooksByCategoryId(Long id,
-                                                                        Pageable pageable) {
-        return bookRepository.findAllByCategoriesId(id, pageable).stream()
-                .map(bookMapper::toWithoutCategoryIdDto)
+    public BookSearchResponseDto searchWithFacets(BookSearchParameters params,
+                                                  Pageable pageable) {
+        List<BigDecimal> bounds = bookFacetIndex.getPriceBounds();
+        BookFacetIndex.Counts counts;
+        int[] priceCounts;
+        if (params.isPriceOnly()) {
+            PriceRange range = PriceRange.parse(params.price());
+            counts = bookFacetIndex.count(
+                    Arrays.stream(bookPriceIndex.findIds(range)).boxed().toList());
+            priceCounts = bookPriceIndex.countBuckets(range, bounds);
+        } else {
+            counts = bookFacetIndex.count(
+                    bookRepository.findAllIds(bookSpecificationBuilder.build(params)));
+            priceCounts = counts.priceBuckets();
+        }
+        Slice<BookResponseDto> books = search(params, pageable);
+        List<CategoryFacetDto> categories = new ArrayList<>(counts.categories().size());
+        counts.categories().forEach(facet -> categoryCatalog.find(facet.key())
+                .ifPresent(category -> categories.add(new CategoryFacetDto(category.id(),
+                        category.name(), facet.count()))));
+        List<PriceFacetDto> prices = new ArrayList<>(bounds.size() + 1);
+        for (int i = 0; i <= bounds.size(); i++) {
+            prices.add(new PriceFacetDto(i == 0 ? null : bounds.get(i - 1),
+                    i == bounds.size() ? null : bounds.get(i),
+                    priceCounts[i]));
+        }
+        return new BookSearchResponseDto(books.getContent(), books.hasNext(), categories,
+                prices);
+    }
+
+    @Override
+    public List<BookSuggestionDto> suggest(String query, int limit) {
+        return bookSuggestIndex.suggest(query, limit, unitsSold()).stream()
+                .map(suggestion -> new BookSuggestionDto(suggestion.bookId(),
+                        suggestion.title(), suggestion.author()))
                 .toList();
     }
 
-    private Book findBookById(Long id) {
-        return bookRepository.findById(id).orElseThrow(() ->
+    @Transactional(readOnly = true)
+    @Override
+    public CategoryBooksResponseDto getBooksByCategoryId(Long id,
+                                                         String continuationToken,
+                                                         Pageable pageable) {
+        if (pageable.getPageNumber() != 0 || pageable.getSort().isSorted()) {
+            throw new InvalidSearchParameterException("Books of a category are ordered by id "
+                    + "and paged with a continuation token, page and sort are not supported");
+        }
+        BookCursor cursor = continuationToken == null
+                ? BookCursor.first(Sort.unsorted())
+                : BookCursor.decode(continuationToken);
+        if (!cursor.isByAscendingId()) {
+            throw new InvalidCursorException("Invalid continuation token " + continuationToken);
+        }
+        int pageSize = pageable.getPageSize();
+        long afterId = cursor.isFirst() ? 0 : cursor.id();
+        List<Long> ids = bookRepository.findIdsByCategoryId(id, afterId, pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        Long lastId = pageIds.isEmpty() ? null : pageIds.get(pageIds.size() - 1);
+        String nextToken = hasNext ? cursor.next(lastId, lastId).encode() : null;
+        return new CategoryBooksResponseDto(
+                bookRepository.findWithoutCategoryIdsByIdsInOrder(pageIds),
+                categoryRepository.findBookCountById(id).orElse(0),
+                nextToken);
+    }
+
+    @Scheduled(fixedDelayString = "${book.suggest.refresh-interval}")
+    public void refreshSuggestions() {
+        bookSuggestIndex.refresh(unitsSold());
+    }
+
+    private LongUnaryOperator unitsSold() {
+        return bookId -> salesAggregator.get(SalesScope.BOOK, bookId).units();
+    }
+
+    private static boolean isByPriceOnly(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return orders.isEmpty()
+                || orders.size() == 1 && PRICE.equals(orders.get(0).getProperty());
+    }
+
+    /**
+     * Rejects an ISBN already used by another book, deleted ones included, either as written
+     * or in another form of the same ISBN, before the unique keys on books would.
+     */
+    private void checkIsbnIsFree(String isbn, long bookId) {
+        long isbn13 = IsbnParser.parse(isbn);
+        if (bookRepository.countOtherBooksWithIsbn(isbn,
+                isbn13 == IsbnParser.INVALID ? null : isbn13, bookId) > 0) {
+            throw new DuplicateIsbnException("Book with ISBN " + isbn + " already exists");
+        }
+    }
+
+    private void addToBookCounts(Set<Long> categoryIds, int delta) {
+        if (!categoryIds.isEmpty()) {
+            categoryRepository.addToBookCounts(categoryIds, delta);
+        }
+    }
+
+    private static Set<Long> categoryIds(Book book) {
+        return book.getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<Long> difference(Set<Long> ids, Set<Long> excluded) {
+        return ids.stream()
+                .filter(categoryId -> !excluded.contains(categoryId))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Defers an index write until the catalog change has committed, so a rolled back save,
+     * update or delete never reaches the in-memory indexes.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Locks the book row, so concurrent updates or deletes of the same book read its
+     * categories one after another and adjust the category book counts exactly once.
+     */
+    private Book lockBookById(Long id) {
+        return bookRepository.findByIdForUpdate(id).orElseThrow(() ->
                 new EntityNotFoundException("Can't find book by id: " + id));
     }
 }
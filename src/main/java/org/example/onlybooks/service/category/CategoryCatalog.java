@@ -0,0 +1,53 @@
+package org.example.onlybooks.service.category;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.dto.category.CategoryResponseDto;
+import org.example.onlybooks.mapper.CategoryMapper;
+import org.example.onlybooks.repository.category.CategoryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves category reads from an in-memory snapshot of the whole table. The snapshot is
+ * loaded at startup and replaced as a whole after every change, so readers always see
+ * one consistent version without locking.
+ */
+@RequiredArgsConstructor
+@Component
+public class CategoryCatalog {
+    private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+    private volatile CategorySnapshot snapshot = new CategorySnapshot(List.of());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        snapshot = new CategorySnapshot(categoryRepository.findAll().stream()
+                .map(categoryMapper::toDto)
+                .toList());
+    }
+
+    public Optional<CategoryResponseDto> find(Long id) {
+        return snapshot.find(id);
+    }
+
+    public List<CategoryResponseDto> findAll(Pageable pageable) {
+        return snapshot.findAll(pageable);
+    }
+
+    public boolean containsAll(Collection<Long> ids) {
+        return snapshot.containsAll(ids);
+    }
+
+    synchronized void put(CategoryResponseDto category) {
+        snapshot = snapshot.with(category);
+    }
+
+    synchronized void remove(Long id) {
+        snapshot = snapshot.without(id);
+    }
+}
@@ -1,6 +1,6 @@
 package org.example.onlybooks.service.category;
 
-import java.util.Set;
+import java.util.List;
 import org.example.onlybooks.dto.category.CategoryRequestDto;
 import org.example.onlybooks.dto.category.CategoryResponseDto;
 import org.springframework.data.domain.Pageable;
@@ -8,7 +8,7 @@ import org.springframework.data.domain.Pageable;
 public interface CategoryService {
     CategoryResponseDto save(CategoryRequestDto categoryDto);
 
-    Set<CategoryResponseDto> findAll(Pageable pageable);
+    List<CategoryResponseDto> findAll(Pageable pageable);
 
     CategoryResponseDto findById(Long id);
 
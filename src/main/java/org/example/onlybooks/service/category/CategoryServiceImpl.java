@@ -1,7 +1,6 @@
 package org.example.onlybooks.service.category;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.onlybooks.dto.category.CategoryRequestDto;
 import org.example.onlybooks.dto.category.CategoryResponseDto;
@@ -17,37 +16,43 @@ import org.springframework.stereotype.Service;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryCatalog categoryCatalog;
 
     @Override
     public CategoryResponseDto save(CategoryRequestDto categoryDto) {
         Category category = categoryMapper.toModel(categoryDto);
-        return categoryMapper.toDto(categoryRepository.save(category));
+        CategoryResponseDto savedCategory = categoryMapper.toDto(
+                categoryRepository.save(category));
+        categoryCatalog.put(savedCategory);
+        return savedCategory;
     }
 
     @Override
-    public Set<CategoryResponseDto> findAll(Pageable pageable) {
-        return categoryRepository.findAll(pageable).stream()
-                .map(categoryMapper::toDto)
-                .collect(Collectors.toSet());
+    public List<CategoryResponseDto> findAll(Pageable pageable) {
+        return categoryCatalog.findAll(pageable);
     }
 
     @Override
     public CategoryResponseDto findById(Long id) {
-        Category category = findCategoryById(id);
-        return categoryMapper.toDto(category);
+        return categoryCatalog.find(id).orElseThrow(() ->
+                new EntityNotFoundException("Can't find category with id: " + id));
     }
 
     @Override
     public CategoryResponseDto updateById(Long id, CategoryRequestDto categoryDto) {
         Category categoryFromDb = findCategoryById(id);
         categoryMapper.updateCategoryFromDto(categoryDto, categoryFromDb);
-        return categoryMapper.toDto(categoryRepository.save(categoryFromDb));
+        CategoryResponseDto updatedCategory = categoryMapper.toDto(
+                categoryRepository.save(categoryFromDb));
+        categoryCatalog.put(updatedCategory);
+        return updatedCategory;
     }
 
     @Override
     public void deleteById(Long id) {
         Category categoryById = findCategoryById(id);
         categoryRepository.deleteById(categoryById.getId());
+        categoryCatalog.remove(id);
     }
 
     private Category findCategoryById(Long id) {
@@ -0,0 +1,92 @@
+package org.example.onlybooks.service.category;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.example.onlybooks.dto.category.CategoryResponseDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Immutable view of every category, sorted by id. Changes produce a new snapshot.
+ */
+final class CategorySnapshot {
+    private static final Comparator<CategoryResponseDto> BY_ID =
+            Comparator.comparing(CategoryResponseDto::id);
+    private static final Map<String, Comparator<CategoryResponseDto>> COMPARATORS = Map.of(
+            "id", BY_ID,
+            "name", Comparator.comparing(CategoryResponseDto::name,
+                    Comparator.nullsFirst(Comparator.naturalOrder())),
+            "description", Comparator.comparing(CategoryResponseDto::description,
+                    Comparator.nullsFirst(Comparator.naturalOrder())));
+    private final List<CategoryResponseDto> categories;
+    private final Map<Long, CategoryResponseDto> categoriesById;
+
+    CategorySnapshot(Collection<CategoryResponseDto> categories) {
+        this.categories = categories.stream()
+                .sorted(BY_ID)
+                .toList();
+        this.categoriesById = this.categories.stream()
+                .collect(Collectors.toUnmodifiableMap(CategoryResponseDto::id,
+                        Function.identity()));
+    }
+
+    Optional<CategoryResponseDto> find(Long id) {
+        return Optional.ofNullable(categoriesById.get(id));
+    }
+
+    boolean containsAll(Collection<Long> ids) {
+        return categoriesById.keySet().containsAll(ids);
+    }
+
+    List<CategoryResponseDto> findAll(Pageable pageable) {
+        List<CategoryResponseDto> sorted = categories;
+        Comparator<CategoryResponseDto> comparator = comparator(pageable.getSort());
+        if (comparator != null) {
+            sorted = new ArrayList<>(categories);
+            sorted.sort(comparator.thenComparing(BY_ID));
+        }
+        if (pageable.isUnpaged()) {
+            return sorted;
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return List.copyOf(sorted.subList(from, to));
+    }
+
+    CategorySnapshot with(CategoryResponseDto category) {
+        Map<Long, CategoryResponseDto> changed = new HashMap<>(categoriesById);
+        changed.put(category.id(), category);
+        return new CategorySnapshot(changed.values());
+    }
+
+    CategorySnapshot without(Long id) {
+        return new CategorySnapshot(categories.stream()
+                .filter(category -> !category.id().equals(id))
+                .toList());
+    }
+
+    /**
+     * Orders on properties a category does not have are ignored.
+     */
+    private static Comparator<CategoryResponseDto> comparator(Sort sort) {
+        Comparator<CategoryResponseDto> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<CategoryResponseDto> next = COMPARATORS.get(order.getProperty());
+            if (next == null) {
+                continue;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.onlybooks.service.inventory;
+
+import java.util.Map;
+import org.example.onlybooks.dto.book.BookStockResponseDto;
+
+public interface InventoryService {
+    void reserve(Map<Long, Integer> quantitiesByBookId);
+
+    void release(Map<Long, Integer> quantitiesByBookId);
+
+    BookStockResponseDto updateStock(Long bookId, int stock);
+}
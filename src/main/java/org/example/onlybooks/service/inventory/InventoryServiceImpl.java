@@ -0,0 +1,122 @@
+package org.example.onlybooks.service.inventory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.onlybooks.dto.book.BookStockResponseDto;
+import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.exception.InsufficientStockException;
+import org.example.onlybooks.repository.book.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+public class InventoryServiceImpl implements InventoryService {
+    private final BookRepository bookRepository;
+    private final StripedStockCounters counters;
+
+    public InventoryServiceImpl(BookRepository bookRepository,
+                                @Value("${inventory.counters.stripes}") int stripes,
+                                @Value("${inventory.counters.max-size}") long maxSize,
+                                @Value("${inventory.counters.ttl}") Duration ttl) {
+        this.bookRepository = bookRepository;
+        this.counters = new StripedStockCounters(stripes, maxSize, ttl);
+    }
+
+    @Transactional
+    @Override
+    public void reserve(Map<Long, Integer> quantitiesByBookId) {
+        Map<Long, Integer> lines = new TreeMap<>(quantitiesByBookId);
+        long[] bookIds = lines.keySet().stream().mapToLong(Long::longValue).toArray();
+        int[] quantities = lines.values().stream().mapToInt(Integer::intValue).toArray();
+        StripedStockCounters.Reservation reservation = tryReserve(bookIds, quantities);
+        afterRollback(reservation::cancel);
+        int[] updated = bookRepository.reserveStock(bookIds, quantities);
+        List<Long> shortages = new ArrayList<>();
+        for (int i = 0; i < bookIds.length; i++) {
+            if (updated[i] == 0) {
+                shortages.add(bookIds[i]);
+            }
+        }
+        if (!shortages.isEmpty()) {
+            counters.invalidate(shortages);
+            throw new InsufficientStockException("Not enough stock for books " + shortages);
+        }
+    }
+
+    @Transactional
+    @Override
+    public void release(Map<Long, Integer> quantitiesByBookId) {
+        Map<Long, Integer> lines = new TreeMap<>(quantitiesByBookId);
+        bookRepository.releaseStock(
+                lines.keySet().stream().mapToLong(Long::longValue).toArray(),
+                lines.values().stream().mapToInt(Integer::intValue).toArray());
+        afterCompletion(() -> counters.invalidate(lines.keySet()));
+    }
+
+    @Transactional
+    @Override
+    public BookStockResponseDto updateStock(Long bookId, int stock) {
+        if (bookRepository.updateStock(bookId, stock) == 0) {
+            throw new EntityNotFoundException("Can't find book by id " + bookId);
+        }
+        afterCompletion(() -> counters.invalidate(List.of(bookId)));
+        return new BookStockResponseDto(bookId, stock);
+    }
+
+    private StripedStockCounters.Reservation tryReserve(long[] bookIds, int[] quantities) {
+        StripedStockCounters.Reservation reservation =
+                counters.tryReserve(bookIds, quantities, this::loadCounters);
+        if (!reservation.isReserved()) {
+            counters.invalidate(reservation.getShortages());
+            reservation = counters.tryReserve(bookIds, quantities, this::loadCounters);
+        }
+        if (!reservation.isReserved()) {
+            throw new InsufficientStockException("Not enough stock for books "
+                    + reservation.getShortages());
+        }
+        return reservation;
+    }
+
+    private Map<Long, AtomicInteger> loadCounters(Set<? extends Long> bookIds) {
+        Map<Long, AtomicInteger> loaded = new HashMap<>();
+        bookRepository.findStockByIds(List.copyOf(bookIds))
+                .forEach((bookId, stock) -> loaded.put(bookId, new AtomicInteger(stock)));
+        return loaded;
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
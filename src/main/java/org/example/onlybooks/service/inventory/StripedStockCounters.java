@@ -0,0 +1,112 @@
+package org.example.onlybooks.service.inventory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Cached available stock per book. Each counter belongs to one of a fixed number of lock
+ * stripes; a multi-line reservation locks the stripes of its books in ascending order, checks
+ * every line and takes them all at once, so unrelated books never contend on the same lock.
+ */
+class StripedStockCounters {
+    private final ReentrantLock[] stripes;
+    private final Cache<Long, AtomicInteger> counters;
+
+    StripedStockCounters(int stripeCount, long maxSize, Duration ttl) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        counters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    Reservation tryReserve(long[] bookIds,
+                           int[] quantities,
+                           Function<Set<? extends Long>, Map<Long, AtomicInteger>> loader) {
+        List<Long> ids = Arrays.stream(bookIds).boxed().toList();
+        Map<Long, AtomicInteger> current = counters.getAll(ids, loader);
+        AtomicInteger[] lines = new AtomicInteger[bookIds.length];
+        List<Long> shortages = new ArrayList<>();
+        int[] lockOrder = lockOrder(bookIds);
+        lock(lockOrder);
+        try {
+            for (int i = 0; i < bookIds.length; i++) {
+                lines[i] = current.get(bookIds[i]);
+                if (lines[i] == null || lines[i].get() < quantities[i]) {
+                    shortages.add(bookIds[i]);
+                }
+            }
+            if (shortages.isEmpty()) {
+                for (int i = 0; i < lines.length; i++) {
+                    lines[i].addAndGet(-quantities[i]);
+                }
+            }
+        } finally {
+            unlock(lockOrder);
+        }
+        return new Reservation(quantities, shortages.isEmpty() ? lines : null, shortages);
+    }
+
+    void invalidate(Collection<Long> bookIds) {
+        counters.invalidateAll(bookIds);
+    }
+
+    private int[] lockOrder(long[] bookIds) {
+        return Arrays.stream(bookIds)
+                .mapToInt(id -> Math.floorMod(Long.hashCode(id), stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private void lock(int[] stripeIndexes) {
+        for (int index : stripeIndexes) {
+            stripes[index].lock();
+        }
+    }
+
+    private void unlock(int[] stripeIndexes) {
+        for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+            stripes[stripeIndexes[i]].unlock();
+        }
+    }
+
+    static final class Reservation {
+        private final int[] quantities;
+        private final AtomicInteger[] lines;
+        private final List<Long> shortages;
+
+        private Reservation(int[] quantities, AtomicInteger[] lines, List<Long> shortages) {
+            this.quantities = quantities;
+            this.lines = lines;
+            this.shortages = shortages;
+        }
+
+        boolean isReserved() {
+            return shortages.isEmpty();
+        }
+
+        List<Long> getShortages() {
+            return shortages;
+        }
+
+        void cancel() {
+            for (int i = 0; i < lines.length; i++) {
+                lines[i].addAndGet(quantities[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.onlybooks.service.order;
+
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusRequestDto;
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusResponseDto;
+
+public interface BulkOrderStatusService {
+    BulkUpdateOrderStatusResponseDto updateOrderStatuses(
+            BulkUpdateOrderStatusRequestDto requestDto);
+}
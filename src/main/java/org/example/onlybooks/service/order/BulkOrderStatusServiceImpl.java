@@ -0,0 +1,148 @@
+package org.example.onlybooks.service.order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusRequestDto;
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusResponseDto;
+import org.example.onlybooks.dto.order.OrderStatusFilterDto;
+import org.example.onlybooks.dto.order.OrderStatusResultDto;
+import org.example.onlybooks.exception.InvalidSearchParameterException;
+import org.example.onlybooks.model.Order;
+import org.example.onlybooks.outbox.OrderOutbox;
+import org.example.onlybooks.repository.order.BookQuantity;
+import org.example.onlybooks.repository.order.OrderItemRepository;
+import org.example.onlybooks.repository.order.OrderRepository;
+import org.example.onlybooks.repository.order.OrderStatusView;
+import org.example.onlybooks.service.inventory.InventoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves many orders to a new status without loading them as entities. Orders are locked
+ * and read as (id, status) rows one chunk at a time, and each chunk is switched with a single
+ * UPDATE that only touches orders whose current status may precede the new one. The whole run
+ * is one transaction, so a filter may match at most as many orders as an explicit id list.
+ */
+@Service
+public class BulkOrderStatusServiceImpl implements BulkOrderStatusService {
+    static final int MAX_ORDERS = 10000;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InventoryService inventoryService;
+    private final OrderOutbox orderOutbox;
+    private final int chunkSize;
+
+    public BulkOrderStatusServiceImpl(OrderRepository orderRepository,
+                                      OrderItemRepository orderItemRepository,
+                                      InventoryService inventoryService,
+                                      OrderOutbox orderOutbox,
+                                      @Value("${order.bulk-status.chunk-size}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.inventoryService = inventoryService;
+        this.orderOutbox = orderOutbox;
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional
+    @Override
+    public BulkUpdateOrderStatusResponseDto updateOrderStatuses(
+            BulkUpdateOrderStatusRequestDto requestDto) {
+        List<OrderStatusResultDto> results = requestDto.ids() != null
+                ? updateByIds(requestDto.ids(), requestDto.status())
+                : updateByFilter(requestDto.filter(), requestDto.status());
+        int updated = (int) results.stream()
+                .filter(result -> result.result() == OrderStatusResultDto.Result.UPDATED)
+                .count();
+        return new BulkUpdateOrderStatusResponseDto(requestDto.status(), updated, results);
+    }
+
+    private List<OrderStatusResultDto> updateByIds(List<Long> ids, Order.Status status) {
+        List<Long> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, OrderStatusResultDto> resultsById = new HashMap<>();
+        for (int from = 0; from < uniqueIds.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, uniqueIds.size());
+            transition(orderRepository.lockStatusesByIdIn(uniqueIds.subList(from, to)), status)
+                    .forEach(result -> resultsById.put(result.id(), result));
+        }
+        return uniqueIds.stream()
+                .map(id -> resultsById.getOrDefault(id, new OrderStatusResultDto(id, null,
+                        OrderStatusResultDto.Result.NOT_FOUND)))
+                .toList();
+    }
+
+    private List<OrderStatusResultDto> updateByFilter(OrderStatusFilterDto filter,
+                                                      Order.Status status) {
+        if (orderRepository.countByStatusAndOrderDateGreaterThanEqualAndOrderDateLessThan(
+                filter.status(), filter.from(), filter.to()) > MAX_ORDERS) {
+            throw tooManyMatches();
+        }
+        List<OrderStatusResultDto> results = new ArrayList<>();
+        LocalDateTime afterDate = filter.from();
+        Long afterId = 0L;
+        List<OrderStatusView> rows;
+        do {
+            rows = orderRepository.lockStatusesByStatusAndDateAfter(filter.status().name(),
+                    filter.from(), filter.to(), afterDate, afterId, chunkSize);
+            if (results.size() + rows.size() > MAX_ORDERS) {
+                throw tooManyMatches();
+            }
+            if (!rows.isEmpty()) {
+                OrderStatusView last = rows.get(rows.size() - 1);
+                afterDate = last.getOrderDate();
+                afterId = last.getId();
+                results.addAll(transition(rows, status));
+            }
+        } while (rows.size() == chunkSize);
+        return results;
+    }
+
+    private InvalidSearchParameterException tooManyMatches() {
+        return new InvalidSearchParameterException("The filter matches more than " + MAX_ORDERS
+                + " orders. Please, narrow the date range");
+    }
+
+    private List<OrderStatusResultDto> transition(List<OrderStatusView> rows, Order.Status status) {
+        Set<Order.Status> allowedSources = status.getAllowedSources();
+        List<OrderStatusResultDto> results = new ArrayList<>(rows.size());
+        Map<Long, Order.Status> updatable = new LinkedHashMap<>();
+        for (OrderStatusView row : rows) {
+            Order.Status current = Order.Status.valueOf(row.getStatus());
+            OrderStatusResultDto.Result result;
+            if (current == status) {
+                result = OrderStatusResultDto.Result.UNCHANGED;
+            } else if (allowedSources.contains(current)) {
+                result = OrderStatusResultDto.Result.UPDATED;
+                updatable.put(row.getId(), current);
+            } else {
+                result = OrderStatusResultDto.Result.INVALID_TRANSITION;
+            }
+            results.add(new OrderStatusResultDto(row.getId(), current, result));
+        }
+        if (!updatable.isEmpty()) {
+            List<Long> updatableIds = List.copyOf(updatable.keySet());
+            orderRepository.updateStatusByIdIn(updatableIds, status, allowedSources);
+            if (status == Order.Status.CANCELED) {
+                inventoryService.release(orderedQuantities(updatableIds));
+            }
+            orderOutbox.publishStatusChanges(updatable, status);
+        }
+        return results;
+    }
+
+    private Map<Long, Integer> orderedQuantities(Collection<Long> orderIds) {
+        return orderItemRepository.sumQuantitiesByOrderIdIn(orderIds).stream()
+                .collect(Collectors.toMap(BookQuantity::bookId,
+                        bookQuantity -> bookQuantity.quantity().intValue()));
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.onlybooks.service.order;
+
+import org.example.onlybooks.dto.order.OrderResponseDto;
+import org.example.onlybooks.dto.order.PlaceOrderRequestDto;
+import org.example.onlybooks.model.User;
+
+public interface IdempotentOrderService {
+    OrderResponseDto placeOrder(User user,
+                                PlaceOrderRequestDto placeOrderRequestDto,
+                                String idempotencyKey);
+}
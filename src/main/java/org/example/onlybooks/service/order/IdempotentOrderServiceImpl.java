@@ -0,0 +1,145 @@
+package org.example.onlybooks.service.order;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.example.onlybooks.dto.order.OrderResponseDto;
+import org.example.onlybooks.dto.order.PlaceOrderRequestDto;
+import org.example.onlybooks.exception.IdempotencyKeyReusedException;
+import org.example.onlybooks.mapper.OrderIdempotencyMapper;
+import org.example.onlybooks.model.OrderIdempotencyId;
+import org.example.onlybooks.model.User;
+import org.example.onlybooks.repository.order.OrderIdempotencyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Replays the stored response for a repeated Idempotency-Key instead of placing the order again.
+ * Completed responses are kept in a bounded cache in front of the order_idempotency table,
+ * and concurrent requests with the same key wait for the one already in flight.
+ * A key is bound to the hash of the request it was first sent with, and reusing it
+ * with a different request is rejected instead of replaying an unrelated order.
+ */
+@Service
+public class IdempotentOrderServiceImpl implements IdempotentOrderService {
+    private final Map<OrderIdempotencyId, Execution> inFlight = new ConcurrentHashMap<>();
+    private final Cache<OrderIdempotencyId, Completed> completed;
+    private final OrderService orderService;
+    private final OrderIdempotencyRepository orderIdempotencyRepository;
+    private final OrderIdempotencyMapper orderIdempotencyMapper;
+    private final Duration ttl;
+
+    public IdempotentOrderServiceImpl(OrderService orderService,
+                                      OrderIdempotencyRepository orderIdempotencyRepository,
+                                      OrderIdempotencyMapper orderIdempotencyMapper,
+                                      @Value("${order.idempotency.cache-size}") long cacheSize,
+                                      @Value("${order.idempotency.ttl}") Duration ttl) {
+        this.orderService = orderService;
+        this.orderIdempotencyRepository = orderIdempotencyRepository;
+        this.orderIdempotencyMapper = orderIdempotencyMapper;
+        this.ttl = ttl;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public OrderResponseDto placeOrder(User user,
+                                       PlaceOrderRequestDto placeOrderRequestDto,
+                                       String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return orderService.placeOrder(user, placeOrderRequestDto);
+        }
+        OrderIdempotencyId id = new OrderIdempotencyId(user.getId(), idempotencyKey);
+        String requestHash = orderIdempotencyMapper.toRequestHash(placeOrderRequestDto);
+        Completed cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return cached.responseFor(requestHash, idempotencyKey);
+        }
+        Execution execution = new Execution(requestHash, new CompletableFuture<>());
+        Execution running = inFlight.putIfAbsent(id, execution);
+        if (running != null) {
+            requireSameRequest(running.requestHash(), requestHash, idempotencyKey);
+            return await(running.response());
+        }
+        try {
+            Completed result = findStored(id)
+                    .orElseGet(() -> placeOnce(user, placeOrderRequestDto, id, requestHash));
+            completed.put(id, result);
+            OrderResponseDto response = result.responseFor(requestHash, idempotencyKey);
+            execution.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            execution.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, execution);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval}",
+            initialDelayString = "${order.idempotency.cleanup-interval}")
+    public void removeExpired() {
+        orderIdempotencyRepository.deleteAllCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private Completed placeOnce(User user,
+                                PlaceOrderRequestDto placeOrderRequestDto,
+                                OrderIdempotencyId id,
+                                String requestHash) {
+        try {
+            return new Completed(requestHash,
+                    orderService.placeOrder(user, placeOrderRequestDto, id, requestHash));
+        } catch (DataIntegrityViolationException e) {
+            return findStored(id).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<Completed> findStored(OrderIdempotencyId id) {
+        return orderIdempotencyRepository.findById(id)
+                .map(stored -> new Completed(stored.getRequestHash(),
+                        orderIdempotencyMapper.toDto(stored)));
+    }
+
+    private OrderResponseDto await(CompletableFuture<OrderResponseDto> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Rows stored before request hashes were recorded have none and match any request.
+     */
+    private static void requireSameRequest(String storedHash,
+                                           String requestHash,
+                                           String idempotencyKey) {
+        if (storedHash != null && !storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency key " + idempotencyKey
+                    + " was already used with a different request");
+        }
+    }
+
+    private record Completed(String requestHash, OrderResponseDto response) {
+        OrderResponseDto responseFor(String requestHash, String idempotencyKey) {
+            requireSameRequest(this.requestHash, requestHash, idempotencyKey);
+            return response;
+        }
+    }
+
+    private record Execution(String requestHash, CompletableFuture<OrderResponseDto> response) {
+    }
+}
@@ -1,16 +1,23 @@
 package org.example.onlybooks.service.order;
 
-import java.util.List;
+import org.example.onlybooks.dto.order.OrderHistoryResponseDto;
 import org.example.onlybooks.dto.order.OrderItemsResponseDto;
 import org.example.onlybooks.dto.order.OrderResponseDto;
 import org.example.onlybooks.dto.order.PlaceOrderRequestDto;
 import org.example.onlybooks.dto.order.UpdateOrderStatusRequestDto;
+import org.example.onlybooks.model.OrderIdempotencyId;
 import org.example.onlybooks.model.User;
+import org.springframework.data.domain.Pageable;
 
 public interface OrderService {
     OrderResponseDto placeOrder(User user, PlaceOrderRequestDto placeOrderRequestDto);
 
-    List<OrderResponseDto> getAllOrders(User user);
+    OrderResponseDto placeOrder(User user,
+                                PlaceOrderRequestDto placeOrderRequestDto,
+                                OrderIdempotencyId idempotencyId,
+                                String requestHash);
+
+    OrderHistoryResponseDto getAllOrders(User user, String continuationToken, Pageable pageable);
 
     OrderResponseDto updateOrderStatus(Long id, UpdateOrderStatusRequestDto requestDto);
 
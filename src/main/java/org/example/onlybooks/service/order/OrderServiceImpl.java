@@ -2,25 +2,39 @@ package org.example.onlybooks.service.order;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.dto.order.OrderHistoryResponseDto;
 import org.example.onlybooks.dto.order.OrderItemsResponseDto;
 import org.example.onlybooks.dto.order.OrderResponseDto;
+import org.example.onlybooks.dto.order.OrderSummaryDto;
 import org.example.onlybooks.dto.order.PlaceOrderRequestDto;
 import org.example.onlybooks.dto.order.UpdateOrderStatusRequestDto;
 import org.example.onlybooks.exception.DataProcessingException;
 import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.exception.InvalidStatusTransitionException;
+import org.example.onlybooks.mapper.OrderIdempotencyMapper;
 import org.example.onlybooks.mapper.OrderItemMapper;
 import org.example.onlybooks.mapper.OrderMapper;
 import org.example.onlybooks.model.CartItem;
 import org.example.onlybooks.model.Order;
+import org.example.onlybooks.model.OrderEvent;
+import org.example.onlybooks.model.OrderIdempotencyId;
 import org.example.onlybooks.model.OrderItem;
 import org.example.onlybooks.model.ShoppingCart;
 import org.example.onlybooks.model.User;
+import org.example.onlybooks.outbox.OrderOutbox;
+import org.example.onlybooks.repository.order.OrderCursor;
+import org.example.onlybooks.repository.order.OrderIdempotencyRepository;
 import org.example.onlybooks.repository.order.OrderItemRepository;
 import org.example.onlybooks.repository.order.OrderRepository;
+import org.example.onlybooks.repository.shoppingcart.CartItemRepository;
 import org.example.onlybooks.repository.shoppingcart.ShoppingCartRepository;
+import org.example.onlybooks.service.inventory.InventoryService;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +46,11 @@ public class OrderServiceImpl implements OrderService {
     private final ShoppingCartRepository shoppingCartRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderRepository orderRepository;
+    private final CartItemRepository cartItemRepository;
+    private final OrderIdempotencyRepository orderIdempotencyRepository;
+    private final OrderIdempotencyMapper orderIdempotencyMapper;
+    private final InventoryService inventoryService;
+    private final OrderOutbox orderOutbox;
 
     @Transactional
     @Override
@@ -48,28 +67,74 @@ public class OrderServiceImpl implements OrderService {
                     + " is empty");
         }
 
-        String shippingAddress = getShippingAddress(placeOrderRequestDto, user);
-        Order order = createNewOrder(user, cartItems);
+        User owner = shoppingCart.getUser();
+        String shippingAddress = getShippingAddress(placeOrderRequestDto, owner);
+        inventoryService.reserve(cartItems.stream()
+                .collect(Collectors.toMap(cartItem -> cartItem.getBook().getId(),
+                        CartItem::getQuantity, Integer::sum)));
+        Order order = createNewOrder(owner, cartItems);
         order.setShippingAddress(shippingAddress);
         orderRepository.save(order);
-        cartItems.clear();
-        shoppingCartRepository.save(shoppingCart);
+        cartItemRepository.deleteAllByShoppingCartId(shoppingCart.getId());
+        orderOutbox.publish(order, OrderEvent.Type.ORDER_PLACED);
         return orderMapper.toDto(order);
     }
 
+    @Transactional
+    @Override
+    public OrderResponseDto placeOrder(User user,
+                                       PlaceOrderRequestDto placeOrderRequestDto,
+                                       OrderIdempotencyId idempotencyId,
+                                       String requestHash) {
+        OrderResponseDto response = placeOrder(user, placeOrderRequestDto);
+        orderIdempotencyRepository.saveAndFlush(
+                orderIdempotencyMapper.toEntity(idempotencyId, requestHash, response));
+        return response;
+    }
+
     @Override
-    public List<OrderResponseDto> getAllOrders(User user) {
-        return orderRepository.findAllByUserId(user.getId()).stream()
-                .map(orderMapper::toDto)
-                .toList();
+    public OrderHistoryResponseDto getAllOrders(User user,
+                                                String continuationToken,
+                                                Pageable pageable) {
+        int pageSize = pageable.getPageSize();
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderSummaryDto> orders;
+        if (continuationToken == null) {
+            orders = orderRepository.findSummariesByUserId(user.getId(), limit);
+        } else {
+            OrderCursor cursor = OrderCursor.decode(continuationToken);
+            orders = orderRepository.findSummariesByUserIdAfter(user.getId(),
+                    cursor.orderDate(), cursor.id(), limit);
+        }
+        boolean hasNext = orders.size() > pageSize;
+        List<OrderSummaryDto> page = hasNext ? orders.subList(0, pageSize) : orders;
+        String nextToken = null;
+        if (hasNext) {
+            OrderSummaryDto last = page.get(pageSize - 1);
+            nextToken = new OrderCursor(last.orderDate(), last.id()).encode();
+        }
+        return new OrderHistoryResponseDto(page, nextToken);
     }
 
+    @Transactional
     @Override
     public OrderResponseDto updateOrderStatus(Long id, UpdateOrderStatusRequestDto requestDto) {
-        Order order = orderRepository.findById(id).orElseThrow(()
+        Order order = orderRepository.findByIdForUpdate(id).orElseThrow(()
                 -> new EntityNotFoundException("Can't find order by id " + id));
+        Order.Status previousStatus = order.getStatus();
+        if (previousStatus == requestDto.status()) {
+            return orderMapper.toDto(order);
+        }
+        if (!requestDto.status().getAllowedSources().contains(previousStatus)) {
+            throw new InvalidStatusTransitionException("Can't change status of order " + id
+                    + " from " + previousStatus + " to " + requestDto.status());
+        }
+        if (requestDto.status() == Order.Status.CANCELED) {
+            inventoryService.release(orderedQuantities(order));
+        }
         order.setStatus(requestDto.status());
         orderRepository.save(order);
+        orderOutbox.publishStatusChange(order, previousStatus);
         return orderMapper.toDto(order);
     }
 
@@ -92,6 +157,12 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDto(order);
     }
 
+    private Map<Long, Integer> orderedQuantities(Order order) {
+        return order.getOrderItems().stream()
+                .collect(Collectors.toMap(orderItem -> orderItem.getBook().getId(),
+                        OrderItem::getQuantity, Integer::sum));
+    }
+
     private BigDecimal calculateOrderTotalPrice(Set<OrderItem> orderItems) {
         return orderItems.stream()
                 .map(items -> items.getPrice().multiply(BigDecimal.valueOf(items.getQuantity())))
@@ -0,0 +1,102 @@
+package org.example.onlybooks.service.recommendation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import org.example.onlybooks.util.collection.LongIntHashMap;
+
+/**
+ * Sparse, symmetric matrix of how many orders contain both of two books. Each book owns a row
+ * of primitive {@code long -> int} counts, so no boxing happens while counting. The best
+ * related books of a row are ranked by {@link #rankChanged()} after the row changes, so
+ * lookups only read. Not thread safe.
+ */
+final class CoPurchaseMatrix {
+    private static final int INITIAL_ROWS = 64;
+    private static final int SCORE_SHIFT = 32;
+    private final LongIntHashMap rowIndex = new LongIntHashMap(INITIAL_ROWS);
+    private final BitSet changedRows = new BitSet();
+    private final int maxResults;
+    private LongIntHashMap[] rows = new LongIntHashMap[INITIAL_ROWS];
+    private long[][] topRelated = new long[INITIAL_ROWS][];
+    private int size;
+
+    CoPurchaseMatrix(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    void addOrder(long[] bookIds, int delta) {
+        for (long bookId : bookIds) {
+            int row = row(bookId);
+            LongIntHashMap counts = rows[row];
+            for (long otherId : bookIds) {
+                if (otherId != bookId && counts.addTo(otherId, delta) <= 0) {
+                    counts.remove(otherId, 0);
+                }
+            }
+            changedRows.set(row);
+        }
+    }
+
+    /**
+     * Ranks the related books of every row changed since the last call.
+     */
+    void rankChanged() {
+        for (int row = changedRows.nextSetBit(0); row >= 0; row = changedRows.nextSetBit(row + 1)) {
+            topRelated[row] = rank(rows[row]);
+        }
+        changedRows.clear();
+    }
+
+    /**
+     * Returns up to {@code limit} book ids most often bought together with the given book,
+     * most frequent first, ties broken by the lower id.
+     */
+    long[] findRelated(long bookId, int limit) {
+        int row = rowIndex.getOrDefault(bookId, -1);
+        long[] ranked = row < 0 ? null : topRelated[row];
+        if (ranked == null) {
+            return new long[0];
+        }
+        return Arrays.copyOf(ranked, Math.min(limit, ranked.length));
+    }
+
+    int countTogether(long bookId, long otherId) {
+        int row = rowIndex.getOrDefault(bookId, -1);
+        return row < 0 ? 0 : rows[row].getOrDefault(otherId, 0);
+    }
+
+    private long[] rank(LongIntHashMap counts) {
+        long[] ids = new long[counts.size()];
+        int[] next = new int[1];
+        counts.forEach((otherId, count) -> ids[next[0]++] = otherId);
+        Arrays.sort(ids);
+        long[] candidates = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            candidates[i] = (long) counts.getOrDefault(ids[i], 0) << SCORE_SHIFT
+                    | (Integer.MAX_VALUE - i);
+        }
+        Arrays.sort(candidates);
+        int resultSize = Math.min(maxResults, candidates.length);
+        long[] ranked = new long[resultSize];
+        for (int i = 0; i < resultSize; i++) {
+            long candidate = candidates[candidates.length - 1 - i];
+            ranked[i] = ids[Integer.MAX_VALUE - (int) candidate];
+        }
+        return ranked;
+    }
+
+    private int row(long bookId) {
+        int row = rowIndex.getOrDefault(bookId, -1);
+        if (row >= 0) {
+            return row;
+        }
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size << 1);
+            topRelated = Arrays.copyOf(topRelated, size << 1);
+        }
+        row = size++;
+        rows[row] = new LongIntHashMap();
+        rowIndex.put(bookId, row);
+        return row;
+    }
+}
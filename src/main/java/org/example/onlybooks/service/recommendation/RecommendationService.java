@@ -0,0 +1,10 @@
+package org.example.onlybooks.service.recommendation;
+
+import java.util.List;
+import org.example.onlybooks.dto.book.RelatedBookResponseDto;
+
+public interface RecommendationService {
+    List<RelatedBookResponseDto> getRelatedBooks(Long bookId, int limit);
+
+    void rebuild();
+}
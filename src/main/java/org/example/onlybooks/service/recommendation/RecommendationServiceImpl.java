@@ -0,0 +1,72 @@
+package org.example.onlybooks.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.dto.book.RelatedBookResponseDto;
+import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.model.Order;
+import org.example.onlybooks.repository.book.BookRepository;
+import org.example.onlybooks.repository.order.OrderEventRepository;
+import org.example.onlybooks.repository.order.OrderItemRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+@Service
+public class RecommendationServiceImpl implements RecommendationService {
+    private final RelatedBooksIndex relatedBooksIndex;
+    private final BookRepository bookRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderEventRepository orderEventRepository;
+
+    @Override
+    public List<RelatedBookResponseDto> getRelatedBooks(Long bookId, int limit) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new EntityNotFoundException("Can't find book by id: " + bookId);
+        }
+        long[] related = relatedBooksIndex.findRelated(bookId, limit);
+        List<Long> relatedIds = Arrays.stream(related)
+                .boxed()
+                .toList();
+        Map<Long, Book> booksById = bookRepository.findAllById(relatedIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<RelatedBookResponseDto> relatedBooks = new ArrayList<>(related.length);
+        for (Long relatedId : relatedIds) {
+            Book book = booksById.get(relatedId);
+            if (book != null) {
+                relatedBooks.add(new RelatedBookResponseDto(book.getId(), book.getTitle(),
+                        book.getAuthor(), book.getPrice(),
+                        relatedBooksIndex.countTogether(bookId, relatedId)));
+            }
+        }
+        return relatedBooks;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${book.related.rebuild-interval}",
+            initialDelayString = "${book.related.rebuild-interval}")
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    @Override
+    public void rebuild() {
+        relatedBooksIndex.rebuild(orderEventRepository::findAllIds,
+                () -> orderItemRepository.streamOrderedBooksByOrderStatusNot(
+                        Order.Status.CANCELED));
+    }
+
+    @Scheduled(fixedDelayString = "${book.related.prune-interval}",
+            initialDelayString = "${book.related.prune-interval}")
+    @Transactional(readOnly = true)
+    public void pruneCountedEvents() {
+        relatedBooksIndex.retainCounted(orderEventRepository::findAllIds);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.onlybooks.service.recommendation;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.model.Order;
+import org.example.onlybooks.model.OrderEvent;
+import org.example.onlybooks.outbox.OrderEventHandler;
+import org.example.onlybooks.repository.order.OrderItemRepository;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class RelatedBooksEventHandler implements OrderEventHandler {
+    private final OrderItemRepository orderItemRepository;
+    private final RelatedBooksIndex relatedBooksIndex;
+
+    @Override
+    public void handle(OrderEvent event) {
+        int delta = switch (event.getType()) {
+            case ORDER_PLACED -> counted(event.getStatus());
+            case ORDER_STATUS_CHANGED -> event.getPreviousStatus() == null
+                    ? 0
+                    : counted(event.getStatus()) - counted(event.getPreviousStatus());
+        };
+        if (delta != 0) {
+            List<Long> bookIds = orderItemRepository.findBookIdsByOrderId(event.getOrderId());
+            relatedBooksIndex.apply(event.getId(), bookIds, delta);
+        }
+    }
+
+    private static int counted(Order.Status status) {
+        return status == Order.Status.CANCELED ? 0 : 1;
+    }
+}
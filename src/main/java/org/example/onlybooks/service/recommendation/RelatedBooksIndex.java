@@ -0,0 +1,177 @@
+package org.example.onlybooks.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.example.onlybooks.repository.order.OrderedBook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * "Customers also bought" index over the books of every order that is not canceled.
+ * A rebuild counts a fresh matrix from a stream of order lines while the current one keeps
+ * serving lookups and updates. Orders applied during the rebuild are then replayed on the
+ * fresh matrix unless their event was still in the outbox when the snapshot was taken, in
+ * which case the snapshot already counts them; those events are skipped when they are
+ * delivered later, as in {@code SalesAggregator}. Every counted event id is remembered
+ * until the event has left the outbox, so a redelivered event is not counted twice.
+ *
+ * <p>Each instance only applies the events it dispatched itself, so with several instances
+ * the matrix misses orders dispatched elsewhere until the next periodic rebuild.
+ */
+@Component
+public class RelatedBooksIndex {
+    private static final int INITIAL_BOOKS = 1024;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private final int maxResults;
+    private final int maxOrderSize;
+    private CoPurchaseMatrix matrix;
+    private Set<Long> countedEventIds = new HashSet<>();
+    private Set<Long> snapshotEventIds;
+    private List<AppliedOrder> appliedDuringRebuild;
+
+    public RelatedBooksIndex(@Value("${book.related.max-results}") int maxResults,
+                             @Value("${book.related.max-order-size}") int maxOrderSize) {
+        this.maxResults = maxResults;
+        this.maxOrderSize = maxOrderSize;
+        this.matrix = new CoPurchaseMatrix(maxResults);
+    }
+
+    public void apply(Long eventId, List<Long> bookIds, int delta) {
+        long[] books = distinctBooks(bookIds.stream().mapToLong(Long::longValue).toArray());
+        lock.writeLock().lock();
+        try {
+            if (!countedEventIds.add(eventId)) {
+                return;
+            }
+            matrix.addOrder(books, delta);
+            matrix.rankChanged();
+            if (appliedDuringRebuild != null) {
+                appliedDuringRebuild.add(new AppliedOrder(eventId, books, delta));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets counted events that are no longer in the outbox, as those will never be
+     * delivered again. The ids are read under the write lock, so an event applied just
+     * before the read is still in the outbox and is kept.
+     */
+    public void retainCounted(Supplier<Set<Long>> pendingEventIds) {
+        lock.writeLock().lock();
+        try {
+            countedEventIds.retainAll(pendingEventIds.get());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] findRelated(Long bookId, int limit) {
+        lock.readLock().lock();
+        try {
+            return matrix.findRelated(bookId, Math.min(limit, maxResults));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countTogether(Long bookId, Long otherId) {
+        lock.readLock().lock();
+        try {
+            return matrix.countTogether(bookId, otherId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index from order lines sorted by order id. {@code snapshot} returns the ids
+     * of the events still in the outbox and runs under the write lock, so no order is applied
+     * while the snapshot is established; the order lines must then be read from the same
+     * snapshot, i.e. inside the same repeatable read transaction.
+     */
+    public void rebuild(Supplier<Set<Long>> snapshot,
+                        Supplier<Stream<OrderedBook>> orderedBooks) {
+        rebuildLock.lock();
+        try {
+            rebuildMatrix(snapshot, orderedBooks);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildMatrix(Supplier<Set<Long>> snapshot,
+                               Supplier<Stream<OrderedBook>> orderedBooks) {
+        lock.writeLock().lock();
+        try {
+            snapshotEventIds = new HashSet<>(snapshot.get());
+            appliedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            CoPurchaseMatrix rebuilt = count(orderedBooks);
+            lock.writeLock().lock();
+            try {
+                for (AppliedOrder applied : appliedDuringRebuild) {
+                    if (snapshotEventIds.add(applied.eventId())) {
+                        rebuilt.addOrder(applied.bookIds(), applied.delta());
+                    }
+                }
+                rebuilt.rankChanged();
+                matrix = rebuilt;
+                countedEventIds = snapshotEventIds;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            snapshotEventIds = null;
+            appliedDuringRebuild = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    private CoPurchaseMatrix count(Supplier<Stream<OrderedBook>> orderedBooks) {
+        CoPurchaseMatrix counted = new CoPurchaseMatrix(maxResults);
+        try (Stream<OrderedBook> stream = orderedBooks.get()) {
+            Iterator<OrderedBook> rows = stream.iterator();
+            OrderedBook row = rows.hasNext() ? rows.next() : null;
+            long[] books = new long[INITIAL_BOOKS];
+            while (row != null) {
+                long orderId = row.orderId();
+                int bookCount = 0;
+                while (row != null && row.orderId() == orderId) {
+                    if (bookCount == books.length) {
+                        books = Arrays.copyOf(books, bookCount << 1);
+                    }
+                    books[bookCount++] = row.bookId();
+                    row = rows.hasNext() ? rows.next() : null;
+                }
+                counted.addOrder(distinctBooks(Arrays.copyOf(books, bookCount)), 1);
+            }
+        }
+        counted.rankChanged();
+        return counted;
+    }
+
+    private long[] distinctBooks(long[] bookIds) {
+        long[] distinct = Arrays.stream(bookIds).sorted().distinct().toArray();
+        return distinct.length > maxOrderSize ? Arrays.copyOf(distinct, maxOrderSize) : distinct;
+    }
+
+    private record AppliedOrder(Long eventId, long[] bookIds, int delta) {
+    }
+}
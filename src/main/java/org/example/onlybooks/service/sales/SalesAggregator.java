@@ -0,0 +1,225 @@
+package org.example.onlybooks.service.sales;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+import org.example.onlybooks.model.SalesScope;
+import org.example.onlybooks.repository.sales.OrderSale;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory sales totals per book, category, category and book, and day. Every applied
+ * sale is added both to the totals that are read and to a pending delta, which the
+ * checkpoint adds to the sales_totals table and then clears.
+ *
+ * <p>Every event id whose sale the totals contain is remembered until the event has left
+ * the outbox, so an event that is delivered again after its delivery rolled back, or after
+ * another handler failed, is not counted twice.
+ *
+ * <p>A rebuild replaces the totals with a snapshot of the database. Sales applied while it
+ * runs are replayed on top of the snapshot unless their event was still in the outbox when
+ * the snapshot was taken, in which case the snapshot already counts them; those events are
+ * skipped when they are delivered later.
+ */
+@Component
+public class SalesAggregator {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<SalesScope, SalesTotals> totals = newTotals();
+    private Map<SalesScope, SalesTotals> pending = newTotals();
+    private Set<Long> countedEventIds = new HashSet<>();
+    private Set<Long> snapshotEventIds;
+    private List<AppliedSale> appliedDuringRebuild;
+
+    public void apply(Long eventId, OrderSale sale, int sign) {
+        lock.writeLock().lock();
+        try {
+            if (!countedEventIds.add(eventId)) {
+                return;
+            }
+            add(totals, sale, sign);
+            add(pending, sale, sign);
+            if (appliedDuringRebuild != null) {
+                appliedDuringRebuild.add(new AppliedSale(eventId, sale, sign));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SalesTotal[] topBooks(Long categoryId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (categoryId == null) {
+                return totals.get(SalesScope.BOOK).topByUnits(limit, key -> true);
+            }
+            LongPredicate inCategory = key -> SalesScope.categoryOf(key) == categoryId;
+            SalesTotal[] top = totals.get(SalesScope.CATEGORY_BOOK).topByUnits(limit, inCategory);
+            for (int i = 0; i < top.length; i++) {
+                SalesTotal total = top[i];
+                top[i] = new SalesTotal(SalesScope.bookOf(total.key()), total.orders(),
+                        total.units(), total.revenueCents());
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SalesTotal get(SalesScope scope, long key) {
+        lock.readLock().lock();
+        try {
+            return totals.get(scope).get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SalesTotal> getAll(SalesScope scope) {
+        lock.readLock().lock();
+        try {
+            SalesTotals scopeTotals = totals.get(scope);
+            List<SalesTotal> all = new ArrayList<>(scopeTotals.size());
+            for (int slot = 0; slot < scopeTotals.size(); slot++) {
+                all.add(scopeTotals.totalAt(slot));
+            }
+            return all;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Map<SalesScope, SalesTotals> drainPending() {
+        lock.writeLock().lock();
+        try {
+            Map<SalesScope, SalesTotals> drained = pending;
+            pending = newTotals();
+            return drained;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void restorePending(Map<SalesScope, SalesTotals> drained) {
+        lock.writeLock().lock();
+        try {
+            addAll(drained, pending);
+            pending = drained;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets counted events that are no longer in the outbox, as those will never be
+     * delivered again. The ids are read under the write lock, so an event applied just
+     * before the read is still in the outbox and is kept.
+     */
+    void retainCounted(Supplier<Set<Long>> pendingEventIds) {
+        lock.writeLock().lock();
+        try {
+            countedEventIds.retainAll(pendingEventIds.get());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void reload(Map<SalesScope, SalesTotals> stored) {
+        lock.writeLock().lock();
+        try {
+            addAll(stored, pending);
+            totals = stored;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts recording applied sales. The snapshot must be taken by {@code snapshot}, which
+     * runs under the write lock so no sale is applied while the snapshot is established.
+     */
+    void beginRebuild(Supplier<Set<Long>> snapshot) {
+        lock.writeLock().lock();
+        try {
+            snapshotEventIds = snapshot.get();
+            appliedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void completeRebuild(Map<SalesScope, SalesTotals> rebuilt) {
+        lock.writeLock().lock();
+        try {
+            Map<SalesScope, SalesTotals> notInSnapshot = newTotals();
+            Set<Long> counted = new HashSet<>(snapshotEventIds);
+            for (AppliedSale applied : appliedDuringRebuild) {
+                if (counted.add(applied.eventId())) {
+                    add(rebuilt, applied.sale(), applied.sign());
+                    add(notInSnapshot, applied.sale(), applied.sign());
+                }
+            }
+            totals = rebuilt;
+            pending = notInSnapshot;
+            countedEventIds = counted;
+        } finally {
+            snapshotEventIds = null;
+            appliedDuringRebuild = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            snapshotEventIds = null;
+            appliedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static Map<SalesScope, SalesTotals> newTotals() {
+        Map<SalesScope, SalesTotals> scopes = new EnumMap<>(SalesScope.class);
+        for (SalesScope scope : SalesScope.values()) {
+            scopes.put(scope, new SalesTotals());
+        }
+        return scopes;
+    }
+
+    static void add(Map<SalesScope, SalesTotals> scopes, OrderSale sale, int sign) {
+        long orderUnits = 0;
+        long orderRevenue = 0;
+        Set<Long> categoryIds = new HashSet<>();
+        SalesTotals categoryBooks = scopes.get(SalesScope.CATEGORY_BOOK);
+        for (OrderSale.Line line : sale.lines()) {
+            long units = (long) sign * line.quantity();
+            long revenue = sign * line.revenueCents();
+            orderUnits += units;
+            orderRevenue += revenue;
+            scopes.get(SalesScope.BOOK).add(line.bookId(), sign, units, revenue);
+            for (Long categoryId : line.categoryIds()) {
+                long orders = categoryIds.add(categoryId) ? sign : 0;
+                scopes.get(SalesScope.CATEGORY).add(categoryId, orders, units, revenue);
+                categoryBooks.add(SalesScope.categoryBookKey(categoryId, line.bookId()),
+                        sign, units, revenue);
+            }
+        }
+        scopes.get(SalesScope.DAY).add(sale.orderDate().toEpochDay(), sign,
+                orderUnits, orderRevenue);
+    }
+
+    private static void addAll(Map<SalesScope, SalesTotals> target,
+                               Map<SalesScope, SalesTotals> source) {
+        source.forEach((scope, scopeTotals) -> target.get(scope).addAll(scopeTotals));
+    }
+
+    private record AppliedSale(Long eventId, OrderSale sale, int sign) {
+    }
+}
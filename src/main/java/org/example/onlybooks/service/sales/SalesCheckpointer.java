@@ -0,0 +1,115 @@
+package org.example.onlybooks.service.sales;
+
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.example.onlybooks.model.SalesScope;
+import org.example.onlybooks.repository.sales.SalesRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@link SalesAggregator} and the sales_totals table in step. A checkpoint adds the
+ * pending deltas to the table and reloads it, which also picks up deltas written by other
+ * instances. A rebuild recomputes the table from the orders in a single transaction.
+ *
+ * <p>Both hold the sales_totals_state row lock while they write, so instances take turns.
+ * A rebuild counts every order committed before its snapshot, including sales that other
+ * instances have applied but not yet checkpointed, and it increments the stored generation.
+ * An instance that finds the generation changed since its last load drops its pending
+ * deltas instead of adding them a second time; sales it applied between the snapshot and
+ * that checkpoint are then missing until the next rebuild.
+ */
+@Component
+public class SalesCheckpointer {
+    private final Lock maintenanceLock = new ReentrantLock();
+    private final SalesAggregator salesAggregator;
+    private final SalesRepository salesRepository;
+    private final TransactionTemplate transactionTemplate;
+    private long generation = -1;
+
+    public SalesCheckpointer(SalesAggregator salesAggregator,
+                             SalesRepository salesRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.salesAggregator = salesAggregator;
+        this.salesRepository = salesRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        maintenanceLock.lock();
+        try {
+            Stored stored = transactionTemplate.execute(status ->
+                    new Stored(salesRepository.lockGeneration(), loadTotals()));
+            generation = stored.generation();
+            salesAggregator.reload(stored.totals());
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sales.checkpoint-interval}",
+            initialDelayString = "${sales.checkpoint-interval}")
+    public void checkpoint() {
+        maintenanceLock.lock();
+        try {
+            Map<SalesScope, SalesTotals> drained = salesAggregator.drainPending();
+            Stored stored;
+            try {
+                stored = transactionTemplate.execute(status -> {
+                    long current = salesRepository.lockGeneration();
+                    if (current == generation) {
+                        salesRepository.addTotals(drained);
+                    }
+                    salesAggregator.retainCounted(salesRepository::findPendingEventIds);
+                    return new Stored(current, loadTotals());
+                });
+            } catch (RuntimeException e) {
+                salesAggregator.restorePending(drained);
+                throw e;
+            }
+            generation = stored.generation();
+            salesAggregator.reload(stored.totals());
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    public void rebuild() {
+        maintenanceLock.lock();
+        try {
+            Stored rebuilt = transactionTemplate.execute(status -> {
+                salesRepository.lockGeneration();
+                salesAggregator.beginRebuild(salesRepository::findPendingEventIds);
+                Map<SalesScope, SalesTotals> totals = SalesAggregator.newTotals();
+                salesRepository.streamCountedSales(sale -> SalesAggregator.add(totals, sale, 1));
+                salesRepository.replaceTotals(totals);
+                return new Stored(salesRepository.nextGeneration(), totals);
+            });
+            generation = rebuilt.generation();
+            salesAggregator.completeRebuild(rebuilt.totals());
+        } catch (RuntimeException e) {
+            salesAggregator.abortRebuild();
+            throw e;
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private Map<SalesScope, SalesTotals> loadTotals() {
+        Map<SalesScope, SalesTotals> totals = SalesAggregator.newTotals();
+        salesRepository.loadTotals((scope, key, orders, units, revenueCents)
+                -> totals.get(scope).add(key, orders, units, revenueCents));
+        return totals;
+    }
+
+    private record Stored(long generation, Map<SalesScope, SalesTotals> totals) {
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.onlybooks.service.sales;
+
+import lombok.RequiredArgsConstructor;
+import org.example.onlybooks.model.Order;
+import org.example.onlybooks.model.OrderEvent;
+import org.example.onlybooks.outbox.OrderEventHandler;
+import org.example.onlybooks.repository.sales.SalesRepository;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class SalesEventHandler implements OrderEventHandler {
+    private final SalesRepository salesRepository;
+    private final SalesAggregator salesAggregator;
+
+    @Override
+    public void handle(OrderEvent event) {
+        int sign = switch (event.getType()) {
+            case ORDER_PLACED -> counted(event.getStatus());
+            case ORDER_STATUS_CHANGED -> event.getPreviousStatus() == null
+                    ? 0
+                    : counted(event.getStatus()) - counted(event.getPreviousStatus());
+        };
+        if (sign != 0) {
+            salesRepository.findSaleByOrderId(event.getOrderId())
+                    .ifPresent(sale -> salesAggregator.apply(event.getId(), sale, sign));
+        }
+    }
+
+    private static int counted(Order.Status status) {
+        return status == Order.Status.CANCELED ? 0 : 1;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.onlybooks.service.sales;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.example.onlybooks.dto.sales.BestsellerResponseDto;
+import org.example.onlybooks.dto.sales.CategorySalesResponseDto;
+import org.example.onlybooks.dto.sales.DailySalesResponseDto;
+
+public interface SalesReportService {
+    List<BestsellerResponseDto> getBestsellers(Long categoryId, int limit);
+
+    List<DailySalesResponseDto> getDailySales(LocalDate from, LocalDate to);
+
+    List<CategorySalesResponseDto> getCategorySales();
+
+    void rebuild();
+}
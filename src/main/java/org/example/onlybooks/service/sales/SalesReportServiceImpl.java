@@ -0,0 +1,108 @@
+package org.example.onlybooks.service.sales;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.example.onlybooks.dto.sales.BestsellerResponseDto;
+import org.example.onlybooks.dto.sales.CategorySalesResponseDto;
+import org.example.onlybooks.dto.sales.DailySalesResponseDto;
+import org.example.onlybooks.exception.InvalidSearchParameterException;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.model.Category;
+import org.example.onlybooks.model.SalesScope;
+import org.example.onlybooks.repository.book.BookRepository;
+import org.example.onlybooks.repository.category.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SalesReportServiceImpl implements SalesReportService {
+    private final SalesAggregator salesAggregator;
+    private final SalesCheckpointer salesCheckpointer;
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final int maxDays;
+
+    public SalesReportServiceImpl(SalesAggregator salesAggregator,
+                                  SalesCheckpointer salesCheckpointer,
+                                  BookRepository bookRepository,
+                                  CategoryRepository categoryRepository,
+                                  @Value("${sales.daily.max-days}") int maxDays) {
+        this.salesAggregator = salesAggregator;
+        this.salesCheckpointer = salesCheckpointer;
+        this.bookRepository = bookRepository;
+        this.categoryRepository = categoryRepository;
+        this.maxDays = maxDays;
+    }
+
+    @Override
+    public List<BestsellerResponseDto> getBestsellers(Long categoryId, int limit) {
+        SalesTotal[] top = salesAggregator.topBooks(categoryId, limit);
+        List<Long> bookIds = Arrays.stream(top)
+                .map(SalesTotal::key)
+                .toList();
+        Map<Long, Book> booksById = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<BestsellerResponseDto> bestsellers = new ArrayList<>(top.length);
+        for (SalesTotal total : top) {
+            Book book = booksById.get(total.key());
+            if (book != null) {
+                bestsellers.add(new BestsellerResponseDto(book.getId(), book.getTitle(),
+                        book.getAuthor(), book.getPrice(), total.units(),
+                        toAmount(total.revenueCents())));
+            }
+        }
+        return bestsellers;
+    }
+
+    @Override
+    public List<DailySalesResponseDto> getDailySales(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidSearchParameterException("End date " + to
+                    + " is before start date " + from);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new InvalidSearchParameterException("Daily sales can cover at most "
+                    + maxDays + " days");
+        }
+        List<DailySalesResponseDto> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            SalesTotal total = salesAggregator.get(SalesScope.DAY, date.toEpochDay());
+            days.add(new DailySalesResponseDto(date, total.orders(), total.units(),
+                    toAmount(total.revenueCents())));
+        }
+        return days;
+    }
+
+    @Override
+    public List<CategorySalesResponseDto> getCategorySales() {
+        List<SalesTotal> totals = salesAggregator.getAll(SalesScope.CATEGORY);
+        Map<Long, String> namesById = categoryRepository.findAllById(totals.stream()
+                        .map(SalesTotal::key)
+                        .toList()).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+        return totals.stream()
+                .filter(total -> namesById.containsKey(total.key()))
+                .sorted(Comparator.comparingLong(SalesTotal::revenueCents).reversed())
+                .map(total -> new CategorySalesResponseDto(total.key(),
+                        namesById.get(total.key()), total.orders(), total.units(),
+                        toAmount(total.revenueCents())))
+                .toList();
+    }
+
+    @Override
+    public void rebuild() {
+        salesCheckpointer.rebuild();
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
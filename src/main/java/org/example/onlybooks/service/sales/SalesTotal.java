@@ -0,0 +1,4 @@
+package org.example.onlybooks.service.sales;
+
+public record SalesTotal(long key, long orders, long units, long revenueCents) {
+}
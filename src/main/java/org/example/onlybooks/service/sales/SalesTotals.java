@@ -0,0 +1,115 @@
+package org.example.onlybooks.service.sales;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+import org.example.onlybooks.repository.sales.SalesRepository;
+import org.example.onlybooks.util.collection.LongIntHashMap;
+
+/**
+ * Order, unit and revenue counters keyed by a primitive {@code long}. Each key owns a slot
+ * in three parallel arrays, found through a {@link LongIntHashMap}, so updates neither box
+ * nor allocate once the key exists. Slots are never removed. Not thread safe.
+ */
+final class SalesTotals implements SalesRepository.TotalsSource {
+    private static final int INITIAL_CAPACITY = 16;
+    private final LongIntHashMap slots = new LongIntHashMap();
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] orders = new long[INITIAL_CAPACITY];
+    private long[] units = new long[INITIAL_CAPACITY];
+    private long[] revenueCents = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(long key, long orderCount, long unitCount, long revenue) {
+        int slot = slots.getOrDefault(key, -1);
+        if (slot < 0) {
+            if (size == keys.length) {
+                grow();
+            }
+            slot = size++;
+            keys[slot] = key;
+            slots.put(key, slot);
+        }
+        orders[slot] += orderCount;
+        units[slot] += unitCount;
+        revenueCents[slot] += revenue;
+    }
+
+    void addAll(SalesTotals other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.keys[i], other.orders[i], other.units[i], other.revenueCents[i]);
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    SalesTotal get(long key) {
+        int slot = slots.getOrDefault(key, -1);
+        return slot < 0 ? new SalesTotal(key, 0, 0, 0) : totalAt(slot);
+    }
+
+    SalesTotal totalAt(int slot) {
+        return new SalesTotal(keys[slot], orders[slot], units[slot], revenueCents[slot]);
+    }
+
+    /**
+     * Returns up to {@code limit} totals with the most units sold among the keys accepted by
+     * the filter, best first. Uses a bounded heap, so the cost is O(n log limit).
+     */
+    SalesTotal[] topByUnits(int limit, LongPredicate keyFilter) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, this::compareSlots);
+        for (int slot = 0; slot < size; slot++) {
+            if (units[slot] > 0 && keyFilter.test(keys[slot])) {
+                heap.add(slot);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        }
+        SalesTotal[] top = new SalesTotal[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = totalAt(heap.poll());
+        }
+        return top;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    @Override
+    public long ordersAt(int index) {
+        return orders[index];
+    }
+
+    @Override
+    public long unitsAt(int index) {
+        return units[index];
+    }
+
+    @Override
+    public long revenueCentsAt(int index) {
+        return revenueCents[index];
+    }
+
+    private int compareSlots(int first, int second) {
+        int byUnits = Long.compare(units[first], units[second]);
+        return byUnits != 0 ? byUnits : Long.compare(keys[second], keys[first]);
+    }
+
+    private void grow() {
+        int capacity = keys.length << 1;
+        keys = Arrays.copyOf(keys, capacity);
+        orders = Arrays.copyOf(orders, capacity);
+        units = Arrays.copyOf(units, capacity);
+        revenueCents = Arrays.copyOf(revenueCents, capacity);
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.onlybooks.service.shoppingcart;
 
 import org.example.onlybooks.dto.cartitem.CartItemRequestDto;
+import org.example.onlybooks.dto.cartitem.CartItemResponseDto;
 import org.example.onlybooks.dto.cartitem.UpdateCartItemRequestDto;
 import org.example.onlybooks.dto.shoppingcart.ShoppingCartResponseDto;
 import org.example.onlybooks.model.User;
@@ -8,7 +9,7 @@ import org.example.onlybooks.model.User;
 public interface ShoppingCartService {
     void registerNewShoppingCart(User user);
 
-    ShoppingCartResponseDto addBookToShoppingCart(User user, CartItemRequestDto cartItem);
+    CartItemResponseDto addBookToShoppingCart(User user, CartItemRequestDto cartItem);
 
     ShoppingCartResponseDto getShoppingCart(User user);
 
@@ -2,11 +2,12 @@ package org.example.onlybooks.service.shoppingcart;
 
 import lombok.RequiredArgsConstructor;
 import org.example.onlybooks.dto.cartitem.CartItemRequestDto;
+import org.example.onlybooks.dto.cartitem.CartItemResponseDto;
 import org.example.onlybooks.dto.cartitem.UpdateCartItemRequestDto;
 import org.example.onlybooks.dto.shoppingcart.ShoppingCartResponseDto;
 import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.mapper.CartItemMapper;
 import org.example.onlybooks.mapper.ShoppingCartMapper;
-import org.example.onlybooks.model.Book;
 import org.example.onlybooks.model.CartItem;
 import org.example.onlybooks.model.ShoppingCart;
 import org.example.onlybooks.model.User;
@@ -23,6 +24,7 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
     private final BookRepository bookRepository;
     private final ShoppingCartRepository shoppingCartRepository;
     private final ShoppingCartMapper shoppingCartMapper;
+    private final CartItemMapper cartItemMapper;
 
     @Override
     public void registerNewShoppingCart(User user) {
@@ -38,19 +40,16 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
 
     @Transactional
     @Override
-    public ShoppingCartResponseDto addBookToShoppingCart(User user, CartItemRequestDto cartItem) {
-        Book bookFromDb = bookRepository.findById(cartItem.bookId()).orElseThrow(() ->
-                new EntityNotFoundException("Can't find book by id " + cartItem.bookId()));
-        ShoppingCart shoppingCart = findShoppingCart(user.getId());
-        shoppingCart.getCartItems().stream()
-                .filter(item -> item.getBook().getId().equals(cartItem.bookId()))
-                .findFirst()
-                .ifPresentOrElse(item ->
-                                item.setQuantity(item.getQuantity() + cartItem.quantity()),
-                        () ->
-                                addCartItem(shoppingCart, bookFromDb, cartItem.quantity()));
-        shoppingCartRepository.save(shoppingCart);
-        return shoppingCartMapper.toDto(shoppingCart);
+    public CartItemResponseDto addBookToShoppingCart(User user, CartItemRequestDto cartItem) {
+        if (!bookRepository.existsById(cartItem.bookId())) {
+            throw new EntityNotFoundException("Can't find book by id " + cartItem.bookId());
+        }
+        cartItemRepository.addQuantity(user.getId(), cartItem.bookId(), cartItem.quantity());
+        return cartItemRepository
+                .findByShoppingCartIdAndBookIdFetchBook(user.getId(), cartItem.bookId())
+                .map(cartItemMapper::toDto)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find item with book id " + cartItem.bookId()));
     }
 
     @Transactional
@@ -73,14 +72,6 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
         return shoppingCartMapper.toDto(findShoppingCart(user.getId()));
     }
 
-    private void addCartItem(ShoppingCart shoppingCart, Book book, int quantity) {
-        CartItem cartItem = new CartItem();
-        cartItem.setShoppingCart(shoppingCart);
-        cartItem.setBook(book);
-        cartItem.setQuantity(quantity);
-        shoppingCart.getCartItems().add(cartItem);
-    }
-
     private ShoppingCart findShoppingCart(Long id) {
         return shoppingCartRepository.findByUserIdFetchCartItemsAndBooks(id)
                 .orElseThrow(() ->
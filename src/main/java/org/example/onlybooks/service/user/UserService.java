@@ -6,4 +6,6 @@ import org.example.onlybooks.exception.RegistrationException;
 
 public interface UserService {
     UserResponseDto register(RegisterUserRequestDto userDto) throws RegistrationException;
+
+    void revokeTokens(Long userId);
 }
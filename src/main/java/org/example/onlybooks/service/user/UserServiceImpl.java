@@ -12,6 +12,7 @@ import org.example.onlybooks.model.Role;
 import org.example.onlybooks.model.User;
 import org.example.onlybooks.repository.role.RoleRepository;
 import org.example.onlybooks.repository.user.UserRepository;
+import org.example.onlybooks.security.TokenRevocationList;
 import org.example.onlybooks.service.shoppingcart.ShoppingCartService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final TokenRevocationList tokenRevocationList;
 
     @Transactional
     @Override
@@ -43,4 +45,9 @@ public class UserServiceImpl implements UserService {
         shoppingCartService.registerNewShoppingCart(newUser);
         return userMapper.toDto(newUser);
     }
+
+    @Override
+    public void revokeTokens(Long userId) {
+        tokenRevocationList.revoke(userId);
+    }
 }
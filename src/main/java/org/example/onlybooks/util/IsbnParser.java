@@ -0,0 +1,77 @@
+package org.example.onlybooks.util;
+
+/**
+ * Parses ISBN-10 and ISBN-13 strings in any hyphenation into the canonical 13-digit number.
+ * Runs in a single pass over the input without allocating.
+ */
+public final class IsbnParser {
+    public static final long INVALID = -1L;
+    private static final int ISBN_10_LENGTH = 10;
+    private static final int ISBN_13_LENGTH = 13;
+    private static final int ISBN_10_CHECK_VALUE = 10;
+    private static final long BOOKLAND_978 = 978_000_000_000L;
+    private static final long PREFIX_DIVISOR = 10_000_000_000L;
+    private static final long PREFIX_978 = 978L;
+    private static final long PREFIX_979 = 979L;
+
+    private IsbnParser() {
+    }
+
+    public static long parse(CharSequence isbn) {
+        if (isbn == null) {
+            return INVALID;
+        }
+        long digits = 0;
+        int count = 0;
+        int sum10 = 0;
+        int sum13 = 0;
+        boolean checkX = false;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (checkX || count == ISBN_13_LENGTH) {
+                return INVALID;
+            }
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+                digits = digits * 10 + digit;
+            } else if ((c == 'X' || c == 'x') && count == ISBN_10_LENGTH - 1) {
+                digit = ISBN_10_CHECK_VALUE;
+                checkX = true;
+            } else {
+                return INVALID;
+            }
+            sum10 += digit * (ISBN_10_LENGTH - count);
+            sum13 += (count & 1) == 0 ? digit : digit * 3;
+            count++;
+        }
+        if (count == ISBN_13_LENGTH) {
+            long prefix = digits / PREFIX_DIVISOR;
+            boolean bookland = prefix == PREFIX_978 || prefix == PREFIX_979;
+            return bookland && sum13 % 10 == 0 ? digits : INVALID;
+        }
+        if (count == ISBN_10_LENGTH && sum10 % 11 == 0) {
+            long body = checkX ? digits : digits / 10;
+            return withCheckDigit(BOOKLAND_978 + body);
+        }
+        return INVALID;
+    }
+
+    public static boolean isValid(CharSequence isbn) {
+        return parse(isbn) != INVALID;
+    }
+
+    private static long withCheckDigit(long twelveDigits) {
+        long rest = twelveDigits;
+        int sum = 0;
+        for (int position = ISBN_13_LENGTH - 2; position >= 0; position--) {
+            int digit = (int) (rest % 10);
+            sum += (position & 1) == 0 ? digit : digit * 3;
+            rest /= 10;
+        }
+        return twelveDigits * 10 + (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.onlybooks.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.example.onlybooks.util.IsbnParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IsbnParserBenchmark {
+    private static final String ISBN_10 = "^(?:\\d{1,5}-\\d{1,7}-\\d{1,7}-[\\dX])$";
+    private static final String ISBN_13 = "^(?:\\d{3}-\\d{1,5}-\\d{1,7}-\\d{1,7}-\\d)$";
+
+    @Param({"978-3-16-148410-0", "0-306-40615-2", "9783161484100", "978-3-16-148410-9"})
+    private String isbn;
+
+    @Benchmark
+    public boolean regexValidator() {
+        return Pattern.compile(ISBN_10).matcher(isbn).matches()
+                || Pattern.compile(ISBN_13).matcher(isbn).matches();
+    }
+
+    @Benchmark
+    public long isbnParser() {
+        return IsbnParser.parse(isbn);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IsbnParserBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
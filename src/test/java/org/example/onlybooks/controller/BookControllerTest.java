@@ -1,12 +1,15 @@
 package org.example.onlybooks.controller;
 
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
@@ -14,13 +17,18 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import org.example.onlybooks.dto.book.BookResponseDto;
+import org.example.onlybooks.dto.book.BookScrollResponseDto;
 import org.example.onlybooks.dto.book.CreateBookRequestDto;
+import org.example.onlybooks.index.BookIndexManager;
+import org.example.onlybooks.service.category.CategoryCatalog;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.jdbc.Sql;
@@ -45,12 +53,19 @@ public class BookControllerTest {
     private static final Long TEST_ID = 2L;
     private static final String BOOK_ENDPOINT = "/books";
     private static final String BOOK_ID_ENDPOINT = "/books/{id}";
+    private static final String BOOK_SCROLL_ENDPOINT = "/books/scroll";
 
     private static MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private BookIndexManager bookIndexManager;
+
     @BeforeAll
     static void beforeAll(@Autowired WebApplicationContext applicationContext) {
         mockMvc = MockMvcBuilders.webAppContextSetup(applicationContext)
@@ -58,6 +73,11 @@ public class BookControllerTest {
               .build();
     }
 
+    @BeforeEach
+    void setUp() {
+        categoryCatalog.reload();
+    }
+
     @Test
     @DisplayName("""
             Tests the creation of a book with valid request data by an admin user.
@@ -121,6 +141,44 @@ public class BookControllerTest {
         Assertions.assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("""
+            Tests scrolling through books sorted by price with a continuation token,
+            expecting two pages and no token after the last one.
+            """)
+    @WithMockUser(username = "user", roles = "USER")
+    void scrollBooks_SortedByPrice_ReturnsPagesInOrder() throws Exception {
+        MvcResult firstResult = mockMvc.perform(
+                get(BOOK_SCROLL_ENDPOINT)
+                        .param("size", "2")
+                        .param("sort", "price")
+        )
+                        .andExpect(status().isOk())
+                        .andReturn();
+
+        BookScrollResponseDto firstPage = objectMapper.readValue(
+                firstResult.getResponse().getContentAsString(), BookScrollResponseDto.class);
+
+        Assertions.assertEquals(List.of(initFirstBookResponseDto(), initThirdBookResponseDto()),
+                firstPage.books());
+        Assertions.assertNotNull(firstPage.nextToken());
+
+        MvcResult secondResult = mockMvc.perform(
+                get(BOOK_SCROLL_ENDPOINT)
+                        .param("size", "2")
+                        .param("token", firstPage.nextToken())
+        )
+                        .andExpect(status().isOk())
+                        .andReturn();
+
+        BookScrollResponseDto secondPage = objectMapper.readValue(
+                secondResult.getResponse().getContentAsString(), BookScrollResponseDto.class);
+
+        Assertions.assertEquals(List.of(initSecondBookResponseDto(), initFourthBookResponseDto()),
+                secondPage.books());
+        Assertions.assertNull(secondPage.nextToken());
+    }
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void getBook_withNonExistingId_NotFound() throws Exception {
@@ -150,6 +208,33 @@ public class BookControllerTest {
         Assertions.assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("""
+            Tests that a book read before an update is not served from the cache
+            after the update, expecting the updated book data.
+            """)
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void getBookById_afterUpdate_ReturnsUpdatedBook() throws Exception {
+        mockMvc.perform(get(BOOK_ID_ENDPOINT, TEST_ID))
+                .andExpect(status().isOk());
+
+        CreateBookRequestDto requestDto = updateSecondBook();
+        mockMvc.perform(
+                        put(BOOK_ID_ENDPOINT, TEST_ID)
+                                .content(objectMapper.writeValueAsString(requestDto))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get(BOOK_ID_ENDPOINT, TEST_ID))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        BookResponseDto actual = objectMapper.readValue(result.getResponse()
+                .getContentAsString(), BookResponseDto.class);
+        Assertions.assertEquals(initBookResponseDto(requestDto), actual);
+    }
+
     @Test
     @DisplayName("""
             Tests updating an existing book by its ID with 
@@ -238,6 +323,81 @@ public class BookControllerTest {
         Assertions.assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("""
+            Tests that a search page followed by more matches links to the next page,
+            and that the last page has no link.
+            """)
+    @WithMockUser(username = "user", roles = "USER")
+    void search_withMoreMatches_LinksNextPage() throws Exception {
+        MvcResult first = mockMvc.perform(get("/books/search")
+                        .param("size", "1")
+                        .param("sort", "id"))
+                .andExpect(status().isOk())
+                .andReturn();
+        MvcResult last = mockMvc.perform(get("/books/search")
+                        .param("size", "100")
+                        .param("sort", "id"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        Assertions.assertEquals("<http://localhost/books/search?size=1&sort=id&page=1>; "
+                + "rel=\"next\"", first.getResponse().getHeader(HttpHeaders.LINK));
+        Assertions.assertNull(last.getResponse().getHeader(HttpHeaders.LINK));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests streaming search results as newline delimited JSON,
+            expecting one line per found book.
+            """)
+    @WithMockUser(username = "user", roles = "USER")
+    void search_AsNdjson_StreamsBooks() throws Exception {
+        MvcResult asyncResult = mockMvc.perform(
+                get("/books/search")
+                        .param("price", "130", "152")
+                        .param("sort", "price")
+                        .accept(MediaType.APPLICATION_NDJSON)
+        )
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<BookResponseDto> actual = result.getResponse().getContentAsString()
+                .lines()
+                .map(this::readBook)
+                .toList();
+
+        Assertions.assertEquals(List.of(initThirdBookResponseDto(), initSecondBookResponseDto()),
+                actual);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests full-text search over title, author and description,
+            expecting only the matching book.
+            """)
+    @WithMockUser(username = "user", roles = "USER")
+    void search_ByQuery_ReturnsMatchingBooks() throws Exception {
+        bookIndexManager.rebuild();
+
+        MvcResult result = mockMvc.perform(
+                get("/books/search")
+                        .param("query", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+        )
+                        .andExpect(status().isOk())
+                        .andReturn();
+
+        List<BookResponseDto> actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), new TypeReference<>() {});
+
+        Assertions.assertEquals(List.of(initSecondBookResponseDto()), actual);
+    }
+
     @Test
     @DisplayName("""
             Tests the deletion of a book by its ID 
@@ -264,12 +424,20 @@ public class BookControllerTest {
         ).andExpect(status().isNotFound());
     }
 
+    private BookResponseDto readBook(String json) {
+        try {
+            return objectMapper.readValue(json, BookResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private CreateBookRequestDto initRequestBookDto() {
         return new CreateBookRequestDto()
                 .setTitle("Test title")
                 .setAuthor("Test author")
                 .setPrice(BigDecimal.valueOf(59.95))
-                .setIsbn("978-0-525-56080-2")
+                .setIsbn("978-0-525-56080-7")
                 .setDescription("valid book description")
                 .setCoverImage(null)
                 .setCategoryIds(Set.of(2L));
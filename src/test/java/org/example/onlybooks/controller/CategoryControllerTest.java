@@ -13,11 +13,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
+import org.example.onlybooks.dto.category.CategoryBooksResponseDto;
 import org.example.onlybooks.dto.category.CategoryRequestDto;
 import org.example.onlybooks.dto.category.CategoryResponseDto;
+import org.example.onlybooks.service.category.CategoryCatalog;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,6 +55,9 @@ public class CategoryControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
     @BeforeAll
     static void beforeAll(@Autowired WebApplicationContext applicationContext) {
         mockMvc = MockMvcBuilders.webAppContextSetup(applicationContext)
@@ -60,6 +65,11 @@ public class CategoryControllerTest {
                 .build();
     }
 
+    @BeforeEach
+    void setUp() {
+        categoryCatalog.reload();
+    }
+
     @Test
     @DisplayName("""
             Verifies that an admin user can successfully 
@@ -117,8 +127,8 @@ public class CategoryControllerTest {
         ).andExpect(status().isOk()).andReturn();
 
         String jsonResponse = result.getResponse().getContentAsString();
-        Set<CategoryResponseDto> expected = Set.of(initFirstCategory(), initSecondCategory());
-        Set<CategoryResponseDto> actual = objectMapper.readValue(jsonResponse,
+        List<CategoryResponseDto> expected = List.of(initFirstCategory(), initSecondCategory());
+        List<CategoryResponseDto> actual = objectMapper.readValue(jsonResponse,
                 new TypeReference<>() {});
         assertEquals(expected, actual);
     }
@@ -171,10 +181,10 @@ public class CategoryControllerTest {
 
         String jsonResponse = result.getResponse().getContentAsString();
 
-        List<BookWithoutCategoryIdsResponseDto> expected = List.of(
-                initFirstBook(), initSecondBook());
-        List<BookWithoutCategoryIdsResponseDto> actual = objectMapper.readValue(jsonResponse,
-                new TypeReference<>() {});
+        CategoryBooksResponseDto expected = new CategoryBooksResponseDto(List.of(
+                initFirstBook(), initSecondBook()), 2, null);
+        CategoryBooksResponseDto actual = objectMapper.readValue(jsonResponse,
+                CategoryBooksResponseDto.class);
 
         assertEquals(expected, actual);
     }
@@ -193,9 +203,10 @@ public class CategoryControllerTest {
 
         String jsonResponse = result.getResponse().getContentAsString();
 
-        List<BookWithoutCategoryIdsResponseDto> expected = Collections.emptyList();
-        List<BookWithoutCategoryIdsResponseDto> actual = objectMapper.readValue(jsonResponse,
-                new TypeReference<>() {});
+        CategoryBooksResponseDto expected = new CategoryBooksResponseDto(
+                Collections.emptyList(), 0, null);
+        CategoryBooksResponseDto actual = objectMapper.readValue(jsonResponse,
+                CategoryBooksResponseDto.class);
         assertEquals(expected, actual);
     }
 
@@ -10,14 +10,18 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusRequestDto;
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusResponseDto;
+import org.example.onlybooks.dto.order.OrderHistoryResponseDto;
 import org.example.onlybooks.dto.order.OrderItemsResponseDto;
 import org.example.onlybooks.dto.order.OrderResponseDto;
+import org.example.onlybooks.dto.order.OrderStatusResultDto;
+import org.example.onlybooks.dto.order.OrderSummaryDto;
 import org.example.onlybooks.dto.order.PlaceOrderRequestDto;
 import org.example.onlybooks.dto.order.UpdateOrderStatusRequestDto;
 import org.example.onlybooks.model.Order;
@@ -62,6 +66,7 @@ public class OrderControllerTest {
     private static final String ORDER_ID_ITEM_ID_ENDPOINT = "/orders/{orderId}/items/{itemId}";
     private static final String ORDER_ENDPOINT = "/orders";
     private static final String ORDER_ID_ENDPOINT = "/orders/{id}";
+    private static final String ORDER_STATUS_ENDPOINT = "/orders/status";
     private static final String ORDER_ID_ITEMS_ENDPOINT = "/orders/{orderId}/items";
 
     private static MockMvc mockMvc;
@@ -157,9 +162,10 @@ public class OrderControllerTest {
 
         String jsonResponse = result.getResponse().getContentAsString();
 
-        List<OrderResponseDto> expected = List.of(initExistingOrderInTestDb());
-        List<OrderResponseDto> actual = objectMapper.readValue(
-                jsonResponse, new TypeReference<>() {});
+        OrderHistoryResponseDto expected = new OrderHistoryResponseDto(
+                List.of(initExistingOrderSummaryInTestDb()), null);
+        OrderHistoryResponseDto actual = objectMapper.readValue(
+                jsonResponse, OrderHistoryResponseDto.class);
 
         assertThat(actual)
                 .usingRecursiveComparison()
@@ -292,6 +298,50 @@ public class OrderControllerTest {
         ).andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("""
+            Tests the bulk status update by an admin. Completed orders can't be canceled,
+            so they are reported as invalid transitions, and unknown ids as not found.
+            """)
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void updateOrderStatuses_asAdmin_ReturnsResultPerId() throws Exception {
+        BulkUpdateOrderStatusRequestDto requestDto = new BulkUpdateOrderStatusRequestDto(
+                Order.Status.CANCELED, List.of(1L, 99L), null);
+        String jsonRequest = objectMapper.writeValueAsString(requestDto);
+
+        MvcResult result = mockMvc.perform(
+                patch(ORDER_STATUS_ENDPOINT)
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isOk()).andReturn();
+
+        BulkUpdateOrderStatusResponseDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), BulkUpdateOrderStatusResponseDto.class);
+
+        assertThat(actual.updated()).isZero();
+        assertThat(actual.results()).containsExactly(
+                new OrderStatusResultDto(1L, Order.Status.COMPLETED,
+                        OrderStatusResultDto.Result.INVALID_TRANSITION),
+                new OrderStatusResultDto(99L, null, OrderStatusResultDto.Result.NOT_FOUND));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a bulk status update without ids or a filter is rejected
+            with a 400 (Bad Request).
+            """)
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void updateOrderStatuses_withoutSelection_BadRequest() throws Exception {
+        BulkUpdateOrderStatusRequestDto requestDto = new BulkUpdateOrderStatusRequestDto(
+                Order.Status.COMPLETED, null, null);
+        String jsonRequest = objectMapper.writeValueAsString(requestDto);
+
+        mockMvc.perform(
+                patch(ORDER_STATUS_ENDPOINT)
+                        .content(jsonRequest).contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isBadRequest());
+    }
+
     private PlaceOrderRequestDto initAddressRequest() {
         return new PlaceOrderRequestDto("test address, 12");
     }
@@ -325,6 +375,16 @@ public class OrderControllerTest {
         );
     }
 
+    private OrderSummaryDto initExistingOrderSummaryInTestDb() {
+        return new OrderSummaryDto(
+                2L,
+                LocalDateTime.now(),
+                BigDecimal.valueOf(756.10),
+                Order.Status.COMPLETED,
+                1
+        );
+    }
+
     private OrderResponseDto updatedExistingOrderInTestDb() {
         return new OrderResponseDto(
                 2L,
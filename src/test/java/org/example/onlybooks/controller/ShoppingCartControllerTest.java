@@ -123,20 +123,19 @@ public class ShoppingCartControllerTest {
         ).andExpect(status().isOk())
                 .andReturn();
 
-        CartItemResponseDto expectedCartItem = initCartItemResponseDto().setQuantity(8);
-        ShoppingCartResponseDto expected = initShoppingCartResponseDto(Set.of(expectedCartItem));
+        CartItemResponseDto expected = initCartItemResponseDto().setQuantity(8);
 
         String jsonResponse = result.getResponse().getContentAsString();
 
-        ShoppingCartResponseDto actual = objectMapper.readValue(
-                jsonResponse, ShoppingCartResponseDto.class);
+        CartItemResponseDto actual = objectMapper.readValue(
+                jsonResponse, CartItemResponseDto.class);
 
         assertEquals(expected, actual);
     }
 
     @Test
     @DisplayName("""
-            Should successfully add a new cart item to the shopping cart.
+            Should successfully add a new cart item and return the full cart with view=cart.
             """)
     @WithUserDetails(USER_DETAILS)
     void addNonExistingCartItem_asUser_Success() throws Exception {
@@ -145,6 +144,7 @@ public class ShoppingCartControllerTest {
         String jsonRequest = objectMapper.writeValueAsString(requestDto);
         MvcResult result = mockMvc.perform(
                 post(SHOPPING_CART_ENDPOINT)
+                        .param("view", "cart")
                         .content(jsonRequest)
                         .contentType(MediaType.APPLICATION_JSON)
         ).andExpect(status().isOk())
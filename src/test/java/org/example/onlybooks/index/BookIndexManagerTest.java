@@ -0,0 +1,88 @@
+package org.example.onlybooks.index;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.BookCursor;
+import org.example.onlybooks.repository.book.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+@ExtendWith(MockitoExtension.class)
+public class BookIndexManagerTest {
+    private static final BookCursor FIRST = BookCursor.first(Sort.unsorted());
+
+    @Mock
+    private BookIndex bookIndex;
+
+    @Mock
+    private BookIndex.Build build;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private BookIndexManager bookIndexManager;
+
+    @BeforeEach
+    void setUp() {
+        bookIndexManager = new BookIndexManager(List.of(bookIndex), bookRepository);
+        when(bookIndex.rebuild()).thenReturn(build);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a rebuild feeds the stored books to a fresh build instead of the live
+            index and publishes it before replaying the writes made while it ran.
+            """)
+    void rebuild_withConcurrentWrites_PublishesThenReplaysWrites() {
+        Book stored = new Book(1L);
+        Book updated = new Book(2L);
+        when(bookRepository.findNextPageKeys(eq(FIRST), anyInt()))
+                .thenReturn(List.of(new BookCursor("id", Sort.Direction.ASC, 1L, 1L)));
+        when(bookRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(stored));
+        doAnswer(invocation -> {
+            bookIndexManager.index(updated);
+            bookIndexManager.remove(3L);
+            return null;
+        }).when(build).add(stored);
+
+        bookIndexManager.rebuild();
+
+        InOrder inOrder = inOrder(bookIndex, build);
+        inOrder.verify(bookIndex).index(updated);
+        inOrder.verify(bookIndex).remove(3L);
+        inOrder.verify(build).publish();
+        inOrder.verify(bookIndex).index(updated);
+        inOrder.verify(bookIndex).remove(3L);
+        inOrder.verify(bookIndex, never()).index(stored);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that writes after a rebuild has finished are applied only once.
+            """)
+    void index_afterRebuild_AppliesWriteOnce() {
+        when(bookRepository.findNextPageKeys(eq(FIRST), anyInt())).thenReturn(List.of());
+        bookIndexManager.rebuild();
+        Book book = new Book(1L);
+
+        bookIndexManager.index(book);
+
+        InOrder inOrder = inOrder(bookIndex, build);
+        inOrder.verify(build).publish();
+        inOrder.verify(bookIndex).index(book);
+        inOrder.verifyNoMoreInteractions();
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.onlybooks.index.facet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.model.Category;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BookFacetIndexTest {
+    private final BookFacetIndex bookFacetIndex = new BookFacetIndex(new BigDecimal[] {
+            BigDecimal.valueOf(50), BigDecimal.valueOf(10)});
+
+    @Test
+    @DisplayName("""
+            Tests that only the given books are counted per category and price bucket.
+            """)
+    void count_CountsMatchingBooksOnly() {
+        bookFacetIndex.index(initBook(1L, "5.00", 1L, 2L));
+        bookFacetIndex.index(initBook(2L, "10.00", 2L));
+        bookFacetIndex.index(initBook(3L, "75.50", 1L));
+        bookFacetIndex.index(initBook(4L, "20.00", 3L));
+
+        BookFacetIndex.Counts counts = bookFacetIndex.count(List.of(1L, 2L, 3L, 99L));
+
+        assertThat(counts.categories()).containsExactly(
+                new FacetCount(1L, 2), new FacetCount(2L, 2));
+        assertThat(counts.priceBuckets()).containsExactly(1, 1, 1);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that reindexing moves a book between facets and that a removed book's
+            ordinal is reused by the next book.
+            """)
+    void indexAndRemove_UpdateFacets() {
+        bookFacetIndex.index(initBook(1L, "5.00", 1L));
+        bookFacetIndex.index(initBook(2L, "15.00", 1L));
+        bookFacetIndex.index(initBook(1L, "60.00", 2L));
+        bookFacetIndex.remove(2L);
+        bookFacetIndex.index(initBook(3L, "15.00", 2L));
+
+        BookFacetIndex.Counts counts = bookFacetIndex.count(List.of(1L, 2L, 3L));
+
+        assertThat(counts.categories()).containsExactly(new FacetCount(2L, 2));
+        assertThat(counts.priceBuckets()).containsExactly(0, 1, 1);
+    }
+
+    private Book initBook(Long id, String price, Long... categoryIds) {
+        Book book = new Book(id);
+        book.setPrice(new BigDecimal(price));
+        book.setCategories(Arrays.stream(categoryIds)
+                .map(Category::new)
+                .collect(Collectors.toSet()));
+        return book;
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.onlybooks.index.fulltext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import org.example.onlybooks.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FullTextBookIndexTest {
+    private static final Set<TextField> ALL_FIELDS = EnumSet.allOf(TextField.class);
+
+    private final FullTextBookIndex fullTextBookIndex = new FullTextBookIndex(1000);
+
+    @Test
+    @DisplayName("""
+            Tests that queries are split into words and matched ignoring case, accents and
+            punctuation, any query word being enough to match.
+            """)
+    void search_FoldsCaseAndAccents() {
+        fullTextBookIndex.index(initBook(1L, "Les Misérables", "Victor Hugo", null));
+        fullTextBookIndex.index(initBook(2L, "Brave New World", "Aldous Huxley", null));
+
+        assertThat(fullTextBookIndex.search(new String[] {"MISERABLES"}, ALL_FIELDS))
+                .containsExactly(1L);
+        assertThat(fullTextBookIndex.search(new String[] {"huxley, hugo!"}, ALL_FIELDS))
+                .containsExactlyInAnyOrder(1L, 2L);
+        assertThat(fullTextBookIndex.search(new String[] {"miser"}, ALL_FIELDS)).isEmpty();
+        assertThat(fullTextBookIndex.search(new String[] {" ", "?!"}, ALL_FIELDS)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that title matches outrank author and description matches, that repeated
+            and rarer terms score higher and that only the given fields are searched.
+            """)
+    void search_RanksByFieldWeightAndFrequency() {
+        fullTextBookIndex.index(initBook(1L, "Dragons", "Anne Smith", "A book about knights"));
+        fullTextBookIndex.index(initBook(2L, "Knights", "John Dragon", "Dragons and dragons"));
+        fullTextBookIndex.index(initBook(3L, "Castles", "Mary Stone",
+                "Dragons, dragons and more dragons"));
+        fullTextBookIndex.index(initBook(4L, "Castles", "Mary Stone", "Dragons and knights"));
+
+        assertThat(fullTextBookIndex.search(new String[] {"dragons"}, ALL_FIELDS))
+                .containsExactly(1L, 3L, 2L, 4L);
+        assertThat(fullTextBookIndex.search(new String[] {"dragons"},
+                EnumSet.of(TextField.DESCRIPTION)))
+                .containsExactly(3L, 2L, 4L);
+        assertThat(fullTextBookIndex.search(new String[] {"castles knights"},
+                EnumSet.of(TextField.TITLE)))
+                .containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that reindexed and removed books are no longer found by their old words,
+            also after enough of them were replaced to compact the index.
+            """)
+    void search_IgnoresReplacedAndRemovedBooks() {
+        fullTextBookIndex.index(initBook(1L, "Dune", "Frank Herbert", null));
+        fullTextBookIndex.index(initBook(2L, "Dune Messiah", "Frank Herbert", null));
+        fullTextBookIndex.index(initBook(1L, "Children of Dune", "Frank Herbert", null));
+        fullTextBookIndex.remove(2L);
+
+        assertThat(fullTextBookIndex.search(new String[] {"dune"}, ALL_FIELDS))
+                .containsExactly(1L);
+        assertThat(fullTextBookIndex.search(new String[] {"messiah"}, ALL_FIELDS)).isEmpty();
+
+        LongStream.rangeClosed(10, 2500)
+                .forEach(id -> fullTextBookIndex.index(initBook(id, "Draft", null, null)));
+        LongStream.rangeClosed(10, 2000)
+                .forEach(id -> fullTextBookIndex.index(initBook(id, "Final", null, null)));
+        fullTextBookIndex.remove(2500L);
+
+        assertThat(fullTextBookIndex.search(new String[] {"draft"}, ALL_FIELDS))
+                .hasSize(499)
+                .doesNotContain(2500L);
+        assertThat(fullTextBookIndex.search(new String[] {"final"}, ALL_FIELDS)).hasSize(1000);
+        assertThat(fullTextBookIndex.search(new String[] {"children"}, ALL_FIELDS))
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that no more than the maximum number of hits is returned, best first.
+            """)
+    void search_CapsHits() {
+        FullTextBookIndex cappedIndex = new FullTextBookIndex(2);
+        cappedIndex.index(initBook(1L, "Sea", null, "Sea"));
+        cappedIndex.index(initBook(2L, "Sea", null, "Sea sea sea"));
+        cappedIndex.index(initBook(3L, "River", null, "Sea"));
+
+        List<Long> hits = cappedIndex.search(new String[] {"sea"}, ALL_FIELDS);
+
+        assertThat(hits).containsExactly(2L, 1L);
+    }
+
+    private Book initBook(Long id, String title, String author, String description) {
+        Book book = new Book(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setDescription(description);
+        return book;
+    }
+}
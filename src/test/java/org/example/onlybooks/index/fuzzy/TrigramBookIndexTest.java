@@ -0,0 +1,70 @@
+package org.example.onlybooks.index.fuzzy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.example.onlybooks.index.fulltext.TextField;
+import org.example.onlybooks.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TrigramBookIndexTest {
+    private final TrigramBookIndex trigramBookIndex = new TrigramBookIndex(1000);
+
+    @Test
+    @DisplayName("""
+            Tests that misspelt words find their books, closest matches first, and that every
+            word of a query has to match.
+            """)
+    void search_FindsMisspeltWords() {
+        trigramBookIndex.index(initBook(1L, "The Hobbit", "J. R. R. Tolkien"));
+        trigramBookIndex.index(initBook(2L, "The Silmarillion", "J. R. R. Tolkien"));
+        trigramBookIndex.index(initBook(3L, "The Hobbit Companion", "David Day"));
+
+        assertThat(trigramBookIndex.search(new String[] {"Tolkein"}, TextField.AUTHOR))
+                .containsExactly(1L, 2L);
+        assertThat(trigramBookIndex.search(new String[] {"hobit compannion"}, TextField.TITLE))
+                .containsExactly(3L);
+        assertThat(trigramBookIndex.search(new String[] {"Silmarilion", "hobbit"},
+                TextField.TITLE))
+                .containsExactly(1L, 3L, 2L);
+        assertThat(trigramBookIndex.search(new String[] {"tolkien"}, TextField.TITLE)).isEmpty();
+        assertThat(trigramBookIndex.search(new String[] {"dya"}, TextField.AUTHOR)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that reindexed and removed books are no longer found by their old words.
+            """)
+    void search_IgnoresReplacedAndRemovedBooks() {
+        trigramBookIndex.index(initBook(1L, "Dune", "Frank Herbert"));
+        trigramBookIndex.index(initBook(2L, "Dune Messiah", "Frank Herbert"));
+        trigramBookIndex.index(initBook(1L, "Children of Dune", "Frank Herbert"));
+        trigramBookIndex.remove(2L);
+
+        assertThat(trigramBookIndex.search(new String[] {"Herbret"}, TextField.AUTHOR))
+                .containsExactly(1L);
+        assertThat(trigramBookIndex.search(new String[] {"messaih"}, TextField.TITLE)).isEmpty();
+        assertThat(trigramBookIndex.search(new String[] {"childern"}, TextField.TITLE))
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests the bounded edit distance, where swapping adjacent letters is one edit and
+            the result stops at one more than the allowed edits.
+            """)
+    void distance_IsBounded() {
+        assertThat(TrigramBookIndex.distance("tolkein", "tolkien", 1)).isEqualTo(1);
+        assertThat(TrigramBookIndex.distance("tolkein", "tolkien", 0)).isEqualTo(1);
+        assertThat(TrigramBookIndex.distance("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(TrigramBookIndex.distance("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(TrigramBookIndex.distance("herbert", "herbert", 1)).isZero();
+    }
+
+    private Book initBook(Long id, String title, String author) {
+        Book book = new Book(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
+}
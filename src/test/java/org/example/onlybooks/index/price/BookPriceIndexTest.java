@@ -0,0 +1,108 @@
+package org.example.onlybooks.index.price;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.example.onlybooks.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BookPriceIndexTest {
+    private final BookPriceIndex bookPriceIndex = new BookPriceIndex();
+
+    @Test
+    @DisplayName("""
+            Tests that ranges with open and closed bounds are paged by price in both
+            directions, ties always by ascending id.
+            """)
+    void findIds_PagesRangeByPrice() {
+        bookPriceIndex.index(initBook(1L, "20.00"));
+        bookPriceIndex.index(initBook(2L, "5.00"));
+        bookPriceIndex.index(initBook(3L, "20.00"));
+        bookPriceIndex.index(initBook(4L, "45.99"));
+        bookPriceIndex.index(initBook(5L, "10.00"));
+
+        assertThat(bookPriceIndex.findIds(PriceRange.parse(new String[] {"10", ""})))
+                .containsExactly(5L, 1L, 3L, 4L);
+        assertThat(bookPriceIndex.findIds(PriceRange.parse(new String[] {"20"})))
+                .containsExactly(2L, 5L, 1L, 3L);
+        assertThat(bookPriceIndex.count(PriceRange.parse(new String[] {"5.01", "45.98"})))
+                .isEqualTo(3);
+        assertThat(bookPriceIndex.findIds(new PriceRange(null, null), 1, 3, false))
+                .containsExactly(5L, 1L, 3L);
+        assertThat(bookPriceIndex.findIds(new PriceRange(null, null), 1, 3, true))
+                .containsExactly(1L, 3L, 5L);
+        assertThat(bookPriceIndex.findIds(new PriceRange(null, null), 4, 3, true))
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a page past the last match is empty in both directions, also when
+            the range starts after the first book.
+            """)
+    void findIds_pastLastPage_ReturnsEmptyPage() {
+        bookPriceIndex.index(initBook(1L, "5.00"));
+        bookPriceIndex.index(initBook(2L, "15.00"));
+        bookPriceIndex.index(initBook(3L, "25.00"));
+        PriceRange range = PriceRange.parse(new String[] {"10", ""});
+
+        assertThat(bookPriceIndex.findIds(range, 2, 20, false)).isEmpty();
+        assertThat(bookPriceIndex.findIds(range, 40, 20, false)).isEmpty();
+        assertThat(bookPriceIndex.findIds(range, 40, 20, true)).isEmpty();
+        assertThat(bookPriceIndex.findIds(range, 1, 20, false)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that reindexing a book moves it to its new price and that bucket counts
+            only include books in the range.
+            """)
+    void countBuckets_CountsReindexedBooks() {
+        bookPriceIndex.index(initBook(1L, "5.00"));
+        bookPriceIndex.index(initBook(2L, "15.00"));
+        bookPriceIndex.index(initBook(3L, "60.00"));
+        bookPriceIndex.index(initBook(1L, "50.00"));
+        bookPriceIndex.remove(2L);
+        bookPriceIndex.index(initBook(4L, "10.00"));
+
+        int[] counts = bookPriceIndex.countBuckets(new PriceRange(BigDecimal.TEN, null),
+                List.of(BigDecimal.TEN, BigDecimal.valueOf(50)));
+
+        assertThat(counts).containsExactly(0, 1, 2);
+        assertThat(bookPriceIndex.findIds(new PriceRange(null, null)))
+                .containsExactly(4L, 1L, 3L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a rebuild sorts the added books by price and id and that the old prices
+            are served until it is published.
+            """)
+    void rebuild_ReplacesPricesWhenPublished() {
+        bookPriceIndex.index(initBook(1L, "5.00"));
+        BookPriceIndex.Build build = bookPriceIndex.rebuild();
+        build.add(initBook(7L, "20.00"));
+        build.add(initBook(3L, "9.99"));
+        build.add(initBook(5L, "20.00"));
+        build.add(initBook(2L, "20.00"));
+        build.add(initBook(4L, "1.00"));
+
+        assertThat(bookPriceIndex.findIds(new PriceRange(null, null))).containsExactly(1L);
+
+        build.publish();
+
+        assertThat(bookPriceIndex.findIds(new PriceRange(null, null)))
+                .containsExactly(4L, 3L, 2L, 5L, 7L);
+        bookPriceIndex.index(initBook(3L, "25.00"));
+        assertThat(bookPriceIndex.findIds(new PriceRange(BigDecimal.TEN, null)))
+                .containsExactly(2L, 5L, 7L, 3L);
+    }
+
+    private Book initBook(Long id, String price) {
+        Book book = new Book(id);
+        book.setPrice(new BigDecimal(price));
+        return book;
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.onlybooks.index.suggest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.example.onlybooks.index.BookIndex;
+import org.example.onlybooks.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BookSuggestIndexTest {
+    private final BookSuggestIndex bookSuggestIndex = new BookSuggestIndex();
+
+    @Test
+    @DisplayName("""
+            Tests that a prefix matches any word of a title or author, ignoring case and
+            accents, and that books are ranked by sales and then newest first.
+            """)
+    void suggest_RanksMatchingBooks() {
+        bookSuggestIndex.index(initBook(1L, "Harry Potter", "J. K. Rowling"));
+        bookSuggestIndex.index(initBook(2L, "The Hobbit", "J. R. R. Tolkien"));
+        bookSuggestIndex.index(initBook(3L, "Pot Roast", "Émile Harper"));
+        bookSuggestIndex.index(initBook(4L, "Harbour Lights", "Ann Potts"));
+        bookSuggestIndex.refresh(bookId -> 0);
+        Map<Long, Long> unitsSold = Map.of(4L, 7L);
+
+        assertThat(bookSuggestIndex.suggest("POT", 10,
+                bookId -> unitsSold.getOrDefault(bookId, 0L)))
+                .extracting(BookSuggestIndex.Suggestion::bookId)
+                .containsExactly(4L, 3L, 1L);
+        assertThat(bookSuggestIndex.suggest("emile har", 10, bookId -> 0))
+                .containsExactly(new BookSuggestIndex.Suggestion(3L, "Pot Roast", "Émile Harper"));
+        assertThat(bookSuggestIndex.suggest("har", 2, bookId -> 0))
+                .extracting(BookSuggestIndex.Suggestion::bookId)
+                .containsExactly(4L, 3L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that reindexed and removed books no longer match their old titles.
+            """)
+    void suggest_IgnoresReplacedAndRemovedBooks() {
+        bookSuggestIndex.index(initBook(1L, "Dune", "Frank Herbert"));
+        bookSuggestIndex.index(initBook(2L, "Dune Messiah", "Frank Herbert"));
+        bookSuggestIndex.refresh(bookId -> 0);
+        assertThat(bookSuggestIndex.suggest("dune", 10, bookId -> 0)).hasSize(2);
+
+        bookSuggestIndex.index(initBook(1L, "Children of Dune", "Frank Herbert"));
+        bookSuggestIndex.remove(2L);
+        bookSuggestIndex.refresh(bookId -> 0);
+
+        assertThat(bookSuggestIndex.suggest("dune", 10, bookId -> 0))
+                .containsExactly(new BookSuggestIndex.Suggestion(1L, "Children of Dune",
+                        "Frank Herbert"));
+        assertThat(bookSuggestIndex.suggest("messiah", 10, bookId -> 0)).isEmpty();
+        assertThat(bookSuggestIndex.suggest(" ", 10, bookId -> 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that one- and two-letter prefixes are ranked by the popularity seen at the
+            last refresh and that new books only show up after a refresh.
+            """)
+    void suggest_withShortPrefix_UsesRankingFromRefresh() {
+        bookSuggestIndex.index(initBook(1L, "Dune", "Frank Herbert"));
+        bookSuggestIndex.index(initBook(2L, "Dracula", "Bram Stoker"));
+        bookSuggestIndex.refresh(bookId -> bookId == 1L ? 5 : 0);
+        bookSuggestIndex.index(initBook(3L, "Dubliners", "James Joyce"));
+
+        assertThat(bookSuggestIndex.suggest("d", 10, bookId -> bookId == 2L ? 9 : 0))
+                .extracting(BookSuggestIndex.Suggestion::bookId)
+                .containsExactly(1L, 2L);
+        assertThat(bookSuggestIndex.suggest("dub", 10, bookId -> 0)).isEmpty();
+
+        bookSuggestIndex.refresh(bookId -> bookId == 3L ? 9 : 0);
+
+        assertThat(bookSuggestIndex.suggest("du", 10, bookId -> 0))
+                .extracting(BookSuggestIndex.Suggestion::bookId)
+                .containsExactly(3L, 1L);
+        assertThat(bookSuggestIndex.suggest("d", 1, bookId -> 0))
+                .extracting(BookSuggestIndex.Suggestion::bookId)
+                .containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a published rebuild replaces the suggestions at once.
+            """)
+    void rebuild_ReplacesSuggestionsWhenPublished() {
+        bookSuggestIndex.index(initBook(1L, "Dune", "Frank Herbert"));
+        bookSuggestIndex.refresh(bookId -> 0);
+        BookSuggestIndex.Build build = bookSuggestIndex.rebuild();
+        build.add(initBook(2L, "Dracula", "Bram Stoker"));
+
+        assertThat(bookSuggestIndex.suggest("dun", 10, bookId -> 0)).hasSize(1);
+
+        build.publish();
+
+        assertThat(bookSuggestIndex.suggest("dun", 10, bookId -> 0)).isEmpty();
+        assertThat(bookSuggestIndex.suggest("d", 10, bookId -> 0))
+                .extracting(BookSuggestIndex.Suggestion::bookId)
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a refresh prepared before a rebuild was published is dropped instead
+            of bringing back the keys the rebuild replaced, and that writes made after the
+            publish stay pending for the next refresh.
+            """)
+    void refresh_withRebuildPublishedMeanwhile_DropsStaleMerge() {
+        bookSuggestIndex.index(initBook(1L, "Dune", "Frank Herbert"));
+        final BookSuggestIndex.Refresh stale = bookSuggestIndex.prepareRefresh(bookId -> 0);
+        BookIndex.Build build = bookSuggestIndex.rebuild();
+        build.add(initBook(2L, "Emma", "Jane Austen"));
+        build.publish();
+        bookSuggestIndex.index(initBook(3L, "Persuasion", "Jane Austen"));
+
+        bookSuggestIndex.swap(stale);
+        bookSuggestIndex.refresh(bookId -> 0);
+
+        assertThat(bookSuggestIndex.suggest("austen", 10, bookId -> 0))
+                .extracting(BookSuggestIndex.Suggestion::bookId)
+                .containsExactly(3L, 2L);
+        assertThat(bookSuggestIndex.suggest("dune", 10, bookId -> 0)).isEmpty();
+    }
+
+    private Book initBook(Long id, String title, String author) {
+        Book book = new Book(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
+}
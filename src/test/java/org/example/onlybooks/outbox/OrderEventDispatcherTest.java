@@ -0,0 +1,176 @@
+package org.example.onlybooks.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.example.onlybooks.model.Order;
+import org.example.onlybooks.model.OrderEvent;
+import org.example.onlybooks.repository.order.OrderEventRepository;
+import org.example.onlybooks.repository.sales.SalesRepository;
+import org.example.onlybooks.service.sales.SalesAggregator;
+import org.example.onlybooks.service.sales.SalesEventHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderEventDispatcherTest {
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    @Mock
+    private OrderEventHandler orderEventHandler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SalesRepository salesRepository;
+
+    private OrderEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = initDispatcher(orderEventHandler);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that claimed events are leased and that each one is deleted and handled
+            in its own transaction.
+            """)
+    void dispatchNextBatch_withHandledEvents_DeletesEvents() {
+        OrderEvent first = initEvent(1L);
+        OrderEvent second = initEvent(2L);
+        when(orderEventRepository.lockNextBatch(any(LocalDateTime.class),
+                eq(MAX_ATTEMPTS), eq(BATCH_SIZE))).thenReturn(List.of(first, second));
+        when(orderEventRepository.deleteOne(anyLong())).thenReturn(1);
+
+        LocalDateTime before = LocalDateTime.now();
+        int dispatched = dispatcher.dispatchNextBatch();
+
+        assertThat(dispatched).isEqualTo(2);
+        assertThat(first.getAvailableAt()).isAfterOrEqualTo(before.plusMinutes(1));
+        verify(orderEventHandler).handle(first);
+        verify(orderEventHandler).handle(second);
+        verify(orderEventRepository).deleteOne(1L);
+        verify(orderEventRepository).deleteOne(2L);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a failed event is rolled back alone and postponed
+            with the error recorded in a separate transaction.
+            """)
+    void dispatchNextBatch_withFailingHandler_PostponesEvent() {
+        OrderEvent failed = initEvent(1L);
+        failed.setAttempts(1);
+        OrderEvent handled = initEvent(2L);
+        when(orderEventRepository.lockNextBatch(any(LocalDateTime.class),
+                eq(MAX_ATTEMPTS), eq(BATCH_SIZE))).thenReturn(List.of(failed, handled));
+        when(orderEventRepository.deleteOne(anyLong())).thenReturn(1);
+        doThrow(new IllegalStateException("x".repeat(300)))
+                .when(orderEventHandler).handle(failed);
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchNextBatch();
+
+        verify(orderEventRepository).recordFailure(eq(1L), eq(2),
+                argThat(availableAt -> !availableAt.isBefore(before.plusSeconds(60))),
+                argThat(error -> error.startsWith("java.lang.IllegalStateException")
+                        && error.length() == 255));
+        verify(orderEventHandler).handle(handled);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a handler whose repository call fails only postpones its own event,
+            while the rest of the batch is delivered.
+            """)
+    void dispatchNextBatch_withFailingHandlerQuery_PostponesOnlyThatEvent() {
+        dispatcher = initDispatcher(new SalesEventHandler(salesRepository,
+                new SalesAggregator()));
+        OrderEvent failed = initEvent(1L);
+        OrderEvent handled = initEvent(2L);
+        when(orderEventRepository.lockNextBatch(any(LocalDateTime.class),
+                eq(MAX_ATTEMPTS), eq(BATCH_SIZE))).thenReturn(List.of(failed, handled));
+        when(orderEventRepository.deleteOne(anyLong())).thenReturn(1);
+        when(salesRepository.findSaleByOrderId(1L))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        dispatcher.dispatchNextBatch();
+
+        verify(orderEventRepository).recordFailure(eq(1L), eq(1), any(LocalDateTime.class),
+                argThat(error -> error.contains("connection lost")));
+        verify(orderEventRepository, never()).recordFailure(eq(2L), any(Integer.class),
+                any(), any());
+        verify(salesRepository).findSaleByOrderId(2L);
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that an event already deleted by a worker whose lease overlapped
+            is not handled again.
+            """)
+    void dispatchNextBatch_withEventDeletedElsewhere_SkipsHandlers() {
+        OrderEvent event = initEvent(1L);
+        when(orderEventRepository.lockNextBatch(any(LocalDateTime.class),
+                eq(MAX_ATTEMPTS), eq(BATCH_SIZE))).thenReturn(List.of(event));
+        when(orderEventRepository.deleteOne(1L)).thenReturn(0);
+
+        dispatcher.dispatchNextBatch();
+
+        verify(orderEventHandler, never()).handle(any());
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that an empty batch does not touch the outbox table.
+            """)
+    void dispatchNextBatch_withoutEvents_ReturnsZero() {
+        when(orderEventRepository.lockNextBatch(any(LocalDateTime.class),
+                eq(MAX_ATTEMPTS), eq(BATCH_SIZE))).thenReturn(List.of());
+
+        assertThat(dispatcher.dispatchNextBatch()).isZero();
+        verify(orderEventRepository, never()).deleteOne(any());
+    }
+
+    private OrderEventDispatcher initDispatcher(OrderEventHandler handler) {
+        return new OrderEventDispatcher(orderEventRepository, List.of(handler),
+                transactionManager, BATCH_SIZE, MAX_ATTEMPTS, Duration.ofSeconds(30),
+                Duration.ofMinutes(1));
+    }
+
+    private OrderEvent initEvent(Long id) {
+        OrderEvent event = new OrderEvent();
+        event.setId(id);
+        event.setOrderId(id);
+        event.setType(OrderEvent.Type.ORDER_PLACED);
+        event.setStatus(Order.Status.PENDING);
+        event.setCreatedAt(LocalDateTime.now());
+        event.setAvailableAt(LocalDateTime.now());
+        return event;
+    }
+}
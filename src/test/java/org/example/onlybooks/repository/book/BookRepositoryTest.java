@@ -5,20 +5,32 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Set;
+import org.example.onlybooks.dto.book.BookResponseDto;
+import org.example.onlybooks.dto.book.BookSearchParameters;
+import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
 import org.example.onlybooks.model.Book;
-import org.example.onlybooks.model.Category;
+import org.example.onlybooks.repository.book.spec.PriceSpecificationProvider;
+import org.example.onlybooks.repository.book.spec.TitleSpecificationProvider;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.jdbc.Sql;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 public class BookRepositoryTest {
 
+    private final BookSpecificationBuilder bookSpecificationBuilder =
+            new BookSpecificationBuilder(new BookSpecificationProviderManager(List.of(
+                    new TitleSpecificationProvider(),
+                    new PriceSpecificationProvider())));
+
     @Autowired
     private BookRepository bookRepository;
 
@@ -40,57 +52,176 @@ public class BookRepositoryTest {
     void findBooksByValidCategoryId_Success() {
         Long categoryId = 1L;
 
-        List<Book> expectedBooks = initExpectedBookList();
+        List<Long> firstPage = bookRepository.findIdsByCategoryId(categoryId, 0, 1);
+        List<Long> secondPage = bookRepository.findIdsByCategoryId(categoryId,
+                firstPage.get(0), 10);
+
+        assertThat(firstPage).containsExactly(1L);
+        assertThat(secondPage).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a slice maps every selected column to the right field, collects all
+            categories of a book, keeps the requested order and tells whether more follow.
+            """)
+    @Sql(scripts = {
+            "classpath:database/test/books/insert-books.sql",
+            "classpath:database/test/categories/insert-categories.sql",
+            "classpath:database/test/books/insert-books-categories.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/test/books/delete-books-categories.sql",
+            "classpath:database/test/categories/delete-categories.sql",
+            "classpath:database/test/books/delete-books.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findSlice_MapsColumnsAndCategories() {
+        Specification<Book> priceOver100 = (root, query, criteriaBuilder) ->
+                criteriaBuilder.greaterThan(root.get("price"), new BigDecimal("100"));
 
-        List<Book> actualBooks =
-                bookRepository.findAllByCategoriesId(categoryId, Pageable.unpaged());
+        Slice<BookResponseDto> first = bookRepository.findSlice(priceOver100,
+                PageRequest.of(0, 2, Sort.by("price")));
+        Slice<BookResponseDto> last = bookRepository.findSlice(priceOver100,
+                PageRequest.of(1, 2, Sort.by("price")));
 
-        assertThat(actualBooks).usingRecursiveComparison().isEqualTo(expectedBooks);
+        assertThat(first.getContent()).containsExactly(
+                initResponse(3, "149.99", "978-1-23-456789-0", Set.of(1L)),
+                initResponse(2, "151.22", "978-0-12-345678-9", Set.of(2L)));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).containsExactly(
+                initResponse(4, "250.99", "978-9-87-654321-0", Set.of(2L)));
+        assertThat(last.hasNext()).isFalse();
     }
 
-    private List<Book> initExpectedBookList() {
-        return List.of(initFirstBook(), initSecondBook());
+    @Test
+    @DisplayName("""
+            Tests that a page of responses is sorted as requested, aggregates the categories
+            of each book and leaves out soft-deleted books.
+            """)
+    @Sql(scripts = {
+            "classpath:database/test/books/insert-books.sql",
+            "classpath:database/test/categories/insert-categories.sql",
+            "classpath:database/test/books/insert-books-categories.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/test/books/delete-books-categories.sql",
+            "classpath:database/test/categories/delete-categories.sql",
+            "classpath:database/test/books/delete-books.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findAllResponses_SkipsSoftDeletedBooks() {
+        bookRepository.deleteById(4L);
+
+        List<BookResponseDto> responses = bookRepository.findAllResponses(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertThat(responses).containsExactly(
+                initResponse(2, "151.22", "978-0-12-345678-9", Set.of(2L)),
+                initResponse(3, "149.99", "978-1-23-456789-0", Set.of(1L)),
+                initResponse(1, "99.99", "978-3-16-148410-0", Set.of(1L, 2L)));
     }
 
-    private Category initFirstCategory() {
-        Category category = new Category();
-        category.setId(1L);
-        category.setName("test name 1");
-        category.setDescription("test description 1");
-        return category;
+    @Test
+    @DisplayName("""
+            Tests that responses by ids come back in the order of the ids, skipping unknown
+            and soft-deleted books.
+            """)
+    @Sql(scripts = {
+            "classpath:database/test/books/insert-books.sql",
+            "classpath:database/test/categories/insert-categories.sql",
+            "classpath:database/test/books/insert-books-categories.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/test/books/delete-books-categories.sql",
+            "classpath:database/test/categories/delete-categories.sql",
+            "classpath:database/test/books/delete-books.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findResponsesByIdsInOrder_KeepsIdOrder() {
+        bookRepository.deleteById(4L);
+
+        List<BookResponseDto> responses =
+                bookRepository.findResponsesByIdsInOrder(List.of(3L, 1L, 99L, 4L));
+
+        assertThat(responses).containsExactly(
+                initResponse(3, "149.99", "978-1-23-456789-0", Set.of(1L)),
+                initResponse(1, "99.99", "978-3-16-148410-0", Set.of(1L, 2L)));
+        assertThat(bookRepository.findResponsesByIdsInOrder(List.of())).isEmpty();
     }
 
-    private Category initSecondCategory() {
-        Category category = new Category();
-        category.setId(2L);
-        category.setName("test name 2");
-        category.setDescription("test description 2");
-        return category;
+    @Test
+    @DisplayName("""
+            Tests that responses without category ids map every column and come back in the
+            order of the ids, skipping soft-deleted books.
+            """)
+    @Sql(scripts = {
+            "classpath:database/test/books/insert-books.sql",
+            "classpath:database/test/categories/insert-categories.sql",
+            "classpath:database/test/books/insert-books-categories.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/test/books/delete-books-categories.sql",
+            "classpath:database/test/categories/delete-categories.sql",
+            "classpath:database/test/books/delete-books.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findWithoutCategoryIdsByIdsInOrder_KeepsIdOrder() {
+        bookRepository.deleteById(4L);
+
+        List<BookWithoutCategoryIdsResponseDto> responses =
+                bookRepository.findWithoutCategoryIdsByIdsInOrder(List.of(2L, 4L, 1L));
+
+        assertThat(responses).containsExactly(
+                new BookWithoutCategoryIdsResponseDto("Test book 2", "Test author 2",
+                        "978-0-12-345678-9", new BigDecimal("151.22"), "test 2", null),
+                new BookWithoutCategoryIdsResponseDto("Test book 1", "Test author 1",
+                        "978-3-16-148410-0", new BigDecimal("99.99"), "test 1", null));
     }
 
-    private Book initFirstBook() {
-        Book book = new Book();
-        book.setId(1L);
-        book.setTitle("Test book 1");
-        book.setAuthor("Test author 1");
-        book.setIsbn("978-3-16-148410-0");
-        book.setPrice(BigDecimal.valueOf(99.99));
-        book.setDescription("test 1");
-        book.setCoverImage(null);
-        book.setCategories(Set.of(initFirstCategory(), initSecondCategory()));
-        return book;
+    @Test
+    @DisplayName("""
+            Tests that a second search of the same shape, which reuses the query compiled
+            for the first, is bound to its own values and returns its own books.
+            """)
+    @Sql(scripts = {
+            "classpath:database/test/books/insert-books.sql",
+            "classpath:database/test/categories/insert-categories.sql",
+            "classpath:database/test/books/insert-books-categories.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/test/books/delete-books-categories.sql",
+            "classpath:database/test/categories/delete-categories.sql",
+            "classpath:database/test/books/delete-books.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findSlice_withSameShape_BindsNewValues() {
+        Specification<Book> first = bookSpecificationBuilder.build(BookSearchParameters.builder()
+                .titles(new String[] {"Test book 1", "Test book 2"})
+                .price(new String[] {"100", ""})
+                .build());
+        Specification<Book> second = bookSpecificationBuilder.build(BookSearchParameters.builder()
+                .titles(new String[] {"Test book 3", "Test book 4"})
+                .price(new String[] {"200", ""})
+                .build());
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("price"));
+
+        List<BookResponseDto> firstBooks = bookRepository.findSlice(first, pageRequest)
+                .getContent();
+        List<BookResponseDto> secondBooks = bookRepository.findSlice(second, pageRequest)
+                .getContent();
+
+        assertThat(firstBooks).extracting(BookResponseDto::getTitle)
+                .containsExactly("Test book 2");
+        assertThat(secondBooks).extracting(BookResponseDto::getTitle)
+                .containsExactly("Test book 4");
+        assertThat(bookRepository.findAllIds(second)).containsExactly(4L);
+        assertThat(bookRepository.findAllIds(first)).containsExactly(2L);
     }
 
-    private Book initSecondBook() {
-        Book book = new Book();
-        book.setId(3L);
-        book.setTitle("Test book 3");
-        book.setAuthor("Test author 3");
-        book.setIsbn("978-1-23-456789-0");
-        book.setPrice(BigDecimal.valueOf(149.99));
-        book.setDescription("test 3");
-        book.setCoverImage(null);
-        book.setCategories(Set.of(initFirstCategory()));
-        return book;
+    private BookResponseDto initResponse(int number, String price, String isbn,
+                                         Set<Long> categoryIds) {
+        return new BookResponseDto()
+                .setTitle("Test book " + number)
+                .setAuthor("Test author " + number)
+                .setIsbn(isbn)
+                .setPrice(new BigDecimal(price))
+                .setDescription("test " + number)
+                .setCategoryIds(categoryIds);
     }
 }
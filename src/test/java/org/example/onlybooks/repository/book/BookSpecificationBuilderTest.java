@@ -0,0 +1,77 @@
+package org.example.onlybooks.repository.book;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.example.onlybooks.dto.book.BookSearchParameters;
+import org.example.onlybooks.repository.book.spec.AuthorSpecificationProvider;
+import org.example.onlybooks.repository.book.spec.CategorySpecificationProvider;
+import org.example.onlybooks.repository.book.spec.PriceSpecificationProvider;
+import org.example.onlybooks.repository.book.spec.TitleSpecificationProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BookSpecificationBuilderTest {
+    private final BookSpecificationBuilder bookSpecificationBuilder =
+            new BookSpecificationBuilder(new BookSpecificationProviderManager(List.of(
+                    new TitleSpecificationProvider(),
+                    new AuthorSpecificationProvider(),
+                    new PriceSpecificationProvider(),
+                    new CategorySpecificationProvider())));
+
+    @Test
+    @DisplayName("""
+            Tests that searches setting the same fields with the same number of values share
+            a shape and only differ in their parameters.
+            """)
+    void build_SameShape_DiffersOnlyInParameters() {
+        ParameterizedSpecification<?> first = build(BookSearchParameters.builder()
+                .titles(new String[] {"Dune", "Emma"})
+                .price(new String[] {"10", ""})
+                .build());
+        ParameterizedSpecification<?> second = build(BookSearchParameters.builder()
+                .titles(new String[] {"Ulysses", "Hamlet"})
+                .price(new String[] {"25", ""})
+                .build());
+
+        assertThat(first.shape()).isEqualTo(second.shape());
+        assertThat(second.parameters()).isEqualTo(Map.of(
+                "title_0", "Ulysses",
+                "title_1", "Hamlet",
+                "minPrice", new BigDecimal("25")));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that the shape changes with the set fields, the number of values and open
+            price bounds.
+            """)
+    void build_DifferentValueCounts_DifferInShape() {
+        String base = build(BookSearchParameters.builder()
+                .titles(new String[] {"Dune"})
+                .price(new String[] {"10", "20"})
+                .build()).shape();
+
+        assertThat(build(BookSearchParameters.builder()
+                .titles(new String[] {"Dune", "Emma"})
+                .price(new String[] {"10", "20"})
+                .build()).shape()).isNotEqualTo(base);
+        assertThat(build(BookSearchParameters.builder()
+                .titles(new String[] {"Dune"})
+                .price(new String[] {"20"})
+                .build()).shape()).isNotEqualTo(base);
+        assertThat(build(BookSearchParameters.builder()
+                .authors(new String[] {"Dune"})
+                .price(new String[] {"10", "20"})
+                .build()).shape()).isNotEqualTo(base);
+        assertThat(build(BookSearchParameters.builder()
+                .categoryIds(new String[] {"1", "1"})
+                .build()).parameters()).isEqualTo(Map.of("categoryIds_0", 1L));
+    }
+
+    private ParameterizedSpecification<?> build(BookSearchParameters params) {
+        return (ParameterizedSpecification<?>) bookSpecificationBuilder.build(params);
+    }
+}
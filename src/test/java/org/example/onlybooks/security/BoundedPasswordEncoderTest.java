@@ -0,0 +1,131 @@
+package org.example.onlybooks.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.example.onlybooks.exception.CustomGlobalExceptionHandler;
+import org.example.onlybooks.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class BoundedPasswordEncoderTest {
+    private static final Duration RETRY_AFTER = Duration.ofMillis(1500);
+    private static final String PASSWORD = "password";
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder boundedPasswordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        boundedPasswordEncoder = initEncoder(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        boundedPasswordEncoder.destroy();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that hashing and verifying run on the hashing pool and are timed.
+            """)
+    void matches_DelegatesToEncoder() {
+        release.countDown();
+
+        assertThat(boundedPasswordEncoder.encode(PASSWORD)).isEqualTo(PASSWORD);
+        assertThat(boundedPasswordEncoder.matches(PASSWORD, PASSWORD)).isTrue();
+        assertThat(boundedPasswordEncoder.matches("other", PASSWORD)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hash").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that without a queue, checks that follow each other are never rejected,
+            since each one leaves the pool before the next arrives.
+            """)
+    void matches_withoutQueue_AdmitsSequentialChecks() {
+        boundedPasswordEncoder.destroy();
+        boundedPasswordEncoder = initEncoder(0);
+        release.countDown();
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(boundedPasswordEncoder.matches(PASSWORD, PASSWORD)).isTrue();
+        }
+        assertThat(meterRegistry.find("auth.password.rejected").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a password check arriving while the pool and its queue are full is
+            rejected at once and answered with 503 and a Retry-After header.
+            """)
+    void matches_withFullQueue_RespondsServiceUnavailable() throws Exception {
+        boundedPasswordEncoder.destroy();
+        boundedPasswordEncoder = initEncoder(0);
+        final CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(
+                () -> boundedPasswordEncoder.matches(PASSWORD, PASSWORD));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ServiceOverloadedException exception = Assertions.assertThrows(
+                ServiceOverloadedException.class,
+                () -> boundedPasswordEncoder.matches(PASSWORD, PASSWORD));
+        ResponseEntity<String> response = new CustomGlobalExceptionHandler()
+                .handleServiceOverloadedException(exception);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(meterRegistry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+        release.countDown();
+        assertThat(busy.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private BoundedPasswordEncoder initEncoder(int maxQueued) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.initialize();
+        return new BoundedPasswordEncoder(new BlockingPasswordEncoder(), executor, maxQueued,
+                RETRY_AFTER, meterRegistry);
+    }
+
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+        private final PasswordEncoder delegate = NoOpPasswordEncoder.getInstance();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            awaitRelease();
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            awaitRelease();
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        private void awaitRelease() {
+            hashing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.onlybooks.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+import org.example.onlybooks.model.Role;
+import org.example.onlybooks.model.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JwtUtilTest {
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs256";
+    private static final String EMAIL = "user@example.com";
+    private static final long EXPIRATION = 60_000L;
+    private static final Long USER_ID = 7L;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 100);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", EXPIRATION);
+    }
+
+    @Test
+    @DisplayName("""
+            Verifying the same token twice returns the cached claims
+            without parsing the token again.
+            """)
+    void verify_SameTokenTwice_ReturnsCachedClaims() {
+        String token = jwtUtil.generateToken(initUser());
+
+        Claims first = jwtUtil.verify(token);
+        Claims second = jwtUtil.verify(token);
+
+        assertThat(first.getSubject()).isEqualTo(EMAIL);
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("""
+            A token whose payload was changed but which reuses a cached
+            signature is rejected.
+            """)
+    void verify_TamperedPayloadWithCachedSignature_ThrowsException() {
+        String token = jwtUtil.generateToken(initUser());
+        jwtUtil.verify(token);
+
+        String[] segments = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"admin@example.com\"}".getBytes(StandardCharsets.UTF_8));
+        String forgedToken = segments[0] + "." + forgedPayload + "." + segments[2];
+
+        Assertions.assertThrows(JwtException.class, () -> jwtUtil.verify(forgedToken));
+    }
+
+    @Test
+    @DisplayName("""
+            A principal built from token claims carries the user id,
+            email and roles of the user the token was issued for.
+            """)
+    void toPrincipal_TokenWithPrincipalClaims_ReturnsUser() {
+        Claims claims = jwtUtil.verify(jwtUtil.generateToken(initUser()));
+
+        User principal = jwtUtil.toPrincipal(claims);
+
+        assertThat(jwtUtil.hasPrincipalClaims(claims)).isTrue();
+        assertThat(principal.getId()).isEqualTo(USER_ID);
+        assertThat(principal.getUsername()).isEqualTo(EMAIL);
+        assertThat(principal.getAuthorities())
+                .extracting(authority -> authority.getAuthority())
+                .containsExactly(Role.RoleName.ROLE_USER.name());
+    }
+
+    private User initUser() {
+        Role role = new Role();
+        role.setName(Role.RoleName.ROLE_USER);
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail(EMAIL);
+        user.setRoles(Set.of(role));
+        return user;
+    }
+}
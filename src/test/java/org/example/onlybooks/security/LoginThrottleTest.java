@@ -0,0 +1,81 @@
+package org.example.onlybooks.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.example.onlybooks.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LoginThrottleTest {
+    private static final String EMAIL = "user@example.com";
+    private static final String IP = "10.0.0.1";
+
+    private static final Duration REFILL_PERIOD = Duration.ofMinutes(1);
+    private static final long MAX_TRACKED_KEYS = 100;
+
+    private final LoginThrottle loginThrottle = new LoginThrottle(
+            2, 3, REFILL_PERIOD, MAX_TRACKED_KEYS, new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("""
+            Login attempts for one email above its bucket capacity are rejected
+            with the time until the next token.
+            """)
+    void acquire_EmailBucketExhausted_ThrowsTooManyRequests() {
+        loginThrottle.acquire(EMAIL, IP);
+        loginThrottle.acquire(EMAIL.toUpperCase(), IP);
+
+        TooManyRequestsException exception = Assertions.assertThrows(
+                TooManyRequestsException.class, () -> loginThrottle.acquire(EMAIL, IP));
+        assertThat(exception.getRetryAfter()).isPositive();
+    }
+
+    @Test
+    @DisplayName("""
+            Login attempts from one IP above its bucket capacity are rejected
+            even when they use different emails.
+            """)
+    void acquire_IpBucketExhausted_ThrowsTooManyRequests() {
+        loginThrottle.acquire("first@example.com", IP);
+        loginThrottle.acquire("second@example.com", IP);
+        loginThrottle.acquire("third@example.com", IP);
+
+        Assertions.assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.acquire("fourth@example.com", IP));
+        loginThrottle.acquire("fourth@example.com", "10.0.0.2");
+    }
+
+    @Test
+    @DisplayName("""
+            Attempts rejected by the email limit don't use up the IP limit, and attempts
+            rejected by the IP limit don't use up the email limit.
+            """)
+    void acquire_RejectedAttempt_TakesNoTokenFromOtherBucket() {
+        loginThrottle.acquire(EMAIL, IP);
+        loginThrottle.acquire(EMAIL, IP);
+        Assertions.assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.acquire(EMAIL, IP));
+        Assertions.assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.acquire(EMAIL, IP));
+
+        loginThrottle.acquire("other@example.com", IP);
+        Assertions.assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.acquire("third@example.com", IP));
+        loginThrottle.acquire("third@example.com", "10.0.0.2");
+        loginThrottle.acquire("third@example.com", "10.0.0.2");
+    }
+
+    @Test
+    @DisplayName("""
+            A bucket capacity of zero is rejected when the throttle is created.
+            """)
+    void new_ZeroCapacity_ThrowsIllegalArgument() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LoginThrottle(
+                0, 3, REFILL_PERIOD, MAX_TRACKED_KEYS, new SimpleMeterRegistry()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LoginThrottle(
+                2, 0, REFILL_PERIOD, MAX_TRACKED_KEYS, new SimpleMeterRegistry()));
+    }
+}
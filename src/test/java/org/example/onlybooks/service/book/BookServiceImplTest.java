@@ -3,44 +3,77 @@ package org.example.onlybooks.service.book;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.Stream;
 import org.example.onlybooks.dto.book.BookResponseDto;
+import org.example.onlybooks.dto.book.BookScrollResponseDto;
 import org.example.onlybooks.dto.book.BookSearchParameters;
+import org.example.onlybooks.dto.book.BookSearchResponseDto;
+import org.example.onlybooks.dto.book.BookSuggestionDto;
 import org.example.onlybooks.dto.book.BookWithoutCategoryIdsResponseDto;
+import org.example.onlybooks.dto.book.CategoryFacetDto;
 import org.example.onlybooks.dto.book.CreateBookRequestDto;
+import org.example.onlybooks.dto.book.PriceFacetDto;
+import org.example.onlybooks.dto.category.CategoryBooksResponseDto;
+import org.example.onlybooks.dto.category.CategoryResponseDto;
+import org.example.onlybooks.exception.DuplicateIsbnException;
 import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.exception.InvalidCursorException;
+import org.example.onlybooks.exception.InvalidSearchParameterException;
+import org.example.onlybooks.index.BookIndexManager;
+import org.example.onlybooks.index.facet.BookFacetIndex;
+import org.example.onlybooks.index.facet.FacetCount;
+import org.example.onlybooks.index.price.BookPriceIndex;
+import org.example.onlybooks.index.price.PriceRange;
+import org.example.onlybooks.index.suggest.BookSuggestIndex;
 import org.example.onlybooks.mapper.BookMapper;
 import org.example.onlybooks.model.Book;
 import org.example.onlybooks.model.Category;
+import org.example.onlybooks.model.SalesScope;
+import org.example.onlybooks.repository.book.BookCursor;
 import org.example.onlybooks.repository.book.BookRepository;
 import org.example.onlybooks.repository.book.BookSpecificationBuilder;
 import org.example.onlybooks.repository.category.CategoryRepository;
+import org.example.onlybooks.service.category.CategoryCatalog;
+import org.example.onlybooks.service.sales.SalesAggregator;
+import org.example.onlybooks.service.sales.SalesTotal;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 public class BookServiceImplTest {
     private static final Long ID = 1L;
+    private static final Pageable PAGEABLE = PageRequest.of(0, 20);
 
     @InjectMocks
     private BookServiceImpl bookService;
@@ -52,11 +85,29 @@ public class BookServiceImplTest {
     private BookMapper bookMapper;
 
     @Mock
-    private CategoryRepository categoryRepository;
+    private CategoryCatalog categoryCatalog;
 
     @Mock
     private BookSpecificationBuilder bookSpecificationBuilder;
 
+    @Mock
+    private BookIndexManager bookIndexManager;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private BookFacetIndex bookFacetIndex;
+
+    @Mock
+    private BookPriceIndex bookPriceIndex;
+
+    @Mock
+    private BookSuggestIndex bookSuggestIndex;
+
+    @Mock
+    private SalesAggregator salesAggregator;
+
     @Test
     @DisplayName("""
             This test verifies the successful saving of a book with 
@@ -81,6 +132,26 @@ public class BookServiceImplTest {
         BookResponseDto actual = bookService.save(requestDto);
 
         assertThat(actual).isEqualTo(expected);
+        verify(bookIndexManager, times(1)).index(book);
+        verify(categoryRepository, times(1)).addToBookCounts(Set.of(ID), 1);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that saving a book whose ISBN-10 is the same ISBN as an existing book's
+            ISBN-13 is rejected before anything is written.
+            """)
+    void saveBook_withDuplicateIsbn_ThrowException() {
+        CreateBookRequestDto requestDto = initRequestBookDto();
+        requestDto.setIsbn("0-306-40615-2");
+        when(bookRepository.countOtherBooksWithIsbn("0-306-40615-2", 9780306406157L, 0L))
+                .thenReturn(1L);
+
+        Assertions.assertThrows(DuplicateIsbnException.class,
+                () -> bookService.save(requestDto));
+
+        verifyNoMoreInteractions(bookRepository);
+        verifyNoInteractions(bookMapper, bookIndexManager, categoryRepository);
     }
 
     @Test
@@ -91,32 +162,67 @@ public class BookServiceImplTest {
             contains all necessary fields, without any filtering.
             """)
     void getAllBooks_Success() {
-        Category category = initCategory();
-        Book firstBook = initBook(Set.of(category));
-        Book secondBook = initBook(Set.of(category));
-        secondBook.setId(2L);
+        BookResponseDto firstBookResponseDto = initResponseDtoBook();
+        BookResponseDto secondBookResponseDto = initResponseDtoBook();
+        List<BookResponseDto> expected = List.of(firstBookResponseDto, secondBookResponseDto);
 
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> bookPage = new PageImpl<>(List.of(firstBook, secondBook));
+        when(bookRepository.findAllResponses(pageable)).thenReturn(expected);
 
-        when(bookRepository.findAll(pageable)).thenReturn(bookPage);
+        List<BookResponseDto> actual = bookService.findAll(pageable);
+
+        assertThat(actual).isEqualTo(expected);
+
+        verify(bookRepository, times(1)).findAllResponses(pageable);
+        verifyNoMoreInteractions(bookRepository);
+        verifyNoInteractions(bookMapper);
+    }
+
+    @Test
+    @DisplayName("""
+            This test verifies that scrolling selects one extra key to detect the next page,
+            hydrates only the books of the requested page in key order and
+            returns a continuation token pointing at the last book of the page.
+            """)
+    void scrollBooks_FirstPage_ReturnsBooksAndNextToken() {
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("title"));
+        BookCursor cursor = BookCursor.first(pageable.getSort());
+        List<BookCursor> keys = List.of(
+                cursor.next("a", 2L),
+                cursor.next("b", 1L),
+                cursor.next("c", 3L));
 
         BookResponseDto firstBookResponseDto = initResponseDtoBook();
         BookResponseDto secondBookResponseDto = initResponseDtoBook();
+        secondBookResponseDto.setTitle("second");
 
-        List<BookResponseDto> expected = List.of(firstBookResponseDto, secondBookResponseDto);
+        when(bookRepository.findNextPageKeys(cursor, 3)).thenReturn(keys);
+        when(bookRepository.findResponsesByIdsInOrder(List.of(2L, 1L)))
+                .thenReturn(List.of(secondBookResponseDto, firstBookResponseDto));
 
-        when(bookMapper.toDto(firstBook)).thenReturn(firstBookResponseDto);
-        when(bookMapper.toDto(secondBook)).thenReturn(secondBookResponseDto);
+        BookScrollResponseDto actual = bookService.scroll(null, pageable);
 
-        List<BookResponseDto> actual = bookService.findAll(pageable);
+        assertThat(actual.books()).containsExactly(secondBookResponseDto, firstBookResponseDto);
+        assertThat(BookCursor.decode(actual.nextToken())).isEqualTo(cursor.next("b", 1L));
+    }
 
-        assertThat(actual).isEqualTo(expected);
+    @Test
+    @DisplayName("""
+            This test verifies that the last page continues from the decoded token
+            and does not return a continuation token.
+            """)
+    void scrollBooks_LastPage_ReturnsBooksWithoutToken() {
+        BookCursor cursor = BookCursor.first(Sort.unsorted()).next(0L, 0L);
+        BookResponseDto expected = initResponseDtoBook();
 
-        verify(bookRepository, times(1)).findAll(pageable);
-        verify(bookMapper, times(1)).toDto(firstBook);
-        verify(bookMapper, times(1)).toDto(secondBook);
-        verifyNoMoreInteractions(bookRepository, bookMapper);
+        when(bookRepository.findNextPageKeys(cursor, 11))
+                .thenReturn(List.of(cursor.next(ID, ID)));
+        when(bookRepository.findResponsesByIdsInOrder(List.of(ID))).thenReturn(List.of(expected));
+
+        BookScrollResponseDto actual = bookService.scroll(cursor.encode(), PageRequest.of(0, 10));
+
+        assertThat(actual.books()).containsExactly(expected);
+        assertThat(actual.nextToken()).isNull();
     }
 
     @Test
@@ -126,19 +232,15 @@ public class BookServiceImplTest {
             and the returned data matches the expected values.
             """)
     void getBook_withExistingId_Success() {
-        Book book = initBook(Set.of(initCategory()));
-
-        when(bookRepository.findById(ID)).thenReturn(Optional.of(book));
-
         BookResponseDto expected = initResponseDtoBook();
 
-        when(bookMapper.toDto(book)).thenReturn(expected);
+        when(bookRepository.findResponsesByIdsInOrder(List.of(ID))).thenReturn(List.of(expected));
 
         BookResponseDto actual = bookService.findById(ID);
 
         assertThat(actual).isEqualTo(expected);
-        verify(bookRepository, times(1)).findById(ID);
-        verify(bookMapper, times(1)).toDto(book);
+        verify(bookRepository, times(1)).findResponsesByIdsInOrder(List.of(ID));
+        verifyNoInteractions(bookMapper);
     }
 
     @Test
@@ -149,9 +251,9 @@ public class BookServiceImplTest {
             since no book with that ID exists.
             """)
     void getBook_withNonExistingId_ThrowException() {
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookRepository.findResponsesByIdsInOrder(List.of(50L))).thenReturn(List.of());
         Assertions.assertThrows(EntityNotFoundException.class,
-                () -> bookService.findById(anyLong()));
+                () -> bookService.findById(50L));
     }
 
     @Test
@@ -167,7 +269,6 @@ public class BookServiceImplTest {
         secondCategory.setId(2L);
 
         String updatedTitle = "updated";
-        Set<Category> categories = Set.of(firstCategory, secondCategory);
         Set<Long> categoriesIds = Set.of(firstCategory.getId(), secondCategory.getId());
 
         CreateBookRequestDto requestDto = initRequestBookDto();
@@ -176,8 +277,8 @@ public class BookServiceImplTest {
 
         Book book = initBook(Set.of(firstCategory));
 
-        when(categoryRepository.findByIdIn(categoriesIds)).thenReturn(categories);
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
+        when(categoryCatalog.containsAll(categoriesIds)).thenReturn(true);
+        when(bookRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(book));
         when(bookRepository.save(any(Book.class))).thenAnswer(i -> i.getArgument(0));
 
         BookResponseDto expected = initResponseDtoBook();
@@ -190,12 +291,17 @@ public class BookServiceImplTest {
 
         assertThat(actual).isEqualTo(expected);
 
-        verify(categoryRepository, times(1)).findByIdIn(categoriesIds);
-        verify(bookRepository, times(1)).findById(book.getId());
+        verify(categoryCatalog, times(1)).containsAll(categoriesIds);
+        verify(categoryRepository, times(1)).addToBookCounts(Set.of(2L), 1);
+        verifyNoMoreInteractions(categoryRepository);
+        verify(bookRepository, times(1)).findByIdForUpdate(book.getId());
+        verify(bookRepository, times(1)).countOtherBooksWithIsbn(requestDto.getIsbn(), null,
+                book.getId());
         verify(bookMapper, times(1)).updateBookFromDto(requestDto, book);
         verify(bookRepository, times(1)).save(book);
         verify(bookMapper, times(1)).toDto(book);
-        verifyNoMoreInteractions(categoryRepository, bookRepository, bookMapper);
+        verify(bookIndexManager, times(1)).index(book);
+        verifyNoMoreInteractions(categoryCatalog, bookRepository, bookMapper, bookIndexManager);
     }
 
     @Test
@@ -205,10 +311,47 @@ public class BookServiceImplTest {
             (such as EntityNotFoundException), since the book with that ID does not exist.
             """)
     void updateBook_withNonExistingId_ThrowException() {
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(categoryCatalog.containsAll(anySet())).thenReturn(true);
+        when(bookRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
         Assertions.assertThrows(EntityNotFoundException.class,
                 () -> bookService.update(anyLong(), initRequestBookDto()));
-        verify(bookRepository, times(1)).findById(anyLong());
+        verify(bookRepository, times(1)).findByIdForUpdate(anyLong());
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that updating a book to an ISBN used by another book is rejected
+            without changing the book.
+            """)
+    void updateBook_withDuplicateIsbn_ThrowException() {
+        CreateBookRequestDto requestDto = initRequestBookDto();
+        requestDto.setIsbn("9780306406157");
+        Book book = initBook(Set.of(initCategory()));
+        when(categoryCatalog.containsAll(requestDto.getCategoryIds())).thenReturn(true);
+        when(bookRepository.findByIdForUpdate(ID)).thenReturn(Optional.of(book));
+        when(bookRepository.countOtherBooksWithIsbn("9780306406157", 9780306406157L, ID))
+                .thenReturn(1L);
+
+        Assertions.assertThrows(DuplicateIsbnException.class,
+                () -> bookService.update(ID, requestDto));
+
+        verify(bookRepository, never()).save(any(Book.class));
+        verifyNoInteractions(bookMapper, bookIndexManager, categoryRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that updating a book with a category that does not exist fails
+            before the book is loaded.
+            """)
+    void updateBook_withNonExistingCategory_ThrowException() {
+        CreateBookRequestDto requestDto = initRequestBookDto();
+        requestDto.setCategoryIds(Set.of(50L));
+        when(categoryCatalog.containsAll(requestDto.getCategoryIds())).thenReturn(false);
+
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> bookService.update(ID, requestDto));
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
@@ -222,12 +365,36 @@ public class BookServiceImplTest {
         Category category = initCategory();
         Book book = initBook(Set.of(category));
 
-        when(bookRepository.findById(ID)).thenReturn(Optional.of(book));
+        when(bookRepository.findByIdForUpdate(ID)).thenReturn(Optional.of(book));
         doNothing().when(bookRepository).deleteById(anyLong());
         bookService.delete(ID);
 
         verify(bookRepository, times(1)).deleteById(anyLong());
-        verifyNoMoreInteractions(bookRepository);
+        verify(bookIndexManager, times(1)).remove(ID);
+        verify(categoryRepository, times(1)).addToBookCounts(Set.of(ID), -1);
+        verifyNoMoreInteractions(bookRepository, bookIndexManager, categoryRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a deletion inside a transaction reaches the indexes only once the
+            transaction commits, so a rollback leaves them untouched.
+            """)
+    void deleteBook_inTransaction_RemovesFromIndexesAfterCommit() {
+        Book book = initBook(Set.of(initCategory()));
+        when(bookRepository.findByIdForUpdate(ID)).thenReturn(Optional.of(book));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookService.delete(ID);
+            verifyNoInteractions(bookIndexManager);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(bookIndexManager).remove(ID);
     }
 
     @Test
@@ -236,34 +403,89 @@ public class BookServiceImplTest {
             expecting an EntityNotFoundException
             """)
     void deleteBook_withNonExistingId_ThrowException() {
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
         Assertions.assertThrows(EntityNotFoundException.class, () -> bookService.delete(ID));
     }
 
     @Test
     @DisplayName("""
-            This test verifies the successful search for books by 
-            the author's name. 
-            The method checks that books with the specified author are correctly 
-            retrieved and returned.
+            Tests that facet counts are computed over every matching book,
+            not only the returned page.
             """)
-    void searchBookByAuthor_Success() {
+    void searchWithFacets_CountsAllMatches() {
         BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
                 .authors(authors())
                 .build();
+        BookResponseDto responseBook = initResponseDtoBook();
+        Specification<Book> specification = Mockito.mock(Specification.class);
 
-        Book firstBook = initBook(Set.of(initCategory()));
-        firstBook.setAuthor("Alice");
+        when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
+        when(bookRepository.findSlice(specification, PAGEABLE))
+                .thenReturn(new SliceImpl<>(List.of(responseBook)));
+        when(bookRepository.findAllIds(specification)).thenReturn(List.of(ID, 2L));
+        when(bookFacetIndex.count(List.of(ID, 2L))).thenReturn(new BookFacetIndex.Counts(
+                List.of(new FacetCount(ID, 2), new FacetCount(50L, 1)), new int[] {2, 0}));
+        when(bookFacetIndex.getPriceBounds()).thenReturn(List.of(BigDecimal.TEN));
+        when(categoryCatalog.find(ID)).thenReturn(Optional.of(
+                new CategoryResponseDto(ID, "test category", "test description")));
+        when(categoryCatalog.find(50L)).thenReturn(Optional.empty());
+
+        BookSearchResponseDto actual = bookService.searchWithFacets(bookSearchParameters,
+                PAGEABLE);
+
+        assertThat(actual.books()).containsExactly(responseBook);
+        assertThat(actual.hasNext()).isFalse();
+        assertThat(actual.categories()).containsExactly(
+                new CategoryFacetDto(ID, "test category", 2));
+        assertThat(actual.prices()).containsExactly(
+                new PriceFacetDto(null, BigDecimal.TEN, 2),
+                new PriceFacetDto(BigDecimal.TEN, null, 0));
+    }
 
-        Book secondBook = initBook(Set.of(initCategory()));
-        secondBook.setAuthor("Bob");
+    @Test
+    @DisplayName("""
+            Tests that suggestions are ranked by the units sold from the sales totals.
+            """)
+    void suggest_RanksByUnitsSold() {
+        when(bookSuggestIndex.suggest(eq("har"), eq(5), any())).thenAnswer(invocation -> {
+            LongUnaryOperator popularity = invocation.getArgument(2);
+            assertThat(popularity.applyAsLong(ID)).isEqualTo(3);
+            return List.of(new BookSuggestIndex.Suggestion(ID, "Harry", "Rowling"));
+        });
+        when(salesAggregator.get(SalesScope.BOOK, ID)).thenReturn(new SalesTotal(ID, 2, 3, 900));
 
-        List<Book> books = List.of(firstBook, secondBook);
+        List<BookSuggestionDto> actual = bookService.suggest("har", 5);
 
-        Specification<Book> specification = Mockito.mock(Specification.class);
+        assertThat(actual).containsExactly(new BookSuggestionDto(ID, "Harry", "Rowling"));
+        verifyNoMoreInteractions(bookRepository);
+    }
 
-        when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
-        when(bookRepository.findAll(specification)).thenReturn(books);
+    @Test
+    @DisplayName("""
+            Tests that refreshing suggestions ranks them by the units sold.
+            """)
+    void refreshSuggestions_RanksByUnitsSold() {
+        when(salesAggregator.get(SalesScope.BOOK, ID)).thenReturn(new SalesTotal(ID, 2, 3, 900));
+
+        bookService.refreshSuggestions();
+
+        ArgumentCaptor<LongUnaryOperator> popularity =
+                ArgumentCaptor.forClass(LongUnaryOperator.class);
+        verify(bookSuggestIndex).refresh(popularity.capture());
+        assertThat(popularity.getValue().applyAsLong(ID)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("""
+            This test verifies the successful search for books by 
+            the author's name. 
+            The method checks that books with the specified author are correctly 
+            retrieved and returned.
+            """)
+    void searchBookByAuthor_Success() {
+        BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
+                .authors(authors())
+                .build();
 
         BookResponseDto firstResponseBook = initResponseDtoBook();
         firstResponseBook.setAuthor("Alice");
@@ -273,18 +495,20 @@ public class BookServiceImplTest {
 
         List<BookResponseDto> expected = List.of(firstResponseBook, secondResponseBook);
 
-        when(bookMapper.toDto(firstBook)).thenReturn(firstResponseBook);
-        when(bookMapper.toDto(secondBook)).thenReturn(secondResponseBook);
+        Specification<Book> specification = Mockito.mock(Specification.class);
+
+        when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
+        when(bookRepository.findSlice(specification, PAGEABLE))
+                .thenReturn(new SliceImpl<>(expected));
 
-        List<BookResponseDto> actual = bookService.search(bookSearchParameters);
+        Slice<BookResponseDto> actual = bookService.search(bookSearchParameters, PAGEABLE);
 
-        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getContent()).isEqualTo(expected);
 
-        verify(bookRepository, times(1)).findAll(specification);
+        verify(bookRepository, times(1)).findSlice(specification, PAGEABLE);
         verify(bookSpecificationBuilder, times(1)).build(bookSearchParameters);
-        verify(bookMapper, times(1)).toDto(firstBook);
-        verify(bookMapper, times(1)).toDto(secondBook);
-        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder, bookMapper);
+        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder);
+        verifyNoInteractions(bookMapper);
     }
 
     @Test
@@ -298,29 +522,23 @@ public class BookServiceImplTest {
                 .titles(titles())
                 .build();
 
-        Book firstBook = initBook(Set.of(initCategory()));
-        firstBook.setTitle("test 2");
-
-        List<Book> books = List.of(firstBook);
-        Specification<Book> specification = Mockito.mock(Specification.class);
-
-        when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
-        when(bookRepository.findAll(specification)).thenReturn(books);
-
         BookResponseDto bookResponseDto = initResponseDtoBook();
         bookResponseDto.setTitle("test 2");
 
         List<BookResponseDto> expected = List.of(bookResponseDto);
+        Specification<Book> specification = Mockito.mock(Specification.class);
 
-        when(bookMapper.toDto(firstBook)).thenReturn(bookResponseDto);
+        when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
+        when(bookRepository.findSlice(specification, PAGEABLE))
+                .thenReturn(new SliceImpl<>(expected));
 
-        List<BookResponseDto> actual = bookService.search(bookSearchParameters);
+        Slice<BookResponseDto> actual = bookService.search(bookSearchParameters, PAGEABLE);
 
-        assertThat(actual).isEqualTo(expected);
-        verify(bookRepository, times(1)).findAll(specification);
+        assertThat(actual.getContent()).isEqualTo(expected);
+        verify(bookRepository, times(1)).findSlice(specification, PAGEABLE);
         verify(bookSpecificationBuilder, times(1)).build(bookSearchParameters);
-        verify(bookMapper, times(1)).toDto(firstBook);
-        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder, bookMapper);
+        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder);
+        verifyNoInteractions(bookMapper);
     }
 
     @Test
@@ -331,32 +549,24 @@ public class BookServiceImplTest {
              filtered by the provided price.
             """)
     void searchBookIfPriceParamsLengthIs1_Success() {
-        Book firstBook = initBook(Set.of(initCategory()));
-        firstBook.setPrice(BigDecimal.valueOf(130));
-
-        List<Book> books = List.of(firstBook);
-        BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
-                .price(new String[] {"200"})
-                .build();
-
-        Specification<Book> specification = Mockito.mock(Specification.class);
-        when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
-        when(bookRepository.findAll(specification)).thenReturn(books);
-
         BookResponseDto bookResponseDto = initResponseDtoBook();
         bookResponseDto.setPrice(BigDecimal.valueOf(130));
 
         List<BookResponseDto> expected = List.of(bookResponseDto);
 
-        when(bookMapper.toDto(firstBook)).thenReturn(bookResponseDto);
+        when(bookPriceIndex.findIds(new PriceRange(null, BigDecimal.valueOf(200)), 0, 21, false))
+                .thenReturn(new long[] {ID});
+        when(bookRepository.findResponsesByIdsInOrder(List.of(ID))).thenReturn(expected);
 
-        List<BookResponseDto> actual = bookService.search(bookSearchParameters);
+        BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
+                .price(new String[] {"200"})
+                .build();
+        Slice<BookResponseDto> actual = bookService.search(bookSearchParameters, PAGEABLE);
 
-        assertThat(actual).isEqualTo(expected);
-        verify(bookRepository, times(1)).findAll(specification);
-        verify(bookSpecificationBuilder, times(1)).build(bookSearchParameters);
-        verify(bookMapper, times(1)).toDto(firstBook);
-        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder, bookMapper);
+        assertThat(actual.getContent()).isEqualTo(expected);
+        verify(bookRepository, times(1)).findResponsesByIdsInOrder(List.of(ID));
+        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder);
+        verifyNoInteractions(bookMapper);
     }
 
     @Test
@@ -367,25 +577,6 @@ public class BookServiceImplTest {
              filtered according to the provided price criteria.
             """)
     void searchBookIfPriceBiggerThan2_Success() {
-        Book firstBook = initBook(Set.of(initCategory()));
-        firstBook.setPrice(BigDecimal.valueOf(300));
-
-        Book secondBook = initBook(Set.of(initCategory()));
-        secondBook.setPrice(BigDecimal.valueOf(400));
-
-        Book thirdBook = initBook(Set.of(initCategory()));
-        thirdBook.setPrice(BigDecimal.valueOf(600));
-
-        BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
-                .price(new String[]{"200, 300, 600"})
-                .build();
-
-        List<Book> books = List.of(firstBook, secondBook, thirdBook);
-
-        Specification<Book> specification = Mockito.mock(Specification.class);
-        when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
-        when(bookRepository.findAll(specification)).thenReturn(books);
-
         BookResponseDto firstBookResponseDto = initResponseDtoBook();
         firstBookResponseDto.setPrice(BigDecimal.valueOf(300));
 
@@ -398,19 +589,19 @@ public class BookServiceImplTest {
         List<BookResponseDto> expected = List.of(firstBookResponseDto,
                 secondBookResponseDto, thirdBookResponseDto);
 
-        when(bookMapper.toDto(firstBook)).thenReturn(firstBookResponseDto);
-        when(bookMapper.toDto(secondBook)).thenReturn(secondBookResponseDto);
-        when(bookMapper.toDto(thirdBook)).thenReturn(thirdBookResponseDto);
+        when(bookPriceIndex.findIds(new PriceRange(null, BigDecimal.valueOf(600)), 0, 21, false))
+                .thenReturn(new long[] {ID, 2L, 3L});
+        when(bookRepository.findResponsesByIdsInOrder(List.of(ID, 2L, 3L))).thenReturn(expected);
 
-        List<BookResponseDto> actual = bookService.search(bookSearchParameters);
+        BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
+                .price(new String[] {"200", "300", "600"})
+                .build();
+        Slice<BookResponseDto> actual = bookService.search(bookSearchParameters, PAGEABLE);
 
-        assertThat(actual).isEqualTo(expected);
-        verify(bookRepository, times(1)).findAll(specification);
-        verify(bookSpecificationBuilder, times(1)).build(bookSearchParameters);
-        verify(bookMapper, times(1)).toDto(firstBook);
-        verify(bookMapper, times(1)).toDto(secondBook);
-        verify(bookMapper, times(1)).toDto(thirdBook);
-        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder, bookMapper);
+        assertThat(actual.getContent()).isEqualTo(expected);
+        verify(bookRepository, times(1)).findResponsesByIdsInOrder(List.of(ID, 2L, 3L));
+        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder);
+        verifyNoInteractions(bookMapper);
     }
 
     @Test
@@ -421,41 +612,51 @@ public class BookServiceImplTest {
             filtered within the specified price range.
             """)
     void searchBookIfPriceParamsLengthIs2_Success() {
-        BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
-                .price(prices())
-                .build();
+        BookResponseDto firstBookResponseDto = initResponseDtoBook();
+        firstBookResponseDto.setPrice(BigDecimal.valueOf(255.55));
 
-        Book firstBook = initBook(Set.of(initCategory()));
-        firstBook.setPrice(BigDecimal.valueOf(255.55));
+        BookResponseDto secondBookResponseDto = initResponseDtoBook();
+        secondBookResponseDto.setPrice(BigDecimal.valueOf(265.43));
 
-        Book secondBook = initBook(Set.of(initCategory()));
-        secondBook.setPrice(BigDecimal.valueOf(265.43));
+        List<BookResponseDto> expected = List.of(secondBookResponseDto, firstBookResponseDto);
 
-        List<Book> books = List.of(firstBook, secondBook);
+        PriceRange range = new PriceRange(BigDecimal.valueOf(200), BigDecimal.valueOf(500));
+        when(bookPriceIndex.findIds(range, 0, 21, true)).thenReturn(new long[] {2L, ID});
+        when(bookRepository.findResponsesByIdsInOrder(List.of(2L, ID))).thenReturn(expected);
 
-        Specification<Book> specification = Mockito.mock(Specification.class);
-        when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
-        when(bookRepository.findAll(specification)).thenReturn(books);
+        BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
+                .price(prices())
+                .build();
+        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "price"));
+        Slice<BookResponseDto> actual = bookService.search(bookSearchParameters, pageable);
 
-        BookResponseDto firstBookResponseDto = initResponseDtoBook();
-        firstBookResponseDto.setPrice(BigDecimal.valueOf(255.55));
+        assertThat(actual.getContent()).isEqualTo(expected);
+        verify(bookRepository, times(1)).findResponsesByIdsInOrder(List.of(2L, ID));
+        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder);
+        verifyNoInteractions(bookMapper);
+    }
 
+    @Test
+    @DisplayName("""
+            Tests that a price search reads one id past the page from the price index
+            to tell whether another page follows, without loading that book.
+            """)
+    void search_ByPriceWithMoreMatches_HasNext() {
+        BookResponseDto firstBookResponseDto = initResponseDtoBook();
         BookResponseDto secondBookResponseDto = initResponseDtoBook();
-        secondBookResponseDto.setPrice(BigDecimal.valueOf(265.43));
-
         List<BookResponseDto> expected = List.of(firstBookResponseDto, secondBookResponseDto);
+        when(bookPriceIndex.findIds(new PriceRange(null, BigDecimal.valueOf(200)), 2, 3, false))
+                .thenReturn(new long[] {ID, 2L, 3L});
+        when(bookRepository.findResponsesByIdsInOrder(List.of(ID, 2L))).thenReturn(expected);
 
-        when(bookMapper.toDto(firstBook)).thenReturn(firstBookResponseDto);
-        when(bookMapper.toDto(secondBook)).thenReturn(secondBookResponseDto);
-
-        List<BookResponseDto> actual = bookService.search(bookSearchParameters);
+        BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
+                .price(new String[] {"200"})
+                .build();
+        Slice<BookResponseDto> actual = bookService.search(bookSearchParameters,
+                PageRequest.of(1, 2));
 
-        assertThat(actual).isEqualTo(expected);
-        verify(bookRepository, times(1)).findAll(specification);
-        verify(bookSpecificationBuilder, times(1)).build(bookSearchParameters);
-        verify(bookMapper, times(1)).toDto(firstBook);
-        verify(bookMapper, times(1)).toDto(secondBook);
-        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder, bookMapper);
+        assertThat(actual.getContent()).isEqualTo(expected);
+        assertThat(actual.hasNext()).isTrue();
     }
 
     @Test
@@ -465,19 +666,20 @@ public class BookServiceImplTest {
             matching all the given criteria are correctly retrieved.
             """)
     void searchBookByIsbnDescriptionCategory_Success() {
-        Book firstBook = initBook(Set.of(initCategory()));
-        firstBook.setDescription("test desc");
-
-        Book secondBook = initBook(Set.of(initCategory()));
-        secondBook.setIsbn("978-9-87-654321-0");
+        BookResponseDto firstBookResponseDto = initResponseDtoBook();
+        firstBookResponseDto.setDescription("test desc");
 
-        Category category = initCategory();
-        category.setId(5L);
+        BookResponseDto secondBookResponseDto = initResponseDtoBook();
+        secondBookResponseDto.setIsbn("978-9-87-654321-0");
 
-        Book thirdBook = initBook(Set.of(category));
-        thirdBook.setIsbn("242343333");
+        BookResponseDto thirdBookResponseDto = initResponseDtoBook();
+        thirdBookResponseDto.setCategoryIds(Set.of(5L));
+        thirdBookResponseDto.setIsbn("242343333");
 
-        List<Book> books = List.of(firstBook, secondBook, thirdBook);
+        List<BookResponseDto> expected = List.of(
+                firstBookResponseDto,
+                secondBookResponseDto,
+                thirdBookResponseDto);
 
         BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
                 .isbn(isbns())
@@ -487,36 +689,50 @@ public class BookServiceImplTest {
 
         Specification<Book> specification = Mockito.mock(Specification.class);
         when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
-        when(bookRepository.findAll(specification)).thenReturn(books);
+        when(bookRepository.findSlice(specification, PAGEABLE))
+                .thenReturn(new SliceImpl<>(expected));
 
-        BookResponseDto firstBookResponseDto = initResponseDtoBook();
-        firstBookResponseDto.setDescription("test desc");
+        Slice<BookResponseDto> actual = bookService.search(bookSearchParameters, PAGEABLE);
 
-        BookResponseDto secondBookResponseDto = initResponseDtoBook();
-        secondBookResponseDto.setIsbn("978-9-87-654321-0");
+        assertThat(actual.getContent()).isEqualTo(expected);
+        verify(bookRepository, times(1)).findSlice(specification, PAGEABLE);
+        verify(bookSpecificationBuilder, times(1)).build(bookSearchParameters);
+        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder);
+        verifyNoInteractions(bookMapper);
+    }
 
-        BookResponseDto thirdBookResponseDto = initResponseDtoBook();
-        thirdBookResponseDto.setCategoryIds(Set.of(category.getId()));
-        thirdBookResponseDto.setIsbn("242343333");
+    @Test
+    @DisplayName("""
+            This test verifies that streaming search passes every found book
+            to the consumer in the order returned by the repository.
+            """)
+    void streamSearch_Success() {
+        Book firstBook = initBook(Set.of(initCategory()));
+        Book secondBook = initBook(Set.of(initCategory()));
+        secondBook.setId(2L);
 
-        List<BookResponseDto> expected = List.of(
-                firstBookResponseDto,
-                secondBookResponseDto,
-                thirdBookResponseDto);
+        BookSearchParameters bookSearchParameters = BookSearchParameters.builder()
+                .authors(authors())
+                .build();
+        Sort sort = Sort.by("price");
+
+        Specification<Book> specification = Mockito.mock(Specification.class);
+        when(bookSpecificationBuilder.build(bookSearchParameters)).thenReturn(specification);
+        when(bookRepository.streamAll(specification, sort))
+                .thenReturn(Stream.of(firstBook, secondBook));
 
-        when(bookMapper.toDto(firstBook)).thenReturn(firstBookResponseDto);
-        when(bookMapper.toDto(secondBook)).thenReturn(secondBookResponseDto);
-        when(bookMapper.toDto(thirdBook)).thenReturn(thirdBookResponseDto);
+        BookResponseDto firstResponseBook = initResponseDtoBook();
+        BookResponseDto secondResponseBook = initResponseDtoBook();
+        secondResponseBook.setTitle("second");
+        when(bookMapper.toDto(firstBook)).thenReturn(firstResponseBook);
+        when(bookMapper.toDto(secondBook)).thenReturn(secondResponseBook);
 
-        List<BookResponseDto> actual = bookService.search(bookSearchParameters);
+        List<BookResponseDto> actual = new ArrayList<>();
+        bookService.search(bookSearchParameters, sort, actual::add);
 
-        assertThat(actual).isEqualTo(expected);
-        verify(bookRepository, times(1)).findAll(specification);
-        verify(bookSpecificationBuilder, times(1)).build(bookSearchParameters);
-        verify(bookMapper, times(1)).toDto(firstBook);
-        verify(bookMapper, times(1)).toDto(secondBook);
-        verify(bookMapper, times(1)).toDto(thirdBook);
-        verifyNoMoreInteractions(bookRepository, bookSpecificationBuilder, bookMapper);
+        assertThat(actual).containsExactly(firstResponseBook, secondResponseBook);
+        verify(bookRepository, times(1)).streamAll(specification, sort);
+        verifyNoMoreInteractions(bookRepository);
     }
 
     @Test
@@ -527,34 +743,59 @@ public class BookServiceImplTest {
             the specified category are correctly returned.
             """)
     void findBookByCategoryId_Success() {
-        Category category = initCategory();
-        category.setId(12L);
+        Long categoryId = 12L;
+        BookWithoutCategoryIdsResponseDto firstDto = initBookWithoutCategory();
+        Pageable pageable = PageRequest.of(0, 1);
 
-        Book firstBook = initBook(Set.of(category));
+        when(bookRepository.findIdsByCategoryId(categoryId, 0, 2))
+                .thenReturn(List.of(ID, 2L));
+        when(bookRepository.findWithoutCategoryIdsByIdsInOrder(List.of(ID)))
+                .thenReturn(List.of(firstDto));
+        when(categoryRepository.findBookCountById(categoryId)).thenReturn(Optional.of(2));
 
-        Pageable pageable = PageRequest.of(0, 10);
+        CategoryBooksResponseDto actual = bookService.getBooksByCategoryId(
+                categoryId, null, pageable);
 
-        BookWithoutCategoryIdsResponseDto
-                bookWithoutCategoryIdsResponseDto = initBookWithoutCategory();
+        assertThat(actual.books()).containsExactly(firstDto);
+        assertThat(actual.total()).isEqualTo(2);
+        assertThat(BookCursor.decode(actual.nextToken()).id()).isEqualTo(ID);
 
-        List<Book> books = List.of(firstBook);
+        when(bookRepository.findIdsByCategoryId(categoryId, ID, 2))
+                .thenReturn(List.of(2L));
+        when(bookRepository.findWithoutCategoryIdsByIdsInOrder(List.of(2L)))
+                .thenReturn(List.of(initBookWithoutCategory()));
 
-        List<BookWithoutCategoryIdsResponseDto>
-                expected = List.of(bookWithoutCategoryIdsResponseDto);
+        CategoryBooksResponseDto next = bookService.getBooksByCategoryId(
+                categoryId, actual.nextToken(), pageable);
 
-        when(bookRepository.findAllByCategoriesId(category.getId(), pageable))
-                .thenReturn(books);
+        assertThat(next.books()).hasSize(1);
+        assertThat(next.nextToken()).isNull();
+    }
 
-        when(bookMapper.toWithoutCategoryIdDto(firstBook))
-                .thenReturn(bookWithoutCategoryIdsResponseDto);
+    @Test
+    @DisplayName("""
+            Tests that a continuation token from a page sorted by another property
+            is rejected.
+            """)
+    void findBookByCategoryId_withTitleToken_ThrowException() {
+        String token = BookCursor.first(Sort.by("title")).next("A", 1L).encode();
 
-        List<BookWithoutCategoryIdsResponseDto> actual = bookService.getBooksByCategoryId(
-                category.getId(), pageable);
+        Assertions.assertThrows(InvalidCursorException.class,
+                () -> bookService.getBooksByCategoryId(1L, token, PageRequest.of(0, 10)));
+    }
 
-        assertThat(actual).isEqualTo(expected);
-        verify(bookRepository, times(1)).findAllByCategoriesId(category.getId(), pageable);
-        verify(bookMapper, times(1)).toWithoutCategoryIdDto(firstBook);
-        verifyNoMoreInteractions(bookRepository, bookMapper);
+    @Test
+    @DisplayName("""
+            Tests that page numbers and sorts, which category pages can't honour, are
+            rejected instead of being ignored.
+            """)
+    void findBookByCategoryId_withPageOrSort_ThrowException() {
+        Assertions.assertThrows(InvalidSearchParameterException.class,
+                () -> bookService.getBooksByCategoryId(1L, null, PageRequest.of(1, 10)));
+        Assertions.assertThrows(InvalidSearchParameterException.class,
+                () -> bookService.getBooksByCategoryId(1L, null,
+                        PageRequest.of(0, 10, Sort.by("title"))));
+        verifyNoInteractions(bookRepository);
     }
 
     private Book initBook(Set<Category> categories) {
@@ -0,0 +1,78 @@
+package org.example.onlybooks.service.category;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.example.onlybooks.dto.category.CategoryResponseDto;
+import org.example.onlybooks.mapper.CategoryMapper;
+import org.example.onlybooks.model.Category;
+import org.example.onlybooks.repository.category.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryCatalogTest {
+    private static final CategoryResponseDto FICTION =
+            new CategoryResponseDto(1L, "Fiction", "Novels");
+    private static final CategoryResponseDto HISTORY =
+            new CategoryResponseDto(2L, "History", "Past");
+    private static final CategoryResponseDto ART =
+            new CategoryResponseDto(3L, "Art", "Painting");
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    private CategoryCatalog categoryCatalog;
+
+    @BeforeEach
+    void setUp() {
+        Category first = new Category(3L);
+        Category second = new Category(1L);
+        Category third = new Category(2L);
+        when(categoryRepository.findAll()).thenReturn(List.of(first, second, third));
+        when(categoryMapper.toDto(first)).thenReturn(ART);
+        when(categoryMapper.toDto(second)).thenReturn(FICTION);
+        when(categoryMapper.toDto(third)).thenReturn(HISTORY);
+        categoryCatalog = new CategoryCatalog(categoryRepository, categoryMapper);
+        categoryCatalog.reload();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that categories are paged in id order unless another sort is requested.
+            """)
+    void findAll_KeepsRequestedOrder() {
+        assertThat(categoryCatalog.findAll(PageRequest.of(0, 2)))
+                .containsExactly(FICTION, HISTORY);
+        assertThat(categoryCatalog.findAll(PageRequest.of(1, 2)))
+                .containsExactly(ART);
+        assertThat(categoryCatalog.findAll(PageRequest.of(0, 3, Sort.by("name"))))
+                .containsExactly(ART, FICTION, HISTORY);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that changes replace the snapshot without reading the table again.
+            """)
+    void putAndRemove_ReplaceSnapshot() {
+        CategoryResponseDto renamed = new CategoryResponseDto(2L, "Modern history", "Past");
+
+        categoryCatalog.put(renamed);
+        categoryCatalog.remove(3L);
+
+        assertThat(categoryCatalog.find(2L)).contains(renamed);
+        assertThat(categoryCatalog.find(3L)).isEmpty();
+        assertThat(categoryCatalog.containsAll(List.of(1L, 2L))).isTrue();
+        assertThat(categoryCatalog.containsAll(List.of(1L, 3L))).isFalse();
+    }
+}
@@ -5,12 +5,12 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import org.example.onlybooks.dto.category.CategoryRequestDto;
 import org.example.onlybooks.dto.category.CategoryResponseDto;
 import org.example.onlybooks.exception.EntityNotFoundException;
@@ -24,8 +24,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
@@ -40,6 +38,9 @@ public class CategoryServiceImplTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Mock
+    private CategoryCatalog categoryCatalog;
+
     @Test
     @DisplayName("Should save a new category successfully")
     void saveCategory_Success() {
@@ -60,72 +61,45 @@ public class CategoryServiceImplTest {
         verify(categoryMapper, times(1)).toModel(categoryRequestDto);
         verify(categoryRepository, times(1)).save(category);
         verify(categoryMapper, times(1)).toDto(category);
+        verify(categoryCatalog, times(1)).put(expected);
     }
 
     @Test
     @DisplayName("Should return all categories successfully")
     void findAllCategories_Success() {
-        Category firstCategory = initCategory();
-        Category secondCategory = initCategory();
-        secondCategory.setId(2L);
-        Category thirdCategory = initCategory();
-        thirdCategory.setId(3L);
-
-        List<Category> categories = List.of(firstCategory, secondCategory, thirdCategory);
-
-        CategoryResponseDto firstCategoryResponseDto = new CategoryResponseDto(
-                1L, "test", "test");
-        CategoryResponseDto secondCategoryResponseDto = new CategoryResponseDto(
-                2L, "test", "test");
-        CategoryResponseDto thirdCategoryResponseDto = new CategoryResponseDto(
-                3L, "test", "test");
-
+        List<CategoryResponseDto> expected = List.of(
+                new CategoryResponseDto(1L, "test", "test"),
+                new CategoryResponseDto(2L, "test", "test"),
+                new CategoryResponseDto(3L, "test", "test"));
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Category> categoryPage = new PageImpl<>(categories);
-
-        when(categoryRepository.findAll(pageable)).thenReturn(categoryPage);
-        when(categoryMapper.toDto(firstCategory)).thenReturn(firstCategoryResponseDto);
-        when(categoryMapper.toDto(secondCategory)).thenReturn(secondCategoryResponseDto);
-        when(categoryMapper.toDto(thirdCategory)).thenReturn(thirdCategoryResponseDto);
+        when(categoryCatalog.findAll(pageable)).thenReturn(expected);
 
-        Set<CategoryResponseDto> expectedCategoryResponseDtos = Set.of(firstCategoryResponseDto,
-                secondCategoryResponseDto, thirdCategoryResponseDto);
+        List<CategoryResponseDto> actual = categoryService.findAll(pageable);
 
-        Set<CategoryResponseDto> actual = categoryService.findAll(pageable);
-
-        assertThat(actual).isEqualTo(expectedCategoryResponseDtos);
-        verify(categoryRepository, times(1)).findAll(pageable);
-        verify(categoryMapper, times(1)).toDto(firstCategory);
-        verify(categoryMapper, times(1)).toDto(secondCategory);
-        verifyNoMoreInteractions(categoryRepository, categoryMapper);
+        assertThat(actual).isEqualTo(expected);
+        verify(categoryCatalog, times(1)).findAll(pageable);
+        verifyNoInteractions(categoryRepository, categoryMapper);
     }
 
     @Test
     @DisplayName("Should find category by existing ID successfully")
     void findCategory_withExistingId_Success() {
-        Category category = initCategory();
-        category.setId(2L);
-
-        when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
         CategoryResponseDto expected = new CategoryResponseDto(2L, "test", "test");
+        when(categoryCatalog.find(2L)).thenReturn(Optional.of(expected));
 
-        when(categoryMapper.toDto(category)).thenReturn(expected);
-        CategoryResponseDto actual = categoryService.findById(category.getId());
+        CategoryResponseDto actual = categoryService.findById(2L);
 
         assertThat(actual).isEqualTo(expected);
-
-        verify(categoryRepository, times(1)).findById(anyLong());
-        verify(categoryMapper, times(1)).toDto(category);
-        verifyNoMoreInteractions(categoryRepository);
+        verifyNoInteractions(categoryRepository, categoryMapper);
     }
 
     @Test
     @DisplayName("Should throw exception when category with non-existing ID is not found")
     void findCategory_withNonExistingId_ThrowException() {
-        when(categoryRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(categoryCatalog.find(anyLong())).thenReturn(Optional.empty());
         Assertions.assertThrows(EntityNotFoundException.class, () ->
-                categoryService.findById(anyLong()));
-        verify(categoryRepository, times(1)).findById(anyLong());
+                categoryService.findById(50L));
+        verifyNoInteractions(categoryRepository);
     }
 
     @Test
@@ -154,6 +128,7 @@ public class CategoryServiceImplTest {
         verify(categoryMapper, times(1)).updateCategoryFromDto(requestDto, category);
         verify(categoryRepository, times(1)).save(category);
         verify(categoryMapper, times(1)).toDto(updatedCategory);
+        verify(categoryCatalog, times(1)).put(expected);
     }
 
     @Test
@@ -176,6 +151,7 @@ public class CategoryServiceImplTest {
 
         verify(categoryRepository, times(1)).deleteById(category.getId());
         verifyNoMoreInteractions(categoryRepository);
+        verify(categoryCatalog, times(1)).remove(category.getId());
     }
 
     @Test
@@ -0,0 +1,153 @@
+package org.example.onlybooks.service.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.example.onlybooks.dto.book.BookStockResponseDto;
+import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.exception.InsufficientStockException;
+import org.example.onlybooks.repository.book.BookRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryServiceImplTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    private InventoryServiceImpl inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new InventoryServiceImpl(bookRepository, 4, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that all lines of an order are reserved with one batched conditional update,
+            ordered by book id.
+            """)
+    void reserve_withEnoughStock_Success() {
+        when(bookRepository.findStockByIds(any())).thenReturn(Map.of(1L, 5, 2L, 3));
+        when(bookRepository.reserveStock(new long[] {1L, 2L}, new int[] {2, 3}))
+                .thenReturn(new int[] {1, 1});
+
+        inventoryService.reserve(Map.of(2L, 3, 1L, 2));
+
+        verify(bookRepository).findStockByIds(any());
+        verify(bookRepository).reserveStock(new long[] {1L, 2L}, new int[] {2, 3});
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a shortage is confirmed against the database
+            and rejected without updating stock.
+            """)
+    void reserve_withNotEnoughStock_ThrowException() {
+        when(bookRepository.findStockByIds(any())).thenReturn(Map.of(1L, 1));
+
+        InsufficientStockException exception = Assertions.assertThrows(
+                InsufficientStockException.class,
+                () -> inventoryService.reserve(Map.of(1L, 2)));
+
+        assertThat(exception.getMessage()).contains("[1]");
+        verify(bookRepository, times(2)).findStockByIds(any());
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a line rejected by the conditional update fails the reservation
+            when another node took the stock first.
+            """)
+    void reserve_withConcurrentUpdate_ThrowException() {
+        when(bookRepository.findStockByIds(any())).thenReturn(Map.of(1L, 5));
+        when(bookRepository.reserveStock(new long[] {1L}, new int[] {2}))
+                .thenReturn(new int[] {0});
+
+        Assertions.assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserve(Map.of(1L, 2)));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that concurrent reservations never take more than the cached stock.
+            """)
+    void reserve_concurrently_DoesNotOversell() {
+        AtomicInteger stock = new AtomicInteger(10);
+        when(bookRepository.findStockByIds(any())).thenAnswer(invocation ->
+                Map.of(1L, stock.get()));
+        when(bookRepository.reserveStock(any(), any())).thenAnswer(invocation -> {
+            int quantity = invocation.<int[]>getArgument(1)[0];
+            int left = stock.getAndUpdate(current ->
+                    current >= quantity ? current - quantity : current);
+            return new int[] {left >= quantity ? 1 : 0};
+        });
+        AtomicInteger reserved = new AtomicInteger();
+
+        List<CompletableFuture<Void>> orders = IntStream.range(0, 50)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    try {
+                        inventoryService.reserve(Map.of(1L, 1));
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        // sold out
+                    }
+                }))
+                .toList();
+        orders.forEach(CompletableFuture::join);
+
+        assertThat(reserved.get()).isEqualTo(10);
+        assertThat(stock.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that released quantities are returned to stock in one batch.
+            """)
+    void release_Success() {
+        inventoryService.release(Map.of(2L, 1, 1L, 4));
+
+        verify(bookRepository).releaseStock(new long[] {1L, 2L}, new int[] {4, 1});
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests setting the stock of an existing book.
+            """)
+    void updateStock_Success() {
+        when(bookRepository.updateStock(1L, 7)).thenReturn(1);
+
+        BookStockResponseDto actual = inventoryService.updateStock(1L, 7);
+
+        assertThat(actual).isEqualTo(new BookStockResponseDto(1L, 7));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that setting the stock of a missing book throws EntityNotFoundException.
+            """)
+    void updateStock_withNonExistingBook_ThrowException() {
+        when(bookRepository.updateStock(99L, 7)).thenReturn(0);
+
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> inventoryService.updateStock(99L, 7));
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.onlybooks.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusRequestDto;
+import org.example.onlybooks.dto.order.BulkUpdateOrderStatusResponseDto;
+import org.example.onlybooks.dto.order.OrderStatusFilterDto;
+import org.example.onlybooks.dto.order.OrderStatusResultDto;
+import org.example.onlybooks.exception.InvalidSearchParameterException;
+import org.example.onlybooks.model.Order;
+import org.example.onlybooks.outbox.OrderOutbox;
+import org.example.onlybooks.repository.order.BookQuantity;
+import org.example.onlybooks.repository.order.OrderItemRepository;
+import org.example.onlybooks.repository.order.OrderRepository;
+import org.example.onlybooks.repository.order.OrderStatusView;
+import org.example.onlybooks.service.inventory.InventoryService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkOrderStatusServiceImplTest {
+    private static final int CHUNK_SIZE = 2;
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 10, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 10, 2, 0, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private OrderOutbox orderOutbox;
+
+    private BulkOrderStatusServiceImpl bulkOrderStatusService;
+
+    @BeforeEach
+    void setUp() {
+        bulkOrderStatusService = new BulkOrderStatusServiceImpl(orderRepository,
+                orderItemRepository, inventoryService, orderOutbox, CHUNK_SIZE);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that ids are processed in chunks and every id gets a result in request order.
+            """)
+    void updateOrderStatuses_withIds_ReturnsResultPerId() {
+        when(orderRepository.lockStatusesByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                initRow(1L, Order.Status.PENDING), initRow(2L, Order.Status.COMPLETED)));
+        when(orderRepository.lockStatusesByIdIn(List.of(3L, 4L))).thenReturn(List.of(
+                initRow(3L, Order.Status.PROCESSING)));
+        BulkUpdateOrderStatusRequestDto requestDto = new BulkUpdateOrderStatusRequestDto(
+                Order.Status.PROCESSING, List.of(1L, 2L, 3L, 4L, 1L), null);
+
+        BulkUpdateOrderStatusResponseDto actual =
+                bulkOrderStatusService.updateOrderStatuses(requestDto);
+
+        assertThat(actual.updated()).isEqualTo(1);
+        assertThat(actual.results()).containsExactly(
+                new OrderStatusResultDto(1L, Order.Status.PENDING,
+                        OrderStatusResultDto.Result.UPDATED),
+                new OrderStatusResultDto(2L, Order.Status.COMPLETED,
+                        OrderStatusResultDto.Result.INVALID_TRANSITION),
+                new OrderStatusResultDto(3L, Order.Status.PROCESSING,
+                        OrderStatusResultDto.Result.UNCHANGED),
+                new OrderStatusResultDto(4L, null, OrderStatusResultDto.Result.NOT_FOUND));
+        verify(orderRepository).updateStatusByIdIn(List.of(1L), Order.Status.PROCESSING,
+                Set.of(Order.Status.PENDING));
+        verify(orderOutbox).publishStatusChanges(Map.of(1L, Order.Status.PENDING),
+                Order.Status.PROCESSING);
+        verifyNoInteractions(inventoryService);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that canceling orders returns their summed quantities to stock.
+            """)
+    void updateOrderStatuses_toCanceled_ReleasesStock() {
+        when(orderRepository.lockStatusesByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                initRow(1L, Order.Status.PENDING), initRow(2L, Order.Status.PROCESSING)));
+        when(orderItemRepository.sumQuantitiesByOrderIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(new BookQuantity(5L, 3L)));
+        BulkUpdateOrderStatusRequestDto requestDto = new BulkUpdateOrderStatusRequestDto(
+                Order.Status.CANCELED, List.of(1L, 2L), null);
+
+        BulkUpdateOrderStatusResponseDto actual =
+                bulkOrderStatusService.updateOrderStatuses(requestDto);
+
+        assertThat(actual.updated()).isEqualTo(2);
+        verify(orderRepository).updateStatusByIdIn(List.of(1L, 2L), Order.Status.CANCELED,
+                Set.of(Order.Status.PENDING, Order.Status.PROCESSING));
+        verify(inventoryService).release(Map.of(5L, 3));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a filter is walked chunk by chunk from the last order date and id.
+            """)
+    void updateOrderStatuses_withFilter_ContinuesAfterLastRow() {
+        LocalDateTime first = FROM.plusHours(1);
+        LocalDateTime second = FROM.plusHours(2);
+        when(orderRepository.lockStatusesByStatusAndDateAfter("PROCESSING", FROM, TO,
+                FROM, 0L, CHUNK_SIZE)).thenReturn(List.of(
+                        initRow(7L, Order.Status.PROCESSING, first),
+                        initRow(3L, Order.Status.PROCESSING, second)));
+        when(orderRepository.lockStatusesByStatusAndDateAfter("PROCESSING", FROM, TO,
+                second, 3L, CHUNK_SIZE)).thenReturn(List.of(
+                        initRow(9L, Order.Status.PROCESSING, second)));
+        BulkUpdateOrderStatusRequestDto requestDto = new BulkUpdateOrderStatusRequestDto(
+                Order.Status.COMPLETED, null,
+                new OrderStatusFilterDto(Order.Status.PROCESSING, FROM, TO));
+
+        BulkUpdateOrderStatusResponseDto actual =
+                bulkOrderStatusService.updateOrderStatuses(requestDto);
+
+        assertThat(actual.updated()).isEqualTo(3);
+        assertThat(actual.results()).extracting(OrderStatusResultDto::id)
+                .containsExactly(7L, 3L, 9L);
+        verify(orderRepository).updateStatusByIdIn(List.of(7L, 3L), Order.Status.COMPLETED,
+                Set.of(Order.Status.PROCESSING));
+        verify(orderRepository).updateStatusByIdIn(List.of(9L), Order.Status.COMPLETED,
+                Set.of(Order.Status.PROCESSING));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a filter matching more orders than the id cap is rejected before locking.
+            """)
+    void updateOrderStatuses_withFilterOverCap_ThrowsException() {
+        when(orderRepository.countByStatusAndOrderDateGreaterThanEqualAndOrderDateLessThan(
+                Order.Status.PROCESSING, FROM, TO))
+                .thenReturn(BulkOrderStatusServiceImpl.MAX_ORDERS + 1L);
+        BulkUpdateOrderStatusRequestDto requestDto = new BulkUpdateOrderStatusRequestDto(
+                Order.Status.COMPLETED, null,
+                new OrderStatusFilterDto(Order.Status.PROCESSING, FROM, TO));
+
+        Assertions.assertThrows(InvalidSearchParameterException.class,
+                () -> bulkOrderStatusService.updateOrderStatuses(requestDto));
+
+        verify(orderRepository, never()).lockStatusesByStatusAndDateAfter(any(), any(), any(),
+                any(), any(), anyInt());
+        verifyNoInteractions(inventoryService, orderOutbox);
+    }
+
+    private OrderStatusView initRow(Long id, Order.Status status) {
+        return initRow(id, status, FROM);
+    }
+
+    private OrderStatusView initRow(Long id, Order.Status status, LocalDateTime orderDate) {
+        return new OrderStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getStatus() {
+                return status.name();
+            }
+
+            @Override
+            public LocalDateTime getOrderDate() {
+                return orderDate;
+            }
+        };
+    }
+}
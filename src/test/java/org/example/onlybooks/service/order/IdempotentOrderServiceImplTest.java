@@ -0,0 +1,243 @@
+package org.example.onlybooks.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.example.onlybooks.dto.order.OrderResponseDto;
+import org.example.onlybooks.dto.order.PlaceOrderRequestDto;
+import org.example.onlybooks.exception.IdempotencyKeyReusedException;
+import org.example.onlybooks.mapper.OrderIdempotencyMapper;
+import org.example.onlybooks.model.Order;
+import org.example.onlybooks.model.OrderIdempotency;
+import org.example.onlybooks.model.OrderIdempotencyId;
+import org.example.onlybooks.model.User;
+import org.example.onlybooks.repository.order.OrderIdempotencyRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotentOrderServiceImplTest {
+    private static final String KEY = "checkout-1";
+    private static final String HASH = "request-hash";
+    private static final PlaceOrderRequestDto REQUEST = new PlaceOrderRequestDto("test");
+    private static final PlaceOrderRequestDto OTHER_REQUEST = new PlaceOrderRequestDto("other");
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderIdempotencyRepository orderIdempotencyRepository;
+
+    @Mock
+    private OrderIdempotencyMapper orderIdempotencyMapper;
+
+    private IdempotentOrderServiceImpl idempotentOrderService;
+
+    @BeforeEach
+    void setUp() {
+        idempotentOrderService = new IdempotentOrderServiceImpl(orderService,
+                orderIdempotencyRepository, orderIdempotencyMapper, 100, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a request without an idempotency key places the order directly.
+            """)
+    void placeOrder_withoutKey_PlacesOrder() {
+        User user = initUser();
+        OrderResponseDto expected = initOrderResponseDto();
+        when(orderService.placeOrder(user, REQUEST)).thenReturn(expected);
+
+        OrderResponseDto actual = idempotentOrderService.placeOrder(user, REQUEST, null);
+
+        assertThat(actual).isEqualTo(expected);
+        verifyNoInteractions(orderIdempotencyRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a repeated key replays the first response from memory
+            without placing the order again.
+            """)
+    void placeOrder_withRepeatedKey_ReplaysResponse() {
+        User user = initUser();
+        OrderIdempotencyId id = new OrderIdempotencyId(user.getId(), KEY);
+        when(orderIdempotencyMapper.toRequestHash(REQUEST)).thenReturn(HASH);
+        OrderResponseDto expected = initOrderResponseDto();
+        when(orderIdempotencyRepository.findById(id)).thenReturn(Optional.empty());
+        when(orderService.placeOrder(user, REQUEST, id, HASH)).thenReturn(expected);
+
+        OrderResponseDto first = idempotentOrderService.placeOrder(user, REQUEST, KEY);
+        OrderResponseDto replay = idempotentOrderService.placeOrder(user, REQUEST, KEY);
+
+        assertThat(first).isEqualTo(expected);
+        assertThat(replay).isEqualTo(expected);
+        verify(orderService, times(1)).placeOrder(user, REQUEST, id, HASH);
+        verify(orderIdempotencyRepository, times(1)).findById(id);
+        verifyNoMoreInteractions(orderService, orderIdempotencyRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a key stored in the database replays the stored response.
+            """)
+    void placeOrder_withStoredKey_ReplaysStoredResponse() {
+        User user = initUser();
+        OrderIdempotencyId id = new OrderIdempotencyId(user.getId(), KEY);
+        when(orderIdempotencyMapper.toRequestHash(REQUEST)).thenReturn(HASH);
+        OrderIdempotency stored = new OrderIdempotency();
+        stored.setRequestHash(HASH);
+        OrderResponseDto expected = initOrderResponseDto();
+        when(orderIdempotencyRepository.findById(id)).thenReturn(Optional.of(stored));
+        when(orderIdempotencyMapper.toDto(stored)).thenReturn(expected);
+
+        OrderResponseDto actual = idempotentOrderService.placeOrder(user, REQUEST, KEY);
+
+        assertThat(actual).isEqualTo(expected);
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that losing the insert race to another node
+            returns the response stored by the winner.
+            """)
+    void placeOrder_withConcurrentInsert_ReturnsWinnerResponse() {
+        User user = initUser();
+        OrderIdempotencyId id = new OrderIdempotencyId(user.getId(), KEY);
+        when(orderIdempotencyMapper.toRequestHash(REQUEST)).thenReturn(HASH);
+        OrderIdempotency stored = new OrderIdempotency();
+        stored.setRequestHash(HASH);
+        OrderResponseDto expected = initOrderResponseDto();
+        when(orderIdempotencyRepository.findById(id))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored));
+        when(orderService.placeOrder(user, REQUEST, id, HASH))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(orderIdempotencyMapper.toDto(stored)).thenReturn(expected);
+
+        OrderResponseDto actual = idempotentOrderService.placeOrder(user, REQUEST, KEY);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that concurrent requests with the same key
+            wait for the first execution and share its response.
+            """)
+    void placeOrder_withConcurrentDuplicates_CoalescesExecution() throws Exception {
+        User user = initUser();
+        OrderIdempotencyId id = new OrderIdempotencyId(user.getId(), KEY);
+        when(orderIdempotencyMapper.toRequestHash(REQUEST)).thenReturn(HASH);
+        OrderResponseDto expected = initOrderResponseDto();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderIdempotencyRepository.findById(id)).thenReturn(Optional.empty());
+        when(orderService.placeOrder(user, REQUEST, id, HASH)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return expected;
+        });
+
+        CompletableFuture<OrderResponseDto> first = CompletableFuture.supplyAsync(() ->
+                idempotentOrderService.placeOrder(user, REQUEST, KEY));
+        started.await();
+        CompletableFuture<OrderResponseDto> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotentOrderService.placeOrder(user, REQUEST, KEY));
+        release.countDown();
+
+        assertThat(first.get()).isEqualTo(expected);
+        assertThat(duplicate.get()).isEqualTo(expected);
+        verify(orderService, times(1)).placeOrder(user, REQUEST, id, HASH);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that reusing a key with a different request is rejected
+            instead of replaying the first response.
+            """)
+    void placeOrder_withRepeatedKeyAndOtherRequest_ThrowsException() {
+        User user = initUser();
+        OrderIdempotencyId id = new OrderIdempotencyId(user.getId(), KEY);
+        when(orderIdempotencyMapper.toRequestHash(REQUEST)).thenReturn(HASH);
+        when(orderIdempotencyMapper.toRequestHash(OTHER_REQUEST)).thenReturn("other-hash");
+        when(orderIdempotencyRepository.findById(id)).thenReturn(Optional.empty());
+        when(orderService.placeOrder(user, REQUEST, id, HASH))
+                .thenReturn(initOrderResponseDto());
+
+        idempotentOrderService.placeOrder(user, REQUEST, KEY);
+
+        Assertions.assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotentOrderService.placeOrder(user, OTHER_REQUEST, KEY));
+        verify(orderService, times(1)).placeOrder(user, REQUEST, id, HASH);
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a key stored in the database for a different request
+            is rejected without placing an order.
+            """)
+    void placeOrder_withStoredKeyAndOtherRequest_ThrowsException() {
+        User user = initUser();
+        OrderIdempotencyId id = new OrderIdempotencyId(user.getId(), KEY);
+        OrderIdempotency stored = new OrderIdempotency();
+        stored.setRequestHash("other-hash");
+        when(orderIdempotencyMapper.toRequestHash(REQUEST)).thenReturn(HASH);
+        when(orderIdempotencyRepository.findById(id)).thenReturn(Optional.of(stored));
+        when(orderIdempotencyMapper.toDto(stored)).thenReturn(initOrderResponseDto());
+
+        Assertions.assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotentOrderService.placeOrder(user, REQUEST, KEY));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a stored key without a request hash still replays its response.
+            """)
+    void placeOrder_withStoredKeyWithoutHash_ReplaysStoredResponse() {
+        User user = initUser();
+        OrderIdempotencyId id = new OrderIdempotencyId(user.getId(), KEY);
+        OrderIdempotency stored = new OrderIdempotency();
+        OrderResponseDto expected = initOrderResponseDto();
+        when(orderIdempotencyMapper.toRequestHash(REQUEST)).thenReturn(HASH);
+        when(orderIdempotencyRepository.findById(id)).thenReturn(Optional.of(stored));
+        when(orderIdempotencyMapper.toDto(stored)).thenReturn(expected);
+
+        OrderResponseDto actual = idempotentOrderService.placeOrder(user, REQUEST, KEY);
+
+        assertThat(actual).isEqualTo(expected);
+        verifyNoInteractions(orderService);
+    }
+
+    private User initUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test mail");
+        return user;
+    }
+
+    private OrderResponseDto initOrderResponseDto() {
+        return new OrderResponseDto(1L, 1L, Set.of(), LocalDateTime.now(),
+                BigDecimal.valueOf(45.98), Order.Status.PENDING);
+    }
+}
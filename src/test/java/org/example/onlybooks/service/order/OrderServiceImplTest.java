@@ -2,34 +2,51 @@ package org.example.onlybooks.service.order;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.example.onlybooks.dto.order.OrderHistoryResponseDto;
 import org.example.onlybooks.dto.order.OrderItemsResponseDto;
 import org.example.onlybooks.dto.order.OrderResponseDto;
+import org.example.onlybooks.dto.order.OrderSummaryDto;
 import org.example.onlybooks.dto.order.PlaceOrderRequestDto;
 import org.example.onlybooks.dto.order.UpdateOrderStatusRequestDto;
 import org.example.onlybooks.exception.DataProcessingException;
 import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.exception.InvalidStatusTransitionException;
+import org.example.onlybooks.mapper.OrderIdempotencyMapper;
 import org.example.onlybooks.mapper.OrderItemMapper;
 import org.example.onlybooks.mapper.OrderMapper;
 import org.example.onlybooks.model.Book;
 import org.example.onlybooks.model.CartItem;
 import org.example.onlybooks.model.Order;
+import org.example.onlybooks.model.OrderEvent;
+import org.example.onlybooks.model.OrderIdempotency;
+import org.example.onlybooks.model.OrderIdempotencyId;
 import org.example.onlybooks.model.OrderItem;
 import org.example.onlybooks.model.ShoppingCart;
 import org.example.onlybooks.model.User;
+import org.example.onlybooks.outbox.OrderOutbox;
+import org.example.onlybooks.repository.order.OrderCursor;
+import org.example.onlybooks.repository.order.OrderIdempotencyRepository;
 import org.example.onlybooks.repository.order.OrderItemRepository;
 import org.example.onlybooks.repository.order.OrderRepository;
+import org.example.onlybooks.repository.shoppingcart.CartItemRepository;
 import org.example.onlybooks.repository.shoppingcart.ShoppingCartRepository;
+import org.example.onlybooks.service.inventory.InventoryService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,9 +54,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 @ExtendWith(MockitoExtension.class)
 public class OrderServiceImplTest {
+    private static final Pageable PAGEABLE = PageRequest.of(0, 2);
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -58,6 +80,21 @@ public class OrderServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private OrderIdempotencyRepository orderIdempotencyRepository;
+
+    @Mock
+    private OrderIdempotencyMapper orderIdempotencyMapper;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private OrderOutbox orderOutbox;
+
     @Test
     @DisplayName("""
             Tests placing an order successfully when the shopping cart contains items.
@@ -85,15 +122,47 @@ public class OrderServiceImplTest {
 
         OrderResponseDto actual = orderService.placeOrder(user, requestDto);
 
-        assertThat(shoppingCart.getCartItems()).isEmpty();
         assertThat(actual.userId()).isEqualTo(user.getId());
         assertThat(actual.orderItems()).hasSize(1);
 
+        verify(inventoryService).reserve(Map.of(cartItem.getBook().getId(),
+                cartItem.getQuantity()));
         verify(orderRepository).save(any(Order.class));
-        verify(shoppingCartRepository).save(shoppingCart);
+        verify(shoppingCartRepository).findByUserIdFetchCartItemsAndBooks(user.getId());
+        verify(cartItemRepository).deleteAllByShoppingCartId(shoppingCart.getId());
+        verify(orderOutbox).publish(any(Order.class), eq(OrderEvent.Type.ORDER_PLACED));
+        verifyNoMoreInteractions(shoppingCartRepository);
         verify(orderMapper).toDto(any(Order.class));
     }
 
+    @Test
+    @DisplayName("""
+            Tests that placing an order with an idempotency key stores
+            the response in the same transaction as the order.
+            """)
+    void placeOrder_withIdempotencyKey_StoresResponse() {
+        ShoppingCart shoppingCart = initShoppingCart();
+        CartItem cartItem = initCartItem();
+        cartItem.setShoppingCart(shoppingCart);
+        shoppingCart.setCartItems(new HashSet<>(Set.of(cartItem)));
+        User user = initUser();
+        OrderIdempotencyId idempotencyId = new OrderIdempotencyId(user.getId(), "key");
+        OrderIdempotency idempotency = new OrderIdempotency();
+
+        when(shoppingCartRepository.findByUserIdFetchCartItemsAndBooks(user.getId()))
+                .thenReturn(Optional.of(shoppingCart));
+        when(orderMapper.toDto(any(Order.class))).thenAnswer(invocation ->
+                initOrderResponseDto(invocation.getArgument(0)));
+        when(orderIdempotencyMapper.toEntity(any(), any(), any())).thenReturn(idempotency);
+
+        OrderResponseDto actual = orderService
+                .placeOrder(user, new PlaceOrderRequestDto("test"), idempotencyId, "hash");
+
+        verify(orderIdempotencyMapper).toEntity(idempotencyId, "hash", actual);
+        verify(orderIdempotencyRepository).saveAndFlush(idempotency);
+        verifyNoMoreInteractions(orderIdempotencyRepository);
+    }
+
     @Test
     @DisplayName("""
             Tests that placing an order with an empty 
@@ -150,29 +219,107 @@ public class OrderServiceImplTest {
             """)
     void getAllOrders_Success() {
         User user = initUser();
+        LocalDateTime orderDate = LocalDateTime.of(2024, 12, 28, 14, 30);
+        OrderSummaryDto newest = new OrderSummaryDto(3L, orderDate,
+                BigDecimal.valueOf(100.50), Order.Status.PENDING, 2);
+        OrderSummaryDto older = new OrderSummaryDto(2L, orderDate.minusDays(1),
+                BigDecimal.valueOf(45.98), Order.Status.COMPLETED, 1);
+        OrderSummaryDto oldest = new OrderSummaryDto(1L, orderDate.minusDays(2),
+                BigDecimal.valueOf(45.98), Order.Status.COMPLETED, 1);
+
+        when(orderRepository.findSummariesByUserId(user.getId(), Limit.of(3)))
+                .thenReturn(List.of(newest, older, oldest));
+
+        OrderHistoryResponseDto actual = orderService.getAllOrders(user, null, PAGEABLE);
+
+        assertThat(actual.orders()).containsExactly(newest, older);
+        assertThat(OrderCursor.decode(actual.nextToken()))
+                .isEqualTo(new OrderCursor(older.orderDate(), older.id()));
+        verify(orderRepository).findSummariesByUserId(user.getId(), Limit.of(3));
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that the continuation token resumes the order history
+            after the last returned order and that the last page has no token.
+            """)
+    void getAllOrders_withContinuationToken_Success() {
+        User user = initUser();
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2024, 12, 27, 14, 30), 2L);
+        OrderSummaryDto oldest = new OrderSummaryDto(1L, cursor.orderDate().minusDays(1),
+                BigDecimal.valueOf(45.98), Order.Status.COMPLETED, 1);
+
+        when(orderRepository.findSummariesByUserIdAfter(user.getId(),
+                cursor.orderDate(), cursor.id(), Limit.of(3)))
+                .thenReturn(List.of(oldest));
+
+        OrderHistoryResponseDto actual = orderService
+                .getAllOrders(user, cursor.encode(), PAGEABLE);
+
+        assertThat(actual.orders()).containsExactly(oldest);
+        assertThat(actual.nextToken()).isNull();
+        verify(orderRepository).findSummariesByUserIdAfter(user.getId(),
+                cursor.orderDate(), cursor.id(), Limit.of(3));
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that canceling an order returns its quantities to stock.
+            """)
+    void updateStatus_toCanceled_ReleasesStock() {
+        User user = initUser();
+        Order order = initOrder(user);
+        UpdateOrderStatusRequestDto request =
+                new UpdateOrderStatusRequestDto(Order.Status.CANCELED);
+        when(orderRepository.findByIdForUpdate(order.getId())).thenReturn(Optional.of(order));
 
-        Order firstOrder = initOrder(user);
-        Order secondOrder = initOrder(user);
+        orderService.updateOrderStatus(order.getId(), request);
 
-        OrderItem firstItem = initOrderItem();
-        OrderItem secondItem = initSecondOrderItem();
+        OrderItem orderItem = order.getOrderItems().iterator().next();
+        assertThat(order.getStatus()).isEqualTo(Order.Status.CANCELED);
+        verify(inventoryService).release(Map.of(orderItem.getBook().getId(),
+                orderItem.getQuantity()));
+    }
 
-        secondOrder.setId(2L);
-        secondOrder.setOrderItems(Set.of(firstItem, secondItem));
+    @Test
+    @DisplayName("""
+            Tests that canceling an order twice returns its quantities to stock only once.
+            """)
+    void updateStatus_cancelTwice_ReleasesStockOnce() {
+        User user = initUser();
+        Order order = initOrder(user);
+        UpdateOrderStatusRequestDto request =
+                new UpdateOrderStatusRequestDto(Order.Status.CANCELED);
+        when(orderRepository.findByIdForUpdate(order.getId())).thenReturn(Optional.of(order));
 
-        OrderResponseDto firstResponse = initOrderResponseDto(firstOrder);
-        OrderResponseDto secondResponse = initOrderResponseDto(secondOrder);
+        orderService.updateOrderStatus(order.getId(), request);
+        orderService.updateOrderStatus(order.getId(), request);
 
-        List<OrderResponseDto> expected = List.of(firstResponse, secondResponse);
+        verify(inventoryService, times(1)).release(any());
+        verify(orderRepository, times(1)).save(order);
+        verify(orderOutbox, times(1)).publishStatusChange(order, Order.Status.PENDING);
+    }
 
-        when(orderRepository.findAllByUserId(user.getId()))
-                .thenReturn(List.of(firstOrder, secondOrder));
-        when(orderMapper.toDto(firstOrder)).thenReturn(firstResponse);
-        when(orderMapper.toDto(secondOrder)).thenReturn(secondResponse);
+    @Test
+    @DisplayName("""
+            Tests that a status change not allowed from the current status is rejected
+            without touching the order or the stock.
+            """)
+    void updateStatus_withInvalidTransition_ThrowException() {
+        User user = initUser();
+        Order order = initOrder(user);
+        order.setStatus(Order.Status.CANCELED);
+        UpdateOrderStatusRequestDto request = new UpdateOrderStatusRequestDto(Order.Status.PENDING);
+        when(orderRepository.findByIdForUpdate(order.getId())).thenReturn(Optional.of(order));
 
-        List<OrderResponseDto> actual = orderService.getAllOrders(user);
+        Assertions.assertThrows(InvalidStatusTransitionException.class, () ->
+                orderService.updateOrderStatus(order.getId(), request));
 
-        assertThat(actual).isEqualTo(expected);
+        assertThat(order.getStatus()).isEqualTo(Order.Status.CANCELED);
+        verifyNoInteractions(inventoryService, orderOutbox);
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
@@ -183,9 +330,9 @@ public class OrderServiceImplTest {
         User user = initUser();
         Order order = initOrder(user);
 
-        UpdateOrderStatusRequestDto request = new UpdateOrderStatusRequestDto(Order.Status.PENDING);
-        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
-        order.setStatus(request.status());
+        UpdateOrderStatusRequestDto request =
+                new UpdateOrderStatusRequestDto(Order.Status.PROCESSING);
+        when(orderRepository.findByIdForUpdate(order.getId())).thenReturn(Optional.of(order));
 
         OrderResponseDto expected = initOrderResponseDto(order);
 
@@ -195,9 +342,11 @@ public class OrderServiceImplTest {
         OrderResponseDto actual = orderService.updateOrderStatus(order.getId(), request);
 
         assertThat(actual).isEqualTo(expected);
+        assertThat(order.getStatus()).isEqualTo(Order.Status.PROCESSING);
 
-        verify(orderRepository).findById(order.getId());
+        verify(orderRepository).findByIdForUpdate(order.getId());
         verify(orderRepository).save(order);
+        verify(orderOutbox).publishStatusChange(order, Order.Status.PENDING);
         verify(orderMapper).toDto(order);
     }
 
@@ -210,7 +359,7 @@ public class OrderServiceImplTest {
         User user = initUser();
         Order order = initOrder(user);
         UpdateOrderStatusRequestDto request = new UpdateOrderStatusRequestDto(Order.Status.PENDING);
-        when(orderRepository.findById(order.getId())).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(order.getId())).thenReturn(Optional.empty());
         Assertions.assertThrows(EntityNotFoundException.class, () ->
                 orderService.updateOrderStatus(order.getId(), request));
     }
@@ -0,0 +1,79 @@
+package org.example.onlybooks.service.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.example.onlybooks.dto.book.RelatedBookResponseDto;
+import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.repository.book.BookRepository;
+import org.example.onlybooks.repository.order.OrderEventRepository;
+import org.example.onlybooks.repository.order.OrderItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class RecommendationServiceImplTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    private RecommendationServiceImpl recommendationService;
+
+    @BeforeEach
+    void setUp() {
+        RelatedBooksIndex relatedBooksIndex = new RelatedBooksIndex(20, 50);
+        relatedBooksIndex.apply(1L, List.of(1L, 2L, 3L), 1);
+        relatedBooksIndex.apply(2L, List.of(1L, 3L), 1);
+        recommendationService = new RecommendationServiceImpl(relatedBooksIndex,
+                bookRepository, orderItemRepository, orderEventRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that related books come back in ranking order with their counts.
+            """)
+    void getRelatedBooks_withExistingBook_ReturnsRankedBooks() {
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(bookRepository.findAllById(List.of(3L, 2L)))
+                .thenReturn(List.of(initBook(2L), initBook(3L)));
+
+        List<RelatedBookResponseDto> actual = recommendationService.getRelatedBooks(1L, 10);
+
+        assertThat(actual).extracting(RelatedBookResponseDto::id).containsExactly(3L, 2L);
+        assertThat(actual).extracting(RelatedBookResponseDto::boughtTogether)
+                .containsExactly(2, 1);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that asking for books related to an unknown book fails.
+            """)
+    void getRelatedBooks_withMissingBook_ThrowsException() {
+        when(bookRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> recommendationService.getRelatedBooks(99L, 10));
+    }
+
+    private Book initBook(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Book " + id);
+        book.setAuthor("Author");
+        book.setPrice(BigDecimal.TEN);
+        return book;
+    }
+}
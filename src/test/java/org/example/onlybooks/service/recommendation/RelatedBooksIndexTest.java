@@ -0,0 +1,139 @@
+package org.example.onlybooks.service.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.example.onlybooks.repository.order.OrderedBook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RelatedBooksIndexTest {
+    private final RelatedBooksIndex relatedBooksIndex = new RelatedBooksIndex(20, 50);
+
+    @Test
+    @DisplayName("""
+            Tests that related books are ranked by how many orders contain both books,
+            ties going to the lower id.
+            """)
+    void findRelated_RanksByOrdersTogether() {
+        relatedBooksIndex.apply(1L, List.of(1L, 2L, 3L), 1);
+        relatedBooksIndex.apply(2L, List.of(1L, 3L), 1);
+        relatedBooksIndex.apply(3L, List.of(1L, 4L, 2L), 1);
+        relatedBooksIndex.apply(4L, List.of(1L, 5L), 1);
+
+        assertThat(relatedBooksIndex.findRelated(1L, 3)).containsExactly(2L, 3L, 4L);
+        assertThat(relatedBooksIndex.countTogether(1L, 3L)).isEqualTo(2);
+        assertThat(relatedBooksIndex.findRelated(99L, 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that removing an order takes its pairs out of the cached ranking.
+            """)
+    void apply_withNegativeDelta_RemovesPairs() {
+        relatedBooksIndex.apply(1L, List.of(1L, 2L, 2L), 1);
+        relatedBooksIndex.apply(2L, List.of(1L, 3L), 1);
+        relatedBooksIndex.findRelated(1L, 5);
+
+        relatedBooksIndex.apply(3L, List.of(1L, 2L), -1);
+
+        assertThat(relatedBooksIndex.findRelated(1L, 5)).containsExactly(3L);
+        assertThat(relatedBooksIndex.findRelated(2L, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a rebuild replaces the counts with the streamed orders.
+            """)
+    void rebuild_ReplacesCounts() {
+        relatedBooksIndex.apply(9L, List.of(7L, 8L), 1);
+
+        relatedBooksIndex.rebuild(Set::of, () -> Stream.of(
+                new OrderedBook(1L, 1L), new OrderedBook(1L, 2L),
+                new OrderedBook(2L, 1L), new OrderedBook(2L, 2L), new OrderedBook(2L, 3L)));
+
+        assertThat(relatedBooksIndex.findRelated(1L, 5)).containsExactly(2L, 3L);
+        assertThat(relatedBooksIndex.countTogether(1L, 2L)).isEqualTo(2);
+        assertThat(relatedBooksIndex.findRelated(7L, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that orders applied while a rebuild streams are replayed on the new counts.
+            """)
+    void rebuild_withConcurrentUpdates_ReplaysThem() {
+        Stream<OrderedBook> orderedBooks = Stream.of(
+                new OrderedBook(1L, 1L), new OrderedBook(1L, 2L),
+                new OrderedBook(2L, 1L), new OrderedBook(2L, 3L))
+                .peek(orderedBook -> {
+                    if (orderedBook.orderId() == 2L && orderedBook.bookId() == 3L) {
+                        relatedBooksIndex.apply(10L, List.of(1L, 2L), -1);
+                        relatedBooksIndex.apply(11L, List.of(1L, 4L), 1);
+                    }
+                });
+
+        relatedBooksIndex.rebuild(Set::of, () -> orderedBooks);
+
+        assertThat(relatedBooksIndex.findRelated(1L, 5)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that events still in the outbox when the snapshot is taken are neither
+            replayed nor applied again when delivered after the rebuild, so a placed order is
+            not counted twice and a canceled one is not subtracted from the snapshot.
+            """)
+    void rebuild_withEventsPendingAtSnapshot_SkipsThem() {
+        Set<Long> pendingEventIds = Set.of(20L, 21L, 22L);
+        Stream<OrderedBook> orderedBooks = Stream.of(
+                new OrderedBook(1L, 1L), new OrderedBook(1L, 2L),
+                new OrderedBook(2L, 1L), new OrderedBook(2L, 3L))
+                .peek(orderedBook -> {
+                    if (orderedBook.orderId() == 2L && orderedBook.bookId() == 3L) {
+                        relatedBooksIndex.apply(20L, List.of(1L, 2L), 1);
+                    }
+                });
+
+        relatedBooksIndex.rebuild(() -> pendingEventIds, () -> orderedBooks);
+        relatedBooksIndex.apply(21L, List.of(1L, 3L), 1);
+        relatedBooksIndex.apply(22L, List.of(1L, 4L), -1);
+        relatedBooksIndex.apply(23L, List.of(1L, 4L), 1);
+
+        assertThat(relatedBooksIndex.countTogether(1L, 2L)).isEqualTo(1);
+        assertThat(relatedBooksIndex.countTogether(1L, 3L)).isEqualTo(1);
+        assertThat(relatedBooksIndex.countTogether(1L, 4L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that an event delivered again, also after a rebuild replayed it,
+            adds its pairs only once.
+            """)
+    void apply_withRedeliveredEvent_CountsOnce() {
+        relatedBooksIndex.apply(20L, List.of(1L, 2L), 1);
+        relatedBooksIndex.apply(20L, List.of(1L, 2L), 1);
+        Stream<OrderedBook> orderedBooks = Stream.of(new OrderedBook(1L, 1L))
+                .peek(orderedBook -> relatedBooksIndex.apply(21L, List.of(1L, 3L), 1));
+
+        relatedBooksIndex.rebuild(Set::of, () -> orderedBooks);
+        relatedBooksIndex.apply(21L, List.of(1L, 3L), 1);
+
+        assertThat(relatedBooksIndex.countTogether(1L, 2L)).isZero();
+        assertThat(relatedBooksIndex.countTogether(1L, 3L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that counted events no longer in the outbox are forgotten.
+            """)
+    void retainCounted_ForgetsDeliveredEvents() {
+        relatedBooksIndex.rebuild(() -> Set.of(20L), Stream::empty);
+
+        relatedBooksIndex.retainCounted(Set::of);
+        relatedBooksIndex.apply(20L, List.of(1L, 2L), 1);
+
+        assertThat(relatedBooksIndex.countTogether(1L, 2L)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.onlybooks.service.sales;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.example.onlybooks.model.SalesScope;
+import org.example.onlybooks.repository.sales.OrderSale;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SalesAggregatorTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 12, 28);
+
+    private final SalesAggregator salesAggregator = new SalesAggregator();
+
+    @Test
+    @DisplayName("""
+            Tests that a checkpoint hands over the pending deltas and that a failed checkpoint
+            puts them back in front of deltas applied meanwhile.
+            """)
+    void drainPending_thenRestore_KeepsAllDeltas() {
+        salesAggregator.apply(1L, initSale(1L, 2), 1);
+        Map<SalesScope, SalesTotals> drained = salesAggregator.drainPending();
+        salesAggregator.apply(2L, initSale(2L, 3), 1);
+
+        salesAggregator.restorePending(drained);
+
+        assertThat(salesAggregator.drainPending().get(SalesScope.BOOK).get(10L).units())
+                .isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that reloading keeps the deltas that have not been checkpointed yet.
+            """)
+    void reload_AddsPendingToStoredTotals() {
+        salesAggregator.apply(1L, initSale(1L, 2), 1);
+        Map<SalesScope, SalesTotals> stored = SalesAggregator.newTotals();
+        stored.get(SalesScope.BOOK).add(10L, 4, 7, 700);
+
+        salesAggregator.reload(stored);
+
+        assertThat(salesAggregator.get(SalesScope.BOOK, 10L).units()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that sales applied during a rebuild are replayed unless the snapshot already
+            counts them, and that such events are skipped when delivered later.
+            """)
+    void completeRebuild_ReplaysOnlySalesMissingFromSnapshot() {
+        salesAggregator.apply(1L, initSale(1L, 100), 1);
+        Set<Long> snapshotEventIds = new HashSet<>(Set.of(2L, 3L));
+        salesAggregator.beginRebuild(() -> snapshotEventIds);
+        salesAggregator.apply(2L, initSale(2L, 1), 1);
+        salesAggregator.apply(4L, initSale(4L, 5), 1);
+        Map<SalesScope, SalesTotals> rebuilt = SalesAggregator.newTotals();
+        rebuilt.get(SalesScope.BOOK).add(10L, 3, 10, 1000);
+
+        salesAggregator.completeRebuild(rebuilt);
+        salesAggregator.apply(3L, initSale(3L, 7), 1);
+        salesAggregator.apply(4L, initSale(4L, 5), 1);
+
+        assertThat(salesAggregator.get(SalesScope.BOOK, 10L).units()).isEqualTo(15);
+        assertThat(salesAggregator.drainPending().get(SalesScope.BOOK).get(10L).units())
+                .isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that an event delivered again is counted only once.
+            """)
+    void apply_withRedeliveredEvent_CountsOnce() {
+        salesAggregator.apply(1L, initSale(1L, 2), 1);
+        salesAggregator.apply(1L, initSale(1L, 2), 1);
+
+        assertThat(salesAggregator.get(SalesScope.BOOK, 10L).units()).isEqualTo(2);
+        assertThat(salesAggregator.drainPending().get(SalesScope.BOOK).get(10L).units())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that counted events that left the outbox are forgotten, while events
+            still in the outbox stay counted.
+            """)
+    void retainCounted_ForgetsEventsNoLongerPending() {
+        salesAggregator.beginRebuild(() -> new HashSet<>(Set.of(2L, 3L)));
+        salesAggregator.completeRebuild(SalesAggregator.newTotals());
+        salesAggregator.apply(5L, initSale(5L, 1), 1);
+
+        salesAggregator.retainCounted(() -> Set.of(3L, 5L));
+        salesAggregator.apply(2L, initSale(2L, 4), 1);
+        salesAggregator.apply(3L, initSale(3L, 7), 1);
+        salesAggregator.apply(5L, initSale(5L, 1), 1);
+
+        assertThat(salesAggregator.get(SalesScope.BOOK, 10L).units()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that an aborted rebuild leaves the totals untouched.
+            """)
+    void abortRebuild_KeepsTotals() {
+        salesAggregator.apply(1L, initSale(1L, 2), 1);
+        salesAggregator.beginRebuild(Set::of);
+        salesAggregator.apply(2L, initSale(2L, 3), 1);
+
+        salesAggregator.abortRebuild();
+
+        assertThat(salesAggregator.get(SalesScope.BOOK, 10L).units()).isEqualTo(5);
+    }
+
+    private OrderSale initSale(Long orderId, int quantity) {
+        return new OrderSale(orderId, DAY,
+                List.of(new OrderSale.Line(10L, quantity, quantity * 100L, List.of(1L))));
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.onlybooks.service.sales;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.example.onlybooks.model.SalesScope;
+import org.example.onlybooks.repository.sales.OrderSale;
+import org.example.onlybooks.repository.sales.SalesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class SalesCheckpointerTest {
+    private static final OrderSale SALE = new OrderSale(1L, LocalDate.of(2024, 12, 28),
+            List.of(new OrderSale.Line(10L, 2, 200, List.of(1L))));
+
+    @Mock
+    private SalesRepository salesRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SalesAggregator salesAggregator;
+
+    private SalesCheckpointer salesCheckpointer;
+
+    @BeforeEach
+    void setUp() {
+        salesAggregator = new SalesAggregator();
+        salesCheckpointer = new SalesCheckpointer(salesAggregator, salesRepository,
+                transactionManager);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a checkpoint adds the pending deltas while the stored totals
+            are still of the generation this instance loaded.
+            """)
+    void checkpoint_withSameGeneration_AddsPending() {
+        when(salesRepository.lockGeneration()).thenReturn(3L);
+        when(salesRepository.findPendingEventIds()).thenReturn(Set.of());
+        salesCheckpointer.load();
+        salesAggregator.apply(1L, SALE, 1);
+
+        salesCheckpointer.checkpoint();
+
+        verify(salesRepository).addTotals(any());
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a checkpoint after another instance rebuilt the totals drops the
+            pending deltas, which the rebuild already counted, and reloads the stored totals.
+            """)
+    void checkpoint_afterRebuildElsewhere_DropsPending() {
+        when(salesRepository.lockGeneration()).thenReturn(3L).thenReturn(4L);
+        when(salesRepository.findPendingEventIds()).thenReturn(Set.of());
+        salesCheckpointer.load();
+        salesAggregator.apply(1L, SALE, 1);
+
+        salesCheckpointer.checkpoint();
+
+        verify(salesRepository, never()).addTotals(any());
+        assertThat(salesAggregator.get(SalesScope.BOOK, 10L).units()).isZero();
+        assertThat(salesAggregator.drainPending().get(SalesScope.BOOK).size()).isZero();
+    }
+}
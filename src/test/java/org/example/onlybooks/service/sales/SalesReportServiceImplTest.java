@@ -0,0 +1,161 @@
+package org.example.onlybooks.service.sales;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.example.onlybooks.dto.sales.BestsellerResponseDto;
+import org.example.onlybooks.dto.sales.CategorySalesResponseDto;
+import org.example.onlybooks.dto.sales.DailySalesResponseDto;
+import org.example.onlybooks.exception.InvalidSearchParameterException;
+import org.example.onlybooks.model.Book;
+import org.example.onlybooks.model.Category;
+import org.example.onlybooks.repository.book.BookRepository;
+import org.example.onlybooks.repository.category.CategoryRepository;
+import org.example.onlybooks.repository.sales.OrderSale;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class SalesReportServiceImplTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 12, 28);
+    private static final long FICTION = 1L;
+    private static final long HISTORY = 2L;
+
+    @Mock
+    private SalesCheckpointer salesCheckpointer;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private SalesAggregator salesAggregator;
+
+    private SalesReportServiceImpl salesReportService;
+
+    @BeforeEach
+    void setUp() {
+        salesAggregator = new SalesAggregator();
+        salesReportService = new SalesReportServiceImpl(salesAggregator, salesCheckpointer,
+                bookRepository, categoryRepository, 31);
+        salesAggregator.apply(1L, new OrderSale(1L, DAY, List.of(
+                new OrderSale.Line(10L, 2, 2000, List.of(FICTION)),
+                new OrderSale.Line(20L, 1, 1500, List.of(FICTION, HISTORY)))), 1);
+        salesAggregator.apply(2L, new OrderSale(2L, DAY.plusDays(1), List.of(
+                new OrderSale.Line(20L, 3, 4500, List.of(FICTION, HISTORY)))), 1);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that best sellers are ranked by copies sold across all categories.
+            """)
+    void getBestsellers_withoutCategory_RanksByUnits() {
+        when(bookRepository.findAllById(List.of(20L, 10L)))
+                .thenReturn(List.of(initBook(10L), initBook(20L)));
+
+        List<BestsellerResponseDto> actual = salesReportService.getBestsellers(null, 10);
+
+        assertThat(actual).extracting(BestsellerResponseDto::bookId).containsExactly(20L, 10L);
+        assertThat(actual.get(0).unitsSold()).isEqualTo(4);
+        assertThat(actual.get(0).revenue()).isEqualByComparingTo("60.00");
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that best sellers of a category include only books in that category.
+            """)
+    void getBestsellers_withCategory_OnlyBooksInCategory() {
+        when(bookRepository.findAllById(List.of(20L))).thenReturn(List.of(initBook(20L)));
+
+        List<BestsellerResponseDto> actual = salesReportService.getBestsellers(HISTORY, 10);
+
+        assertThat(actual).extracting(BestsellerResponseDto::bookId).containsExactly(20L);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a canceled order is taken back out of the totals.
+            """)
+    void getDailySales_afterCancel_ExcludesCanceledOrder() {
+        salesAggregator.apply(3L, new OrderSale(2L, DAY.plusDays(1), List.of(
+                new OrderSale.Line(20L, 3, 4500, List.of(FICTION, HISTORY)))), -1);
+
+        List<DailySalesResponseDto> actual =
+                salesReportService.getDailySales(DAY, DAY.plusDays(1));
+
+        assertThat(actual).containsExactly(
+                new DailySalesResponseDto(DAY, 1, 3, BigDecimal.valueOf(3500, 2)),
+                new DailySalesResponseDto(DAY.plusDays(1), 0, 0, BigDecimal.valueOf(0, 2)));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a range longer than the configured maximum is rejected.
+            """)
+    void getDailySales_withTooLongRange_ThrowsException() {
+        Assertions.assertThrows(InvalidSearchParameterException.class,
+                () -> salesReportService.getDailySales(DAY, DAY.plusDays(31)));
+        assertThat(salesReportService.getDailySales(DAY, DAY.plusDays(30))).hasSize(31);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that an end date before the start date is rejected.
+            """)
+    void getDailySales_withEndBeforeStart_ThrowsException() {
+        Assertions.assertThrows(InvalidSearchParameterException.class,
+                () -> salesReportService.getDailySales(DAY, DAY.minusDays(1)));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that category totals count an order once per category, highest revenue first.
+            """)
+    void getCategorySales_CountsOrderOncePerCategory() {
+        when(categoryRepository.findAllById(List.of(FICTION, HISTORY)))
+                .thenReturn(List.of(initCategory(FICTION, "Fiction"),
+                        initCategory(HISTORY, "History")));
+
+        List<CategorySalesResponseDto> actual = salesReportService.getCategorySales();
+
+        assertThat(actual).containsExactly(
+                new CategorySalesResponseDto(FICTION, "Fiction", 2, 6,
+                        BigDecimal.valueOf(8000, 2)),
+                new CategorySalesResponseDto(HISTORY, "History", 2, 4,
+                        BigDecimal.valueOf(6000, 2)));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a rebuild is delegated to the checkpointer.
+            """)
+    void rebuild_DelegatesToCheckpointer() {
+        salesReportService.rebuild();
+
+        verify(salesCheckpointer).rebuild();
+    }
+
+    private Book initBook(Long id) {
+        Book book = new Book(id);
+        book.setTitle("Book " + id);
+        book.setAuthor("Author");
+        book.setPrice(BigDecimal.TEN);
+        return book;
+    }
+
+    private Category initCategory(Long id, String name) {
+        Category category = new Category(id);
+        category.setName(name);
+        return category;
+    }
+}
@@ -16,6 +16,7 @@ import org.example.onlybooks.dto.cartitem.CartItemResponseDto;
 import org.example.onlybooks.dto.cartitem.UpdateCartItemRequestDto;
 import org.example.onlybooks.dto.shoppingcart.ShoppingCartResponseDto;
 import org.example.onlybooks.exception.EntityNotFoundException;
+import org.example.onlybooks.mapper.CartItemMapper;
 import org.example.onlybooks.mapper.ShoppingCartMapper;
 import org.example.onlybooks.model.Book;
 import org.example.onlybooks.model.CartItem;
@@ -50,6 +51,9 @@ public class ShoppingCartServiceImplTest {
     @Mock
     private ShoppingCartMapper shoppingCartMapper;
 
+    @Mock
+    private CartItemMapper cartItemMapper;
+
     @Test
     @DisplayName("""
             Retrieve a shopping cart with items 
@@ -109,45 +113,34 @@ public class ShoppingCartServiceImplTest {
 
     @Test
     @DisplayName("""
-            Add a book to the shopping cart where the item already exists. 
-            The quantity of the existing item is updated successfully.
+            Add a book to the shopping cart. The quantity is upserted
+            and only the changed cart item is returned.
             """)
-    void addCartItem_ifItemExist_Success() {
-        ShoppingCart shoppingCart = initShoppingCart();
-
-        CartItem cartItem = initCartItem();
-        cartItem.setShoppingCart(shoppingCart);
-
-        Set<CartItem> cartItems = Set.of(cartItem);
-        shoppingCart.setCartItems(cartItems);
-
-        Book book = initBook();
+    void addCartItem_Success() {
         User user = initUser();
-
+        CartItem cartItem = initCartItem();
         CartItemRequestDto cartItemRequestDto = new CartItemRequestDto(1L, 5);
-
-        when(bookRepository.findById(cartItemRequestDto.bookId())).thenReturn(Optional.of(book));
-        when(shoppingCartRepository.findByUserIdFetchCartItemsAndBooks(user.getId()))
-                .thenReturn(Optional.of(shoppingCart));
-
         cartItem.setQuantity(cartItem.getQuantity() + cartItemRequestDto.quantity());
+        CartItemResponseDto expected = initCartItemResponseDto(cartItem);
 
-        CartItemResponseDto cartItemResponseDto = initCartItemResponseDto(cartItem);
-
-        ShoppingCartResponseDto expected = initResponseDto(shoppingCart,
-                Set.of(cartItemResponseDto));
-
-        when(shoppingCartRepository.save(shoppingCart)).thenReturn(shoppingCart);
-        when(shoppingCartMapper.toDto(shoppingCart)).thenReturn(expected);
+        when(bookRepository.existsById(cartItemRequestDto.bookId())).thenReturn(true);
+        when(cartItemRepository.addQuantity(user.getId(), cartItemRequestDto.bookId(),
+                cartItemRequestDto.quantity())).thenReturn(2);
+        when(cartItemRepository.findByShoppingCartIdAndBookIdFetchBook(user.getId(),
+                cartItemRequestDto.bookId())).thenReturn(Optional.of(cartItem));
+        when(cartItemMapper.toDto(cartItem)).thenReturn(expected);
 
-        ShoppingCartResponseDto actual = shoppingCartService
+        CartItemResponseDto actual = shoppingCartService
                 .addBookToShoppingCart(user, cartItemRequestDto);
 
         assertThat(actual).isEqualTo(expected);
-        verify(bookRepository, times(1)).findById(cartItemRequestDto.bookId());
-        verify(shoppingCartRepository, times(1)).findByUserIdFetchCartItemsAndBooks(user.getId());
-        verify(shoppingCartRepository, times(1)).save(shoppingCart);
-        verify(shoppingCartMapper, times(1)).toDto(shoppingCart);
+        verify(bookRepository, times(1)).existsById(cartItemRequestDto.bookId());
+        verify(cartItemRepository, times(1)).addQuantity(user.getId(),
+                cartItemRequestDto.bookId(), cartItemRequestDto.quantity());
+        verify(cartItemRepository, times(1)).findByShoppingCartIdAndBookIdFetchBook(
+                user.getId(), cartItemRequestDto.bookId());
+        verify(cartItemMapper, times(1)).toDto(cartItem);
+        verifyNoMoreInteractions(cartItemRepository);
         verifyNoMoreInteractions(shoppingCartRepository);
     }
 
@@ -160,9 +153,10 @@ public class ShoppingCartServiceImplTest {
     void addCartItem_withNonExistingBookId_ThrowException() {
         CartItemRequestDto cartItemRequestDto = new CartItemRequestDto(89L, 2);
 
-        when(bookRepository.findById(cartItemRequestDto.bookId())).thenReturn(Optional.empty());
+        when(bookRepository.existsById(cartItemRequestDto.bookId())).thenReturn(false);
         Assertions.assertThrows(EntityNotFoundException.class, () ->
                 shoppingCartService.addBookToShoppingCart(initUser(), cartItemRequestDto));
+        verifyNoMoreInteractions(cartItemRepository);
     }
 
     @Test
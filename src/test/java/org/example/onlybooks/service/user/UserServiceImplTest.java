@@ -16,6 +16,7 @@ import org.example.onlybooks.model.Role;
 import org.example.onlybooks.model.User;
 import org.example.onlybooks.repository.role.RoleRepository;
 import org.example.onlybooks.repository.user.UserRepository;
+import org.example.onlybooks.security.TokenRevocationList;
 import org.example.onlybooks.service.shoppingcart.ShoppingCartService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -46,6 +47,9 @@ public class UserServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
     @Test
     @DisplayName("""
             Test that registering a new user 
@@ -100,6 +104,17 @@ public class UserServiceImplTest {
                 userService.register(registerUserRequestDto));
     }
 
+    @Test
+    @DisplayName("""
+            Test that revoking tokens of a user adds the user to the revocation list
+            """)
+    void revokeTokens_Success() {
+        userService.revokeTokens(1L);
+
+        verify(tokenRevocationList, times(1)).revoke(1L);
+        verifyNoMoreInteractions(tokenRevocationList);
+    }
+
     private RegisterUserRequestDto initRequestDto() {
         RegisterUserRequestDto registerUserRequestDto = new RegisterUserRequestDto();
         registerUserRequestDto.setEmail("test mail");
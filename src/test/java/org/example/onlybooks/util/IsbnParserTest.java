@@ -0,0 +1,48 @@
+package org.example.onlybooks.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class IsbnParserTest {
+    @ParameterizedTest
+    @DisplayName("""
+            Valid ISBN-10 and ISBN-13 in any hyphenation are parsed
+            into the same canonical ISBN-13.
+            """)
+    @CsvSource({
+            "978-3-16-148410-0, 9783161484100",
+            "9783161484100, 9783161484100",
+            "978 3 16 148410 0, 9783161484100",
+            "0-306-40615-2, 9780306406157",
+            "0306406152, 9780306406157",
+            "0-8044-2957-X, 9780804429573",
+            "080442957x, 9780804429573",
+            "979-10-90636-07-1, 9791090636071"
+    })
+    void parse_ValidIsbn_ReturnsCanonicalIsbn13(String isbn, long expected) {
+        assertThat(IsbnParser.parse(isbn)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @DisplayName("""
+            Wrong checksums, lengths, prefixes and characters are rejected.
+            """)
+    @ValueSource(strings = {
+            "978-3-16-148410-9",
+            "0-306-40615-3",
+            "977-3-16-148410-1",
+            "978316148410",
+            "97831614841000",
+            "X306406152",
+            "080442957X1",
+            "978-3-16-14841a-0",
+            ""
+    })
+    void parse_InvalidIsbn_ReturnsInvalid(String isbn) {
+        assertThat(IsbnParser.parse(isbn)).isEqualTo(IsbnParser.INVALID);
+    }
+}
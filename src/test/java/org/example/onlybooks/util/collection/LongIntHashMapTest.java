@@ -0,0 +1,88 @@
+package org.example.onlybooks.util.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LongIntHashMapTest {
+    private final LongIntHashMap map = new LongIntHashMap();
+
+    @Test
+    @DisplayName("""
+            Tests put, update, addTo and remove, including the zero key and missing keys.
+            """)
+    void put_UpdatesAndRemovesKeys() {
+        map.put(0L, 7);
+        map.put(-3L, 1);
+        map.put(Long.MIN_VALUE, 2);
+        map.put(-3L, 4);
+
+        assertThat(map.size()).isEqualTo(3);
+        assertThat(map.getOrDefault(-3L, -1)).isEqualTo(4);
+        assertThat(map.addTo(0L, 3)).isEqualTo(10);
+        assertThat(map.addTo(5L, 2)).isEqualTo(2);
+        assertThat(map.remove(0L, -1)).isEqualTo(10);
+        assertThat(map.remove(0L, -1)).isEqualTo(-1);
+        assertThat(map.remove(42L, -1)).isEqualTo(-1);
+        assertThat(map.containsKey(0L)).isFalse();
+        assertThat(map.containsKey(Long.MIN_VALUE)).isTrue();
+        assertThat(map.size()).isEqualTo(3);
+
+        map.clear();
+
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.getOrDefault(-3L, -1)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that the map keeps every entry while it grows from its smallest capacity and
+            while removals shift colliding keys back, compared against a HashMap.
+            """)
+    void remove_afterGrowth_KeepsCollidingKeys() {
+        Random random = new Random(42);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(5_000) - 1_000L;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key, -1)).isEqualTo(expected.getOrDefault(key, -1));
+                expected.remove(key);
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        Map<Long, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        assertThat(actual).isEqualTo(expected);
+        expected.forEach((key, value) -> assertThat(map.getOrDefault(key, -1)).isEqualTo(value));
+    }
+
+    @Test
+    @DisplayName("""
+            Tests that a map sized for a single entry, filled close to its load factor, keeps
+            the remaining keys reachable when every other key is removed.
+            """)
+    void remove_fromNearlyFullTable_KeepsOtherKeys() {
+        LongIntHashMap small = new LongIntHashMap(1);
+        for (long key = 1; key <= 9; key++) {
+            small.put(key, (int) key);
+        }
+        for (long key = 1; key <= 9; key += 2) {
+            assertThat(small.remove(key, -1)).isEqualTo((int) key);
+        }
+
+        for (long key = 2; key <= 8; key += 2) {
+            assertThat(small.getOrDefault(key, -1)).isEqualTo((int) key);
+        }
+        assertThat(small.containsKey(1L)).isFalse();
+        assertThat(small.size()).isEqualTo(4);
+    }
+}
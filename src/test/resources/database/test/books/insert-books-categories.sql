@@ -5,3 +5,5 @@ values
     (2, 2),
     (3, 1),
     (4, 2);
+update categories c
+set book_count = (select count(*) from books_categories bc where bc.category_id = c.id);
@@ -1,13 +1,13 @@
-insert into books (id, title, author, isbn, price, description, cover_image)
+insert into books (id, title, author, isbn, price, description, cover_image, stock)
 values
     (1, 'Test book 1', 'Test author 1',
-     '978-3-16-148410-0', 99.99, 'test 1', null),
+     '978-3-16-148410-0', 99.99, 'test 1', null, 100),
 
     (2, 'Test book 2', 'Test author 2',
-     '978-0-12-345678-9', 151.22, 'test 2', null),
+     '978-0-12-345678-9', 151.22, 'test 2', null, 100),
 
     (3, 'Test book 3', 'Test author 3',
-     '978-1-23-456789-0', 149.99, 'test 3', null),
+     '978-1-23-456789-0', 149.99, 'test 3', null, 100),
 
     (4, 'Test book 4', 'Test author 4',
-     '978-9-87-654321-0', 250.99, 'test 4', null);
+     '978-9-87-654321-0', 250.99, 'test 4', null, 100);
@@ -3,3 +3,5 @@ values (1, 1, 1, 1, 99.99),
        (2, 2, 2, 5, 151.22),
        (3, 1, 3, 1, 149.99),
        (4, 3, 2, 1, 151.22);
+
+update id_generators set next_val = 5 where sequence_name = 'order_items';
@@ -8,3 +8,5 @@ values (1, 6,
        (3, 6,
         'COMPLETED', 151.22,
         '2024-12-28 14:30:00', 'test address');
+
+update id_generators set next_val = 4 where sequence_name = 'orders';